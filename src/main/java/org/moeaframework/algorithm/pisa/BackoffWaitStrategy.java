@@ -0,0 +1,98 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+/**
+ * Busy-spins for a short time and then parks with exponential backoff up to a ceiling.  This suits selectors that
+ * respond quickly, such as SEMO and FEMO with a small number of offspring, where even a sub-millisecond fixed delay
+ * dominates each generation.  Spinning occupies a core, so keep the number of spins small when running many
+ * selectors concurrently.
+ */
+public class BackoffWaitStrategy implements WaitStrategy {
+	
+	/**
+	 * The default number of spins before parking.
+	 */
+	public static final int DEFAULT_SPINS = 100;
+	
+	/**
+	 * The number of attempts that spin before parking.
+	 */
+	private final int spins;
+	
+	/**
+	 * The initial park duration in nanoseconds.
+	 */
+	private final long minimumDelay;
+	
+	/**
+	 * The longest park duration in nanoseconds.
+	 */
+	private final long maximumDelay;
+	
+	/**
+	 * Constructs a spin-then-park wait strategy.
+	 * 
+	 * @param spins the number of attempts that spin before parking
+	 * @param minimumDelay the initial park duration in nanoseconds
+	 * @param maximumDelay the longest park duration in nanoseconds
+	 */
+	public BackoffWaitStrategy(int spins, long minimumDelay, long maximumDelay) {
+		super();
+		
+		if (spins < 0) {
+			throw new IllegalArgumentException("spins must be non-negative");
+		}
+		
+		if (minimumDelay <= 0 || maximumDelay < minimumDelay) {
+			throw new IllegalArgumentException("delays must be positive with minimumDelay <= maximumDelay");
+		}
+		
+		this.spins = spins;
+		this.minimumDelay = minimumDelay;
+		this.maximumDelay = maximumDelay;
+	}
+
+	@Override
+	public void idle(int attempt) throws InterruptedException {
+		if (attempt < spins) {
+			Thread.onSpinWait();
+			
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		} else {
+			PollingWaitStrategy.park(getDelay(attempt - spins));
+		}
+	}
+	
+	/**
+	 * Returns the park duration after the given number of previous parks.
+	 * 
+	 * @param parks the number of previous parks
+	 * @return the park duration in nanoseconds
+	 */
+	long getDelay(int parks) {
+		if (parks >= Long.numberOfLeadingZeros(minimumDelay) - 1) {
+			return maximumDelay;
+		}
+		
+		return Math.min(maximumDelay, minimumDelay << parks);
+	}
+
+}
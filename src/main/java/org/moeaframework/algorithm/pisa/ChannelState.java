@@ -0,0 +1,204 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes PISA state files through a single {@link FileChannel} that stays open for the whole run, rather
+ * than opening a new reader or writer on every poll.  Reads and writes happen in place at position {@code 0} using a
+ * reused buffer.
+ * <p>
+ * The file contents are identical to {@link State}: writing truncates the file and then writes the state in ASCII,
+ * exactly like the {@code fopen(..., "w")} and {@code fprintf} calls used by the selectors.  We intentionally do not
+ * memory map the file, since the selectors truncate the file on every write and accessing a mapped page beyond the
+ * end of the file faults.  The state file must not be deleted or replaced while this object is open.
+ */
+public class ChannelState extends State {
+	
+	/**
+	 * Reused buffer for reading and writing the state.  States are small integers, so this is ample.
+	 */
+	private final ByteBuffer buffer;
+	
+	/**
+	 * The channel to the state file, opened on first use.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Constructs a state indicator backed by the specified file, using the wait strategy and poll rate defined in
+	 * {@link PISASettings}.
+	 * 
+	 * @param file the state file
+	 */
+	public ChannelState(File file) {
+		super(file);
+		buffer = ByteBuffer.allocate(32);
+	}
+
+	/**
+	 * Constructs a state indicator backed by the specified file.
+	 * 
+	 * @param file the state file
+	 * @param waitStrategy the strategy for idling between successive reads of the state file
+	 */
+	public ChannelState(File file, WaitStrategy waitStrategy) {
+		super(file, waitStrategy);
+		buffer = ByteBuffer.allocate(32);
+	}
+	
+	private FileChannel open() throws IOException {
+		if (channel == null) {
+			channel = FileChannel.open(getFile().toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+		}
+		
+		return channel;
+	}
+
+	@Override
+	public int get() throws IOException {
+		FileChannel channel = open();
+		
+		buffer.clear();
+		int length = channel.read(buffer, 0);
+		
+		if (length <= 0) {
+			return -1;
+		}
+		
+		int end = 0;
+		
+		while (end < length && buffer.get(end) != '\n' && buffer.get(end) != '\r') {
+			end++;
+		}
+		
+		if (end == buffer.capacity()) {
+			return super.get();
+		}
+		
+		return parse(end);
+	}
+	
+	/**
+	 * Parses the integer stored in the first {@code length} bytes of the buffer, following the same rules as
+	 * {@link Integer#parseInt(String)}.
+	 * 
+	 * @param length the number of bytes
+	 * @return the parsed integer
+	 * @throws NumberFormatException if the bytes are not a valid integer
+	 */
+	private int parse(int length) {
+		int index = 0;
+		boolean negative = false;
+		
+		if (length > 0 && (buffer.get(0) == '-' || buffer.get(0) == '+')) {
+			negative = buffer.get(0) == '-';
+			index++;
+		}
+		
+		if (index == length) {
+			throw invalid(length);
+		}
+		
+		long value = 0;
+		
+		for (; index < length; index++) {
+			int digit = buffer.get(index) - '0';
+			
+			if (digit < 0 || digit > 9) {
+				throw invalid(length);
+			}
+			
+			value = 10 * value + digit;
+			
+			if (value > (long)Integer.MAX_VALUE + 1) {
+				throw invalid(length);
+			}
+		}
+		
+		value = negative ? -value : value;
+		
+		if (value > Integer.MAX_VALUE) {
+			throw invalid(length);
+		}
+		
+		return (int)value;
+	}
+	
+	private NumberFormatException invalid(int length) {
+		return new NumberFormatException("For input string: \"" +
+				new String(buffer.array(), 0, length, StandardCharsets.US_ASCII) + "\"");
+	}
+
+	@Override
+	protected void write(int state) throws IOException {
+		FileChannel channel = open();
+		
+		buffer.clear();
+		
+		if (state < 0) {
+			buffer.put((byte)'-');
+		}
+		
+		int start = buffer.position();
+		long value = Math.abs((long)state);
+		
+		do {
+			buffer.put((byte)('0' + (value % 10)));
+			value /= 10;
+		} while (value > 0);
+		
+		for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+			byte temp = buffer.get(i);
+			buffer.put(i, buffer.get(j));
+			buffer.put(j, temp);
+		}
+		
+		buffer.flip();
+		channel.truncate(0);
+		
+		while (buffer.hasRemaining()) {
+			channel.write(buffer, buffer.position());
+		}
+	}
+
+	@Override
+	protected boolean exists() {
+		return channel != null || super.exists();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (channel != null) {
+				channel.close();
+				channel = null;
+			}
+		} finally {
+			super.close();
+		}
+	}
+
+}
@@ -0,0 +1,339 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.math.BigInteger;
+
+/**
+ * Formats doubles as the shortest decimal that parses back to the same value, using the Schubfach algorithm by
+ * Raffaello Giulietti.  The output follows the format of {@link Double#toString(double)}, and is identical to it from
+ * Java 19 onward, which adopted the same algorithm.  Earlier versions sometimes print more digits than needed, such as
+ * {@code 9.999999999999999E22} for {@code 1.0E23}.  Both forms round-trip and are accepted by {@code fscanf}.
+ * <p>
+ * Digits are written directly into a byte array, so formatting does not allocate.  This class is not thread safe.
+ * 
+ * @see <a href="https://drive.google.com/file/d/1IEeATSVnEE6TkrHlCYNY2GjaraBjOT4f">The Schubfach way to render
+ *      doubles</a>
+ */
+final class DoubleFormatter {
+	
+	/**
+	 * The maximum number of bytes written for any value, such as {@code -2.2250738585072014E-308}.
+	 */
+	static final int MAX_LENGTH = 24;
+	
+	/**
+	 * The minimum and maximum decimal exponents of the table of powers of ten.
+	 */
+	private static final int K_MIN = -324;
+	
+	private static final int K_MAX = 292;
+	
+	/**
+	 * The minimum binary exponent of the significand, for subnormal values.
+	 */
+	private static final int Q_MIN = -1074;
+	
+	/**
+	 * The number of bits in the significand, including the implicit leading bit.
+	 */
+	private static final int P = 53;
+	
+	/**
+	 * The implicit leading bit of normal values.
+	 */
+	private static final long C_MIN = 1L << (P - 1);
+	
+	/**
+	 * Subnormal significands below this value need an extra digit of precision.
+	 */
+	private static final long C_TINY = 3;
+	
+	private static final long MASK_63 = (1L << 63) - 1;
+	
+	/**
+	 * For each decimal exponent {@code k}, the 126-bit approximation {@code g = floor(10^-k 2^-r) + 1}, where
+	 * {@code r} is chosen so {@code 2^125 <= g < 2^126}, split into the upper and lower 63 bits.
+	 */
+	private static final long[] G = createTable();
+	
+	/**
+	 * The digits of the significand, in reverse order.
+	 */
+	private final byte[] digits;
+	
+	/**
+	 * Constructs a new formatter.
+	 */
+	DoubleFormatter() {
+		super();
+		digits = new byte[20];
+	}
+	
+	/**
+	 * Writes the shortest decimal representation of the value, which requires at most {@link #MAX_LENGTH} bytes.
+	 * 
+	 * @param value the value
+	 * @param buffer the buffer
+	 * @param offset the offset in the buffer where the first byte is written
+	 * @return the offset following the last byte written
+	 */
+	int format(double value, byte[] buffer, int offset) {
+		long bits = Double.doubleToRawLongBits(value);
+		long t = bits & (C_MIN - 1);
+		int bq = (int)(bits >>> (P - 1)) & 0x7FF;
+		
+		if (bq == 0x7FF) {
+			return appendASCII(t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity", buffer, offset);
+		}
+		
+		if (bits < 0) {
+			buffer[offset++] = '-';
+		}
+		
+		if (bq != 0) {
+			//normal value, with the fast path for integers
+			int mq = -Q_MIN + 1 - bq;
+			long c = C_MIN | t;
+			
+			if (0 < mq && mq < P) {
+				long f = c >> mq;
+				
+				if (f << mq == c) {
+					return toChars(f, 0, buffer, offset);
+				}
+			}
+			
+			return toDecimal(-mq, c, 0, buffer, offset);
+		} else if (t != 0) {
+			//subnormal value
+			return t < C_TINY ? toDecimal(Q_MIN, 10 * t, -1, buffer, offset) : toDecimal(Q_MIN, t, 0, buffer, offset);
+		} else {
+			return appendASCII("0.0", buffer, offset);
+		}
+	}
+	
+	/**
+	 * Computes the shortest decimal in the rounding interval of {@code c 2^q}, preferring the one closest to the
+	 * value.
+	 */
+	private int toDecimal(int q, long c, int dk, byte[] buffer, int offset) {
+		int out = (int)c & 0x1;
+		long cb = c << 2;
+		long cbr = cb + 2;
+		long cbl;
+		int k;
+		
+		if (c != C_MIN | q == Q_MIN) {
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		} else {
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		
+		int h = q + flog2pow10(-k) + 2;
+		long g1 = G[(k - K_MIN) << 1];
+		long g0 = G[((k - K_MIN) << 1) | 1];
+		
+		long vb = rop(g1, g0, cb << h);
+		long vbl = rop(g1, g0, cbl << h);
+		long vbr = rop(g1, g0, cbr << h);
+		
+		long s = vb >> 2;
+		
+		if (s >= 100) {
+			//try one digit less than the full precision
+			long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+			long tp10 = sp10 + 10;
+			boolean upin = vbl + out <= sp10 << 2;
+			boolean wpin = (tp10 << 2) + out <= vbr;
+			
+			if (upin != wpin) {
+				return toChars(upin ? sp10 : tp10, k, buffer, offset);
+			}
+		}
+		
+		long u = s + 1;
+		boolean uin = vbl + out <= s << 2;
+		boolean win = (u << 2) + out <= vbr;
+		
+		if (uin != win) {
+			return toChars(uin ? s : u, k + dk, buffer, offset);
+		}
+		
+		//both are in the interval, pick the closest and break ties to even
+		long cmp = vb - (s + u << 1);
+		return toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : u, k + dk, buffer, offset);
+	}
+	
+	/**
+	 * Computes {@code g cp 2^-127} rounded to odd.
+	 */
+	private static long rop(long g1, long g0, long cp) {
+		long x1 = Math.multiplyHigh(g0, cp);
+		long y0 = g1 * cp;
+		long y1 = Math.multiplyHigh(g1, cp);
+		long z = (y0 >>> 1) + x1;
+		long vbp = y1 + (z >>> 63);
+		return vbp | (z & MASK_63) + MASK_63 >>> 63;
+	}
+	
+	/**
+	 * Writes {@code f 10^e} in the format of {@link Double#toString(double)}: plain notation with at least one
+	 * fractional digit for values in {@code [10^-3, 10^7)}, and computerized scientific notation otherwise.
+	 */
+	private int toChars(long f, int e, byte[] buffer, int offset) {
+		while (f % 10 == 0) {
+			f /= 10;
+			e++;
+		}
+		
+		int length = 0;
+		
+		while (f != 0) {
+			digits[length++] = (byte)('0' + f % 10);
+			f /= 10;
+		}
+		
+		//the value is 0.d1d2...dn 10^exponent
+		int exponent = e + length;
+		
+		if (0 < exponent && exponent <= 7) {
+			for (int i = 0; i < exponent; i++) {
+				buffer[offset++] = i < length ? digits[length - i - 1] : (byte)'0';
+			}
+			
+			buffer[offset++] = '.';
+			
+			if (exponent >= length) {
+				buffer[offset++] = '0';
+			} else {
+				for (int i = exponent; i < length; i++) {
+					buffer[offset++] = digits[length - i - 1];
+				}
+			}
+		} else if (-3 < exponent && exponent <= 0) {
+			buffer[offset++] = '0';
+			buffer[offset++] = '.';
+			
+			for (int i = exponent; i < 0; i++) {
+				buffer[offset++] = '0';
+			}
+			
+			for (int i = 0; i < length; i++) {
+				buffer[offset++] = digits[length - i - 1];
+			}
+		} else {
+			buffer[offset++] = digits[length - 1];
+			buffer[offset++] = '.';
+			
+			if (length == 1) {
+				buffer[offset++] = '0';
+			} else {
+				for (int i = 1; i < length; i++) {
+					buffer[offset++] = digits[length - i - 1];
+				}
+			}
+			
+			buffer[offset++] = 'E';
+			
+			int scientificExponent = exponent - 1;
+			
+			if (scientificExponent < 0) {
+				buffer[offset++] = '-';
+				scientificExponent = -scientificExponent;
+			}
+			
+			if (scientificExponent >= 100) {
+				buffer[offset++] = (byte)('0' + scientificExponent / 100);
+			}
+			
+			if (scientificExponent >= 10) {
+				buffer[offset++] = (byte)('0' + scientificExponent / 10 % 10);
+			}
+			
+			buffer[offset++] = (byte)('0' + scientificExponent % 10);
+		}
+		
+		return offset;
+	}
+	
+	private static int appendASCII(String text, byte[] buffer, int offset) {
+		for (int i = 0; i < text.length(); i++) {
+			buffer[offset++] = (byte)text.charAt(i);
+		}
+		
+		return offset;
+	}
+	
+	/**
+	 * Returns {@code floor(e log10(2))}.
+	 */
+	private static int flog10pow2(int e) {
+		return (int)(e * 661_971_961_083L >> 41);
+	}
+	
+	/**
+	 * Returns {@code floor(log10(3/4 2^e))}.
+	 */
+	private static int flog10threeQuartersPow2(int e) {
+		return (int)(e * 661_971_961_083L + -274_743_187_321L >> 41);
+	}
+	
+	/**
+	 * Returns {@code floor(e log2(10))}.
+	 */
+	private static int flog2pow10(int e) {
+		return (int)(e * 913_124_641_741L >> 38);
+	}
+	
+	/**
+	 * Computes the table of powers of ten with exact integer arithmetic, which is done once when the class is loaded.
+	 */
+	private static long[] createTable() {
+		long[] table = new long[(K_MAX - K_MIN + 1) << 1];
+		BigInteger mask = BigInteger.valueOf(MASK_63);
+		
+		for (int k = K_MIN; k <= K_MAX; k++) {
+			int r = flog2pow10(-k) - 125;
+			BigInteger numerator = BigInteger.ONE;
+			BigInteger denominator = BigInteger.ONE;
+			
+			if (k <= 0) {
+				numerator = BigInteger.TEN.pow(-k);
+			} else {
+				denominator = BigInteger.TEN.pow(k);
+			}
+			
+			if (r <= 0) {
+				numerator = numerator.shiftLeft(-r);
+			} else {
+				denominator = denominator.shiftLeft(r);
+			}
+			
+			BigInteger g = numerator.divide(denominator).add(BigInteger.ONE);
+			
+			table[(k - K_MIN) << 1] = g.shiftRight(63).longValueExact();
+			table[((k - K_MIN) << 1) | 1] = g.and(mask).longValueExact();
+		}
+		
+		return table;
+	}
+
+}
@@ -0,0 +1,56 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for reading, writing, or clearing one of the {@code ini}, {@code var}, {@code sel}, or
+ * {@code arc} communication files.
+ */
+@Name("org.moeaframework.pisa.FileTransfer")
+@Label("File Transfer")
+@Category({ "MOEA Framework", "PISA" })
+@Description("Read, wrote, or cleared a PISA communication file")
+@Enabled(false)
+@StackTrace(false)
+final class FileTransferEvent extends Event {
+	
+	@Label("File")
+	String file;
+	
+	@Label("Operation")
+	@Description("Either read, write, or clear")
+	String operation;
+	
+	@Label("Bytes")
+	@DataAmount
+	long bytes;
+	
+	@Label("Identifiers")
+	@Description("The number of solution identifiers in the file")
+	int ids;
+
+}
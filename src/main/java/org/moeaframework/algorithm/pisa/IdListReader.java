@@ -0,0 +1,370 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the identifiers in a {@code sel} or {@code arc} file, which contain the number of identifiers, one identifier
+ * per line, and {@code END}.  The file is read into a reused buffer and the digits are parsed in place into a reused
+ * array, so no objects are created per generation.  Each line must contain only an integer, exactly as accepted by
+ * {@link Integer#parseInt(String)}, and lines may end with {@code \n}, {@code \r\n}, or {@code \r}.
+ * <p>
+ * Like {@link ChannelState}, the file can be kept open between reads.  In that case, the file must not be deleted or
+ * replaced while this object is open, which holds for selectors that rewrite the file in place with
+ * {@code fopen(..., "w")}.
+ */
+public class IdListReader implements Closeable {
+	
+	/**
+	 * The contents written by {@link #clear()}, matching {@code println('0')} in previous versions.
+	 */
+	private static final byte[] CLEARED = ("0" + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII);
+	
+	/**
+	 * The {@code sel} or {@code arc} file.
+	 */
+	private final File file;
+	
+	/**
+	 * {@code true} if the channel stays open between reads; {@code false} if it is opened for each read.
+	 */
+	private final boolean keepOpen;
+	
+	/**
+	 * The buffer holding the file contents.
+	 */
+	private ByteBuffer buffer;
+	
+	/**
+	 * The identifiers read from the file, valid up to the length returned by {@link #read()}.
+	 */
+	private int[] ids;
+	
+	/**
+	 * The position of the next byte to parse.
+	 */
+	private int position;
+	
+	/**
+	 * The channel to the file, or {@code null} if not open.
+	 */
+	private FileChannel channel;
+	
+	/**
+	 * Constructs a reader for a {@code sel} or {@code arc} file.
+	 * 
+	 * @param file the {@code sel} or {@code arc} file
+	 * @param keepOpen {@code true} to keep the file open between reads; {@code false} to open it for each read
+	 */
+	public IdListReader(File file, boolean keepOpen) {
+		super();
+		this.file = file;
+		this.keepOpen = keepOpen;
+		
+		buffer = ByteBuffer.allocate(4096);
+		ids = new int[256];
+	}
+	
+	/**
+	 * Returns the file read by this reader.
+	 * 
+	 * @return the file read by this reader
+	 */
+	public File getFile() {
+		return file;
+	}
+	
+	/**
+	 * Returns the identifiers from the last call to {@link #read()}.  The array is reused, so only the elements up to
+	 * the returned length are valid, and only until the next call.
+	 * 
+	 * @return the identifiers from the last call to {@link #read()}
+	 */
+	public int[] getIds() {
+		return ids;
+	}
+	
+	/**
+	 * Returns the size, in bytes, of the file at the last call to {@link #read()}.
+	 * 
+	 * @return the size, in bytes, of the file at the last call to {@link #read()}
+	 */
+	public int getByteCount() {
+		return buffer.limit();
+	}
+	
+	/**
+	 * Reads the file, storing the identifiers in {@link #getIds()}.
+	 * 
+	 * @return the number of identifiers read
+	 * @throws IOException if an I/O error occurred or the file is malformed
+	 * @throws NumberFormatException if a line does not contain an integer
+	 */
+	public int read() throws IOException {
+		FileTransferEvent event = new FileTransferEvent();
+		event.begin();
+		
+		fill();
+		position = 0;
+		
+		int size = parseLine();
+		
+		if (size < 0) {
+			throw new IOException("invalid size " + size + " in " + file);
+		}
+		
+		if (size > ids.length) {
+			ids = new int[Math.max(size, ids.length * 2)];
+		}
+		
+		for (int i = 0; i < size; i++) {
+			ids[i] = parseLine();
+		}
+		
+		//sanity check
+		if (!isEnd()) {
+			throw new IOException("expected END on last line");
+		}
+		
+		commit(event, "read", buffer.limit(), size);
+		return size;
+	}
+	
+	/**
+	 * Clears the file by writing {@code 0}.  Some selector implementations may block until the {@code sel} and
+	 * {@code arc} files are cleared.
+	 * 
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void clear() throws IOException {
+		FileTransferEvent event = new FileTransferEvent();
+		event.begin();
+		
+		FileChannel channel = open(true);
+		
+		try {
+			channel.truncate(0);
+			
+			ByteBuffer contents = ByteBuffer.wrap(CLEARED);
+			long offset = 0;
+			
+			while (contents.hasRemaining()) {
+				offset += channel.write(contents, offset);
+			}
+		} finally {
+			release();
+		}
+		
+		commit(event, "clear", CLEARED.length, 0);
+	}
+	
+	/**
+	 * Records the transfer, if enabled in a Flight Recorder recording.
+	 * 
+	 * @param event the event started before the transfer
+	 * @param operation the operation
+	 * @param bytes the number of bytes transferred
+	 * @param count the number of identifiers
+	 */
+	private void commit(FileTransferEvent event, String operation, long bytes, int count) {
+		if (event.shouldCommit()) {
+			event.file = file.getPath();
+			event.operation = operation;
+			event.bytes = bytes;
+			event.ids = count;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Reads the whole file into the buffer, growing the buffer as needed.
+	 * 
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void fill() throws IOException {
+		FileChannel channel = open(false);
+		
+		try {
+			buffer.clear();
+			
+			while (true) {
+				if (!buffer.hasRemaining()) {
+					ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+					buffer.flip();
+					grown.put(buffer);
+					buffer = grown;
+				}
+				
+				if (channel.read(buffer, buffer.position()) < 0) {
+					break;
+				}
+			}
+			
+			buffer.flip();
+		} finally {
+			release();
+		}
+	}
+	
+	/**
+	 * Parses the next line as an integer, following the rules of {@link Integer#parseInt(String)}.
+	 * 
+	 * @return the integer
+	 * @throws IOException if the end of the file was reached
+	 * @throws NumberFormatException if the line does not contain an integer
+	 */
+	private int parseLine() throws IOException {
+		byte[] bytes = buffer.array();
+		int limit = buffer.limit();
+		
+		if (position >= limit) {
+			throw new IOException("unexpected end of file");
+		}
+		
+		int start = position;
+		boolean negative = false;
+		long value = 0;
+		int digits = 0;
+		
+		if (bytes[position] == '-' || bytes[position] == '+') {
+			negative = bytes[position] == '-';
+			position++;
+		}
+		
+		while (position < limit && bytes[position] != '\n' && bytes[position] != '\r') {
+			int digit = bytes[position] - '0';
+			
+			if (digit < 0 || digit > 9 || ++digits > 10) {
+				throw invalidLine(start);
+			}
+			
+			value = 10 * value + digit;
+			position++;
+		}
+		
+		if (digits == 0) {
+			throw invalidLine(start);
+		}
+		
+		if (negative) {
+			value = -value;
+		}
+		
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw invalidLine(start);
+		}
+		
+		skipLineTerminator();
+		return (int)value;
+	}
+	
+	/**
+	 * Returns {@code true} if the next line is {@code END}.
+	 * 
+	 * @return {@code true} if the next line is {@code END}; {@code false} otherwise
+	 */
+	private boolean isEnd() {
+		byte[] bytes = buffer.array();
+		int limit = buffer.limit();
+		
+		if (position + 3 > limit || bytes[position] != 'E' || bytes[position+1] != 'N' || bytes[position+2] != 'D') {
+			return false;
+		}
+		
+		position += 3;
+		return position == limit || bytes[position] == '\n' || bytes[position] == '\r';
+	}
+	
+	/**
+	 * Skips the line terminator, if any, at the current position.
+	 */
+	private void skipLineTerminator() {
+		byte[] bytes = buffer.array();
+		int limit = buffer.limit();
+		
+		if (position < limit && bytes[position] == '\r') {
+			position++;
+		}
+		
+		if (position < limit && bytes[position] == '\n') {
+			position++;
+		}
+	}
+	
+	/**
+	 * Creates the exception for a line not containing an integer.  This only allocates on the error path.
+	 * 
+	 * @param start the position where the line starts
+	 * @return the exception
+	 */
+	private NumberFormatException invalidLine(int start) {
+		int end = start;
+		
+		while (end < buffer.limit() && buffer.get(end) != '\n' && buffer.get(end) != '\r') {
+			end++;
+		}
+		
+		return new NumberFormatException("For input string: \"" +
+				new String(buffer.array(), start, end - start, StandardCharsets.US_ASCII) + "\" in " + file);
+	}
+	
+	/**
+	 * Opens the channel, unless already open.
+	 * 
+	 * @param create {@code true} to create the file if it does not exist; {@code false} to fail instead
+	 * @return the channel
+	 * @throws IOException if an I/O error occurred
+	 */
+	private FileChannel open(boolean create) throws IOException {
+		if (channel == null) {
+			channel = create ?
+					FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+							StandardOpenOption.WRITE) :
+					FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+		
+		return channel;
+	}
+	
+	/**
+	 * Closes the channel unless it is kept open between reads.
+	 * 
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void release() throws IOException {
+		if (!keepOpen) {
+			close();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+			channel = null;
+		}
+	}
+
+}
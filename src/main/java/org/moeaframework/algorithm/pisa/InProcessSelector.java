@@ -0,0 +1,253 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+/**
+ * Runs a selector packaged as an executable jar on a thread inside this JVM, instead of starting a second JVM with
+ * {@code java -jar}.  This avoids the startup time and separate heap of the second JVM.  The jar is loaded into its
+ * own class loader, whose parent is the platform class loader, so the selector does not see the classes of this
+ * application and each run starts with fresh static state.  The {@code Main-Class} from the manifest is invoked with
+ * the usual parameter file, file prefix, and poll rate arguments.
+ * <p>
+ * Since the selector is presented as a {@link Process}, it is supervised, pooled, and restarted like any other
+ * selector.  The exit value is {@code 0} if the main method returns normally and {@code 1} if it throws an exception.
+ * Destroying the selector interrupts its thread, which is all we can do; a selector that ignores interruption keeps
+ * polling until it sees a terminate state.
+ * <p>
+ * Take care that the selector never calls {@link System#exit(int)}, as it would exit this JVM along with the selector.
+ * Selectors that do must run in a separate process.
+ */
+public class InProcessSelector extends Process {
+	
+	/**
+	 * The thread running the selector's main method.
+	 */
+	private final Thread thread;
+	
+	/**
+	 * The exit value, set when the thread finishes.
+	 */
+	private volatile int exitValue;
+	
+	/**
+	 * Constructs, but does not start, a thread running the given main method.
+	 * 
+	 * @param name the name of the thread
+	 * @param classLoader the class loader of the selector, which is closed when the selector exits
+	 * @param main the main method
+	 * @param args the arguments passed to the main method
+	 */
+	private InProcessSelector(String name, URLClassLoader classLoader, Method main, String[] args) {
+		super();
+		
+		thread = new Thread(() -> {
+			try {
+				main.invoke(null, (Object)args);
+			} catch (InvocationTargetException e) {
+				exitValue = 1;
+				e.getCause().printStackTrace();
+			} catch (Throwable e) {
+				exitValue = 1;
+				e.printStackTrace();
+			} finally {
+				try {
+					classLoader.close();
+				} catch (IOException e) {
+					// ignore, the jar stays open until the class loader is collected
+				}
+			}
+		}, name);
+		
+		thread.setDaemon(true);
+		thread.setContextClassLoader(classLoader);
+	}
+	
+	/**
+	 * Starts the selector packaged in the given jar file.
+	 * 
+	 * @param jarFile the executable jar file containing the selector
+	 * @param args the arguments passed to the main method, typically the parameter file, file prefix, and poll rate
+	 * @return the running selector
+	 * @throws IOException if the jar could not be read or does not declare a suitable {@code Main-Class}
+	 */
+	public static InProcessSelector start(File jarFile, String... args) throws IOException {
+		String mainClass = getMainClass(jarFile);
+		URLClassLoader classLoader = new URLClassLoader(new URL[] { jarFile.toURI().toURL() },
+				ClassLoader.getPlatformClassLoader());
+		
+		try {
+			Method main = Class.forName(mainClass, false, classLoader).getMethod("main", String[].class);
+			
+			if (!Modifier.isStatic(main.getModifiers())) {
+				throw new NoSuchMethodException(mainClass + ".main is not static");
+			}
+			
+			main.setAccessible(true);
+			
+			InProcessSelector selector = new InProcessSelector("PISA selector " + jarFile.getName(), classLoader,
+					main, args.clone());
+			selector.thread.start();
+			return selector;
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			classLoader.close();
+			throw new IOException("unable to load main class " + mainClass + " from " + jarFile, e);
+		}
+	}
+	
+	/**
+	 * Returns the {@code Main-Class} declared in the manifest of the jar file.
+	 * 
+	 * @param jarFile the jar file
+	 * @return the name of the main class
+	 * @throws IOException if the jar could not be read or does not declare a {@code Main-Class}
+	 */
+	static String getMainClass(File jarFile) throws IOException {
+		try (JarFile jar = new JarFile(jarFile)) {
+			Manifest manifest = jar.getManifest();
+			String mainClass = manifest == null ? null :
+				manifest.getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
+			
+			if (mainClass == null || mainClass.isBlank()) {
+				throw new IOException("no Main-Class in the manifest of " + jarFile);
+			}
+			
+			return mainClass.trim();
+		}
+	}
+	
+	/**
+	 * Returns the jar file if the command runs an executable jar with no other options, as in
+	 * {@code java -jar "selector.jar"}; otherwise returns {@code null}.  Commands passing options to the JVM must run
+	 * in a separate process since those options can not be applied to this JVM.
+	 * 
+	 * @param command the tokens of the command, excluding the PISA arguments
+	 * @return the jar file, or {@code null} if the command does not simply run an executable jar
+	 */
+	public static File getJarFile(String[] command) {
+		if (command.length != 3 || !command[1].equals("-jar")) {
+			return null;
+		}
+		
+		String executable = new File(command[0]).getName();
+		
+		if (!executable.equals("java") && !executable.equalsIgnoreCase("java.exe")) {
+			return null;
+		}
+		
+		File jarFile = new File(command[2]);
+		return jarFile.isFile() ? jarFile : null;
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		return OutputStream.nullOutputStream();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The selector shares {@link System#out} with this JVM, so this stream is always empty.
+	 */
+	@Override
+	public InputStream getInputStream() {
+		return InputStream.nullInputStream();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The selector shares {@link System#err} with this JVM, so this stream is always empty.
+	 */
+	@Override
+	public InputStream getErrorStream() {
+		return InputStream.nullInputStream();
+	}
+
+	@Override
+	public int waitFor() throws InterruptedException {
+		thread.join();
+		return exitValue;
+	}
+	
+	@Override
+	public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+		long millis = unit.toMillis(timeout);
+		
+		if (millis > 0) {
+			thread.join(millis);
+		}
+		
+		return !thread.isAlive();
+	}
+
+	@Override
+	public int exitValue() {
+		if (thread.isAlive()) {
+			throw new IllegalThreadStateException("selector is still running");
+		}
+		
+		return exitValue;
+	}
+	
+	@Override
+	public boolean isAlive() {
+		return thread.isAlive();
+	}
+
+	/**
+	 * Interrupts the selector thread.
+	 */
+	@Override
+	public void destroy() {
+		thread.interrupt();
+	}
+	
+	/**
+	 * Returns an empty stream, as the selector runs in this JVM and has no child processes.
+	 */
+	@Override
+	public Stream<ProcessHandle> descendants() {
+		return Stream.empty();
+	}
+	
+	@Override
+	public Stream<ProcessHandle> children() {
+		return Stream.empty();
+	}
+	
+	@Override
+	public String toString() {
+		return thread.getName();
+	}
+
+}
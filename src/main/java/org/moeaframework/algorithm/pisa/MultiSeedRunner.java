@@ -0,0 +1,317 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.moeaframework.core.FrameworkException;
+import org.moeaframework.core.TypedProperties;
+import org.moeaframework.core.operator.Variation;
+import org.moeaframework.core.population.NondominatedPopulation;
+import org.moeaframework.core.spi.OperatorFactory;
+import org.moeaframework.problem.Problem;
+
+/**
+ * Runs a PISA selector once for each of several seeds, with a bounded number of runs executing concurrently.  Since
+ * each run spends most of its time waiting on the selector, the number of concurrent runs can usually exceed the
+ * number of cores.
+ * <p>
+ * Each seed is passed to the selector through the {@code seed} property.  The variation operators draw from the
+ * shared {@link org.moeaframework.core.PRNG}, so concurrent runs are not bit-for-bit reproducible.
+ */
+public class MultiSeedRunner {
+	
+	/**
+	 * The name of the PISA selector.
+	 */
+	private final String name;
+	
+	/**
+	 * Creates a new instance of the problem for each run.
+	 */
+	private final Supplier<Problem> problemFactory;
+	
+	/**
+	 * The properties for configuring each run.
+	 */
+	private TypedProperties properties;
+	
+	/**
+	 * The number of evaluations in each run.
+	 */
+	private int maxEvaluations;
+	
+	/**
+	 * The maximum number of runs executing concurrently.
+	 */
+	private int concurrency;
+	
+	/**
+	 * Constructs a runner for the given PISA selector.
+	 * 
+	 * @param name the name of the PISA selector
+	 * @param problemFactory creates a new instance of the problem for each run
+	 */
+	public MultiSeedRunner(String name, Supplier<Problem> problemFactory) {
+		super();
+		this.name = name;
+		this.problemFactory = problemFactory;
+		
+		properties = new TypedProperties();
+		maxEvaluations = 10000;
+		concurrency = Runtime.getRuntime().availableProcessors();
+	}
+	
+	/**
+	 * Sets the properties for configuring each run.  The {@code seed} property is overridden for each run.
+	 * 
+	 * @param properties the properties for configuring each run
+	 * @return this runner
+	 */
+	public MultiSeedRunner withProperties(TypedProperties properties) {
+		this.properties = properties;
+		return this;
+	}
+	
+	/**
+	 * Sets the number of evaluations in each run.
+	 * 
+	 * @param maxEvaluations the number of evaluations in each run
+	 * @return this runner
+	 */
+	public MultiSeedRunner withMaxEvaluations(int maxEvaluations) {
+		this.maxEvaluations = maxEvaluations;
+		return this;
+	}
+	
+	/**
+	 * Sets the maximum number of runs executing concurrently.  The default is the number of available processors.
+	 * 
+	 * @param concurrency the maximum number of runs executing concurrently
+	 * @return this runner
+	 */
+	public MultiSeedRunner withConcurrency(int concurrency) {
+		if (concurrency < 1) {
+			throw new IllegalArgumentException("concurrency must be at least 1");
+		}
+		
+		this.concurrency = concurrency;
+		return this;
+	}
+	
+	/**
+	 * Runs the selector once for each seed.  If any run fails, the remaining runs are cancelled, and this returns once
+	 * they have terminated their selectors.
+	 * 
+	 * @param seeds the seeds
+	 * @return the results, in the same order as the seeds
+	 * @throws FrameworkException if any run failed
+	 */
+	public Result run(List<Long> seeds) {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, Math.max(1, seeds.size())));
+		CompletionService<PISAAlgorithm> completionService = new ExecutorCompletionService<PISAAlgorithm>(executor);
+		List<Future<PISAAlgorithm>> futures = new ArrayList<Future<PISAAlgorithm>>();
+		long startTime = System.nanoTime();
+		
+		try {
+			for (long seed : seeds) {
+				futures.add(completionService.submit(() -> run(seed)));
+			}
+			
+			//wait in order of completion, so the first failure cancels the remaining runs
+			for (int i = 0; i < futures.size(); i++) {
+				completionService.take().get();
+			}
+			
+			List<NondominatedPopulation> results = new ArrayList<NondominatedPopulation>();
+			long evaluations = 0;
+			
+			for (Future<PISAAlgorithm> future : futures) {
+				PISAAlgorithm algorithm = future.get();
+				results.add(algorithm.getResult());
+				evaluations += algorithm.getNumberOfEvaluations();
+			}
+			
+			return new Result(results, evaluations, System.nanoTime() - startTime);
+		} catch (InterruptedException | ExecutionException e) {
+			for (Future<PISAAlgorithm> future : futures) {
+				future.cancel(true);
+			}
+			
+			throw new FrameworkException("failed to run " + name, e instanceof ExecutionException ? e.getCause() : e);
+		} finally {
+			executor.shutdownNow();
+			awaitTermination(executor);
+		}
+	}
+	
+	/**
+	 * Waits until the cancelled runs have terminated, so their selectors and workspaces are not left behind once
+	 * {@link #run(List)} returns.  If interrupted, stops waiting and restores the interrupt status.
+	 * 
+	 * @param executor the executor performing the runs
+	 */
+	private static void awaitTermination(ExecutorService executor) {
+		try {
+			while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+				continue;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Runs the selector once for each seed.
+	 * 
+	 * @param seeds the seeds
+	 * @return the results, in the same order as the seeds
+	 * @throws FrameworkException if any run failed
+	 */
+	public Result run(long... seeds) {
+		List<Long> list = new ArrayList<Long>();
+		
+		for (long seed : seeds) {
+			list.add(seed);
+		}
+		
+		return run(list);
+	}
+	
+	/**
+	 * Performs a single run.
+	 * 
+	 * @param seed the seed
+	 * @return the terminated algorithm
+	 * @throws Exception if the run failed
+	 */
+	private PISAAlgorithm run(long seed) throws Exception {
+		TypedProperties runProperties = new TypedProperties();
+		runProperties.addAll(properties);
+		runProperties.setLong("seed", seed);
+		
+		try (Problem problem = problemFactory.get()) {
+			Variation variation = OperatorFactory.getInstance().getVariation(null, runProperties, problem);
+			PISAAlgorithm algorithm = new PISAAlgorithm(name, problem, variation, runProperties);
+			
+			try {
+				while (algorithm.getNumberOfEvaluations() < maxEvaluations && !algorithm.isTerminated()) {
+					if (Thread.interrupted()) {
+						throw new InterruptedException();
+					}
+					
+					algorithm.step();
+				}
+			} catch (Throwable primary) {
+				if (!algorithm.isTerminated()) {
+					try {
+						algorithm.terminate();
+					} catch (RuntimeException e) {
+						// already failing, so report the original error with this one attached
+						primary.addSuppressed(e);
+					}
+				}
+				
+				throw primary;
+			}
+			
+			// a failed final handshake fails the run, since the result may be incomplete
+			if (!algorithm.isTerminated()) {
+				algorithm.terminate();
+			}
+			
+			return algorithm;
+		}
+	}
+	
+	/**
+	 * The results from running the selector with multiple seeds.
+	 */
+	public static class Result {
+		
+		/**
+		 * The result of each run, in the same order as the seeds.
+		 */
+		private final List<NondominatedPopulation> results;
+		
+		/**
+		 * The total number of evaluations across all runs.
+		 */
+		private final long evaluations;
+		
+		/**
+		 * The elapsed wall-clock time in nanoseconds.
+		 */
+		private final long elapsedTime;
+		
+		Result(List<NondominatedPopulation> results, long evaluations, long elapsedTime) {
+			super();
+			this.results = Collections.unmodifiableList(results);
+			this.evaluations = evaluations;
+			this.elapsedTime = elapsedTime;
+		}
+		
+		/**
+		 * Returns the result of each run, in the same order as the seeds.
+		 * 
+		 * @return the result of each run
+		 */
+		public List<NondominatedPopulation> getResults() {
+			return results;
+		}
+		
+		/**
+		 * Returns the total number of evaluations across all runs.
+		 * 
+		 * @return the total number of evaluations across all runs
+		 */
+		public long getEvaluations() {
+			return evaluations;
+		}
+		
+		/**
+		 * Returns the elapsed wall-clock time in seconds.
+		 * 
+		 * @return the elapsed wall-clock time in seconds
+		 */
+		public double getElapsedTime() {
+			return elapsedTime / 1e9;
+		}
+		
+		/**
+		 * Returns the aggregate throughput, in evaluations per second, across all runs.
+		 * 
+		 * @return the aggregate throughput in evaluations per second
+		 */
+		public double getThroughput() {
+			return elapsedTime == 0 ? 0.0 : evaluations / getElapsedTime();
+		}
+		
+	}
+
+}
@@ -17,21 +17,26 @@
  */
 package org.moeaframework.algorithm.pisa;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.text.StringTokenizer;
 import org.moeaframework.algorithm.AbstractAlgorithm;
@@ -59,8 +64,55 @@ import org.moeaframework.util.io.RedirectStream;
  * <pre>
  *   sscanf(argv[2], "%s", filenamebase);
  * </pre>
- * On some operating systems, this will not work if the files used by PISA contain whitespace in the filename.  It may
- * be necessary to set the JVM property {@code java.io.tmpdir} to a folder with no whitespace in the filename.
+ * On some operating systems, this will not work if the files used by PISA contain whitespace in the filename.  The
+ * files are created in {@link PISASettings#getPISACommunicationPath()}, which defaults to a RAM-backed file system
+ * when available and otherwise the JVM property {@code java.io.tmpdir}.  It may be necessary to configure either
+ * location to a folder with no whitespace in the filename.  Each run uses its own subdirectory of this location,
+ * managed by the {@link WorkspaceManager}, which is deleted when the run terminates.
+ * <p>
+ * In addition to the parameters of the selector, the following properties configure this adapter:
+ * <ul>
+ *   <li>{@code populationSize}, {@code mu}, {@code lambda} - the number of solutions in the population, parents, and
+ *       offspring
+ *   <li>{@code pollRate} - the poll rate in milliseconds, which may be fractional, used by both the selector and this
+ *       adapter when waiting on each other
+ *   <li>{@code waitStrategy} - how this adapter waits on the selector, either {@code watch}, {@code poll}, or
+ *       {@code backoff} (see {@link WaitStrategy})
+ *   <li>{@code numberOfThreads} - the number of threads used to run variation and evaluation concurrently; the
+ *       {@code ini} and {@code var} files are still written in a deterministic order, but note that each thread
+ *       draws from its own random number stream
+ *   <li>{@code keepStateOpen} - if {@code true}, keeps the state, {@code sel}, and {@code arc} files open for the
+ *       whole run (see {@link ChannelState} and {@link IdListReader})
+ *   <li>{@code reuseSelector} - if {@code true}, borrows a running selector with the same configuration from the
+ *       {@link SelectorPool} and resets and returns it when terminated, instead of starting a new process; a
+ *       {@code seed} that was not set is ignored when matching selectors, since a borrowed selector continues its own
+ *       random stream, but an explicit {@code seed} only matches selectors started with that seed
+ *   <li>{@code generationTimeout}, {@code totalTimeout} - the longest time, in seconds, to wait for the selector to
+ *       respond to a single request and in total since the run started, or {@code 0} for no limit
+ *   <li>{@code maxRestarts} - the number of times a selector that exited unexpectedly is restarted from the last
+ *       archive before the run fails
+ *   <li>{@code hexFloats} - if {@code true}, writes objective values in the C99 hexadecimal format (see
+ *       {@link PopulationWriter})
+ *   <li>{@code inProcess} - if {@code true} and the selector is started with {@code java -jar}, runs the selector on
+ *       a thread in this JVM (see {@link InProcessSelector}); other selectors still run in a separate process
+ * </ul>
+ * <p>
+ * The selector process is supervised by a {@link SelectorSupervisor}.  If the selector exits unexpectedly or times out,
+ * the run fails instead of waiting forever.  The selector, along with any processes it started, is destroyed when the
+ * run terminates or fails, when the waiting thread is interrupted, or when the JVM exits.
+ * <p>
+ * The time spent in each phase of a generation, such as waiting on the selector or evaluating solutions, is recorded
+ * in {@link PISAStatistics}, available from {@link #getStatistics()} or reported after each generation to a
+ * {@link PISAStatisticsListener}.  For profiling with Java Flight Recorder, the launch and termination of the
+ * selector, each state change we observe, and each read or write of the communication files are also recorded as
+ * events in the {@code PISA} category.  These events are disabled by default and must be enabled by the recording.
+ * <p>
+ * Both sides of the PISA restart protocol are supported.  If the selector requests a reset by setting state 10, we
+ * discard the population, acknowledge with state 11, and start over from a new initial population.
+ * <p>
+ * A run can be saved and resumed, for example with a {@link org.moeaframework.algorithm.extension.CheckpointExtension},
+ * through {@link #saveState(ObjectOutputStream)} and {@link #loadState(ObjectInputStream)}.  The resumed run launches
+ * a new selector and seeds it with the saved archive, so no evaluations already spent are repeated.
  * 
  * @see <a href="http://sop.tik.ee.ethz.ch/pisa/">PISA Homepage</a>
  */
@@ -72,19 +124,49 @@ public class PISAAlgorithm extends AbstractAlgorithm {
 	private final String name;
 
 	/**
-	 * The file prefix used when creating the PISA communication files.
+	 * The workspace containing the PISA communication files, or {@code null} once deleted or handed over to the
+	 * {@link SelectorPool}.  This changes to the workspace of the borrowed selector when reusing a selector from the
+	 * pool.
 	 */
-	private final String filePrefix;
+	private WorkspaceManager.Workspace workspace;
 
 	/**
-	 * The {@link ProcessBuilder} to start the selector process.
+	 * The file prefix used when creating the PISA communication files, which is located in the workspace.
+	 */
+	private String filePrefix;
+	
+	/**
+	 * The parameter file shared through the {@link SelectorRegistry}, or {@code null} if the parameter file is
+	 * configured or was released.
 	 */
-	private final ProcessBuilder selector;
+	private File sharedParameterFile;
+
+	/**
+	 * The command and parameter file used to start the selector process, which is followed by the file prefix and
+	 * poll rate arguments.
+	 */
+	private final String[] command;
+	
+	/**
+	 * The jar file of a selector run in this JVM, or {@code null} if the selector runs in a separate process.
+	 */
+	private File selectorJar;
+	
+	/**
+	 * The poll rate, in seconds, passed to the selector process.
+	 */
+	private final String selectorPollRate;
 
 	/**
 	 * The shared state.
 	 */
-	private final State state;
+	private State state;
+	
+	/**
+	 * The key identifying compatible selectors in the {@link SelectorPool}, or {@code null} if selectors are not
+	 * reused.
+	 */
+	private final String selectorKey;
 
 	/**
 	 * The population size.
@@ -104,12 +186,99 @@ public class PISAAlgorithm extends AbstractAlgorithm {
 	/**
 	 * Mapping from identifiers to solutions.
 	 */
-	private final Map<Integer, Solution> solutions;
+	private final SolutionStore solutions;
+	
+	/**
+	 * The nondominated solutions in {@link #solutions}, refreshed incrementally when the result is requested.
+	 */
+	private final ResultCache result;
+
+	/**
+	 * Writes the {@code ini} and {@code var} files.
+	 */
+	private final PopulationWriter populationWriter;
 
 	/**
 	 * The variation operator.
 	 */
 	private final Variation variation;
+	
+	/**
+	 * The number of threads used for variation and evaluation, if this adapter creates its own executor.
+	 */
+	private final int numberOfThreads;
+	
+	/**
+	 * The executor for variation and evaluation, or {@code null} to run sequentially on the calling thread.
+	 */
+	private ExecutorService executor;
+	
+	/**
+	 * {@code true} if this adapter created the executor and is responsible for shutting it down.
+	 */
+	private boolean shutdownExecutor;
+
+	/**
+	 * Supervises the selector process, which is {@code null} until started.
+	 */
+	private final SelectorSupervisor supervisor;
+	
+	/**
+	 * The statistics of the current generation.
+	 */
+	private final PISAStatistics generationStatistics;
+	
+	/**
+	 * The cumulative statistics of the run.
+	 */
+	private final PISAStatistics statistics;
+	
+	/**
+	 * The listeners notified of the statistics after each generation.
+	 */
+	private final List<PISAStatisticsListener> statisticsListeners;
+	
+	/**
+	 * The value of {@link System#nanoTime()} when {@link #ask()} returned the pending solutions.
+	 */
+	private long askTime;
+	
+	/**
+	 * The number of times a selector that exited unexpectedly may still be restarted.
+	 */
+	private int restartsRemaining;
+	
+	/**
+	 * Reads the {@code sel} file.
+	 */
+	private IdListReader selectionReader;
+	
+	/**
+	 * Reads the {@code arc} file.
+	 */
+	private IdListReader archiveReader;
+	
+	/**
+	 * {@code true} if the state, {@code sel}, and {@code arc} files are kept open for the whole run.
+	 */
+	private final boolean keepFilesOpen;
+	
+	/**
+	 * The number of identifiers in the last archive received from the selector, which remain available from
+	 * {@link #archiveReader}, or {@code 0} if none was received.
+	 */
+	private int lastArchiveLength;
+	
+	/**
+	 * The solutions returned by {@link #ask()} that have not yet been told, or {@code null} if none are pending.
+	 */
+	private List<Solution> pending;
+	
+	/**
+	 * {@code true} if the pending solutions are an initial population, which is written to the {@code ini} file
+	 * instead of the {@code var} file.
+	 */
+	private boolean pendingInitial;
 
 	/**
 	 * Constructs an adapter for a PISA selector.
@@ -131,15 +300,27 @@ public class PISAAlgorithm extends AbstractAlgorithm {
 		
 		Map<String, String> parameters = new LinkedHashMap<String, String>();
 		
-		//ensure the seed property is set
-		if (!properties.contains("seed")) {
-			properties.setInt("seed", PRNG.nextInt());
-		}
+		//a random seed is generated unless one is set, without storing it in the properties, which may be reused by
+		//later runs that should also count as unseeded when matching pooled selectors
+		boolean generatedSeed = !properties.contains("seed");
 				
 		//for backwards compatibility, check if defined in the settings.
 		String command = PISASettings.getPISACommand(name);
 		String configuration = PISASettings.getPISAConfiguration(name);
-		int pollRate = PISASettings.getPISAPollRate();
+		double pollRate = properties.getDouble("pollRate", PISASettings.getPISAPollRate());
+		String waitStrategy = properties.getString("waitStrategy", PISASettings.getPISAWaitStrategy());
+		boolean keepStateOpen = properties.getBoolean("keepStateOpen", PISASettings.getPISAKeepStateOpen());
+		boolean reuseSelector = properties.getBoolean("reuseSelector", PISASettings.getPISAReuseSelectors());
+		double generationTimeout = properties.getDouble("generationTimeout", PISASettings.getPISAGenerationTimeout());
+		double totalTimeout = properties.getDouble("totalTimeout", PISASettings.getPISATotalTimeout());
+		
+		if (pollRate < 0.0) {
+			throw new IllegalArgumentException("pollRate must be non-negative");
+		}
+		
+		if (generationTimeout < 0.0 || totalTimeout < 0.0) {
+			throw new IllegalArgumentException("timeouts must be non-negative");
+		}
 		
 		if (command != null) {
 			for (String parameter : PISASettings.getPISAParameters(name)) {
@@ -149,15 +330,12 @@ public class PISAAlgorithm extends AbstractAlgorithm {
 		
 		//otherwise, we attempt to install the selector and dynamically load the parameters
 		if (command == null) {
-			PISAInstaller installer = PISAInstaller.getInstaller();
+			SelectorRegistry.Selector selector = SelectorRegistry.getInstance().resolve(PISAInstaller.getInstaller(),
+					name);
 			
-			if (!installer.isInstalled(name)) {
-				installer.install(name);
-			}
-			
-			command = installer.getCommand(name);
+			command = selector.getCommand();
 			configuration = null;
-			parameters = installer.getDefaultParameters(name);
+			parameters = new LinkedHashMap<String, String>(selector.getDefaultParameters());
 		}
 		
 		if (command == null) {
@@ -171,28 +349,29 @@ public class PISAAlgorithm extends AbstractAlgorithm {
 			}
 		}
 		
+		if (generatedSeed && parameters.containsKey("seed")) {
+			parameters.put("seed", Integer.toString(PRNG.nextInt()));
+		}
+		
 		//create a temporary location for the files
-		filePrefix = File.createTempFile("pisa", "").getCanonicalPath();
+		workspace = WorkspaceManager.getInstance().create();
+		filePrefix = workspace.getFilePrefix();
+		
+		//write the configuration file if one is not specified, sharing files with identical contents
+		String parameterFile = configuration;
 		
-		//write the configuration file if one is not specified
 		if (configuration == null) {
-			configuration = new File(filePrefix + "par").getCanonicalPath();
-
-			try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(configuration)))) {
-				for (Map.Entry<String, String> parameter : parameters.entrySet()) {
-					writer.print(parameter.getKey());
-					writer.print(' ');
-					writer.println(parameter.getValue());
-				}
-			}
+			sharedParameterFile = SelectorRegistry.getInstance().acquireParameterFile(parameters);
+			configuration = sharedParameterFile.getPath();
 		}
 		
-		//construct the command line call to start the PISA selector
-		selector = new ProcessBuilder(ArrayUtils.addAll(
-				parseCommand(command), 
-				configuration,
-				filePrefix, 
-				Double.toString(pollRate/(double)1000)));
+		//construct the command line call to start the PISA selector, the file prefix is added when launched
+		String[] commandLine = parseCommand(command);
+		
+		this.command = ArrayUtils.add(commandLine, configuration);
+		this.selectorJar = properties.getBoolean("inProcess", PISASettings.getPISAInProcess()) ?
+				InProcessSelector.getJarFile(commandLine) : null;
+		this.selectorPollRate = Double.toString(pollRate/1000.0);
 		
 		//ensure population size is a multiple of the # of parents
 		int populationSize = (int)properties.getDouble("populationSize", 100);
@@ -205,129 +384,847 @@ public class PISAAlgorithm extends AbstractAlgorithm {
 		alpha = populationSize;
 		mu = (int)properties.getDouble("mu", alpha);
 		lambda = (int)properties.getDouble("lambda", alpha);
-		state = new State(new File(filePrefix + "sta"));
-		solutions = new HashMap<Integer, Solution>();
+		numberOfThreads = properties.getInt("numberOfThreads", 1);
+		restartsRemaining = properties.getInt("maxRestarts", PISASettings.getPISAMaxRestarts());
+		
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("numberOfThreads must be at least 1");
+		}
+		
+		File stateFile = new File(filePrefix + "sta");
+		WaitStrategy stateWaitStrategy = WaitStrategy.of(waitStrategy, stateFile, Math.round(pollRate * 1000000.0));
+		state = keepStateOpen ? new ChannelState(stateFile, stateWaitStrategy) : new State(stateFile, stateWaitStrategy);
+		keepFilesOpen = keepStateOpen;
+		selectionReader = new IdListReader(new File(filePrefix + "sel"), keepFilesOpen);
+		archiveReader = new IdListReader(new File(filePrefix + "arc"), keepFilesOpen);
+		solutions = new SolutionStore(alpha + lambda);
+		result = new ResultCache(solutions);
+		populationWriter = new PopulationWriter(problem.getNumberOfObjectives(),
+				properties.getBoolean("hexFloats", PISASettings.getPISAHexFloats()));
+		supervisor = new SelectorSupervisor(Math.round(generationTimeout * 1e9), Math.round(totalTimeout * 1e9));
+		state.setSupervisor(supervisor);
+		generationStatistics = new PISAStatistics();
+		statistics = new PISAStatistics();
+		statisticsListeners = new CopyOnWriteArrayList<PISAStatisticsListener>();
+		
+		//selectors are interchangeable if started with the same command, parameters, poll rate, and cfg file, except
+		//for a generated seed, which a reset selector does not read again; an explicit seed must match
+		if (reuseSelector) {
+			StringBuilder key = new StringBuilder();
+			Map<String, String> keyParameters = new LinkedHashMap<String, String>(parameters);
+			
+			if (generatedSeed) {
+				keyParameters.remove("seed");
+			}
+			
+			for (String token : commandLine) {
+				key.append(token).append('\0');
+			}
+			
+			key.append(parameterFile != null ? parameterFile : keyParameters.toString()).append('\0');
+			key.append(pollRate).append('\0');
+			key.append(getConfiguration());
+			selectorKey = key.toString();
+		} else {
+			selectorKey = null;
+		}
+	}
+	
+	/**
+	 * Replaces the strategy used to wait on the selector.  By default, the strategy is configured by the
+	 * {@code waitStrategy} and {@code pollRate} properties.
+	 * 
+	 * @param waitStrategy the strategy used to wait on the selector
+	 * @throws IOException if an I/O error occurred while closing the previous strategy
+	 */
+	public void setWaitStrategy(WaitStrategy waitStrategy) throws IOException {
+		assertNotInitialized();
+		state.setWaitStrategy(waitStrategy);
+	}
+	
+	/**
+	 * Sets the executor used to run variation and evaluation concurrently, overriding the {@code numberOfThreads}
+	 * property.  The caller remains responsible for shutting down the executor.
+	 * 
+	 * @param executor the executor, or {@code null} to run sequentially on the calling thread
+	 */
+	public void setExecutorService(ExecutorService executor) {
+		assertNotInitialized();
+		this.executor = executor;
+		this.shutdownExecutor = false;
 	}
 	
 	@Override
 	public String getName() {
 		return name;
 	}
+	
+	/**
+	 * Returns the file prefix of the communication files, for testing.
+	 * 
+	 * @return the file prefix of the communication files
+	 */
+	String getFilePrefix() {
+		return filePrefix;
+	}
 
 	@Override
 	public void initialize() {
-		super.initialize();
+		List<Solution> initialPopulation = ask();
+		evaluateBatch(initialPopulation);
+		tell(initialPopulation);
+	}
+	
+	/**
+	 * Returns the next solutions to evaluate, which must be evaluated and passed to {@link #tell(List)} before asking
+	 * again.  The first call initializes this algorithm and returns the initial population.  Subsequent calls wait
+	 * for the selector to choose the parents and return the offspring produced by the variation operator.  If the
+	 * selector has finished, this algorithm is terminated and an empty list is returned.
+	 * <p>
+	 * Together with {@link #tell(List)}, this lets the caller evaluate solutions elsewhere, for example by batching
+	 * the evaluations of many concurrent runs into one job, instead of blocking inside {@link #step()}.
+	 * 
+	 * @return the solutions to evaluate
+	 * @throws AlgorithmException if the solutions from the previous call have not been told
+	 */
+	public List<Solution> ask() {
+		if (pending != null) {
+			throw new AlgorithmException(this, "previous solutions have not been told, call tell(...) first");
+		}
+		
+		boolean initializing = !isInitialized();
 		
-		if (variation == null) {
-			throw new FrameworkException("no variation operator set, must set one by calling setVariation(...)");
+		if (initializing) {
+			super.initialize();
+			
+			if (variation == null) {
+				throw new FrameworkException("no variation operator set, must set one by calling setVariation(...)");
+			}
 		}
-
+		
 		try {
+			//a run resumed from a state saved before any solutions were told has no selector yet
+			if (initializing || solutions.isEmpty()) {
+				prepare();
+				state.set(0);
+				pending = state0();
+				pendingInitial = true;
+			} else {
+				long waitStart = System.nanoTime();
+				long polls = state.getPollCount();
+				int currentState = awaitSelection();
+				
+				generationStatistics.addWaitTime(System.nanoTime() - waitStart);
+				generationStatistics.addPolls(state.getPollCount() - polls);
+				
+				switch (currentState) {
+				case 2:
+					pending = state2();
+					pendingInitial = false;
+					break;
+				case 10:
+					pending = state10();
+					pendingInitial = true;
+					break;
+				default:
+					terminate();
+					return List.of();
+				}
+			}
+			
+			askTime = System.nanoTime();
+			return Collections.unmodifiableList(pending);
+		} catch (Exception e) {
+			throw fail(e);
+		}
+	}
+	
+	/**
+	 * Creates the executor, if required, and starts supervising the selector.  When reusing selectors, a compatible
+	 * selector is borrowed from the {@link SelectorPool} if one is available.  Otherwise, the {@code cfg} file is
+	 * written for a new selector.
+	 * 
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void prepare() throws IOException {
+		if (executor == null && numberOfThreads > 1) {
+			executor = Executors.newFixedThreadPool(numberOfThreads);
+			shutdownExecutor = true;
+		}
+		
+		supervisor.start();
+		
+		if (selectorKey != null) {
+			SelectorPool.Handle handle = SelectorPool.getInstance().borrow(selectorKey);
+			
+			if (handle != null) {
+				adopt(handle);
+			}
+		}
+		
+		//a borrowed selector is already running with the same cfg file, so leave its files in place
+		if (supervisor.getProcess() == null) {
 			configure();
-			state.set(0);
-			state0();
-			state.set(1);
+		}
+	}
+	
+	/**
+	 * Supplies the evaluated solutions returned by the previous call to {@link #ask()}, in the same order, and
+	 * signals the selector to continue.  The solutions may be copies of those returned by {@link #ask()}.
+	 * 
+	 * @param evaluated the evaluated solutions
+	 * @throws AlgorithmException if there are no solutions pending from {@link #ask()}
+	 * @throws IllegalArgumentException if the number of solutions differs from the number asked
+	 */
+	public void tell(List<Solution> evaluated) {
+		if (pending == null) {
+			throw new AlgorithmException(this, "no solutions are pending, call ask() first");
+		}
+		
+		if (evaluated.size() != pending.size()) {
+			throw new IllegalArgumentException("expected " + pending.size() + " solutions but was given " +
+					evaluated.size());
+		}
+		
+		try {
+			long writeStart = System.nanoTime();
+			int[] ids = new int[evaluated.size()];
 
-			Process process = selector.start();
-			RedirectStream.redirect(process.getInputStream(), System.out);
-			RedirectStream.redirect(process.getErrorStream(), System.err);
+			for (int i = 0; i < ids.length; i++) {
+				ids[i] = addToPopulation(evaluated.get(i));
+			}
+			
+			numberOfEvaluations += ids.length;
+			pending = null;
+			
+			writePopulation(new File(filePrefix + (pendingInitial ? "ini" : "var")), ids);
+			state.set(pendingInitial ? 1 : 3);
+			
+			generationStatistics.addEvaluationTime(writeStart - askTime);
+			generationStatistics.addWriteTime(System.nanoTime() - writeStart);
+			generationStatistics.addBytesWritten(populationWriter.getByteCount());
+			
+			if (pendingInitial && supervisor.getProcess() == null) {
+				launch();
+			}
+			
+			supervisor.request();
+			completeGeneration();
 		} catch (Exception e) {
-			throw new AlgorithmException(this, e);
+			throw fail(e);
+		}
+	}
+	
+	/**
+	 * Adds the statistics of the generation that just completed to the cumulative statistics and notifies the
+	 * listeners.
+	 */
+	private void completeGeneration() {
+		generationStatistics.addGenerations(1);
+		statistics.add(generationStatistics);
+		
+		for (PISAStatisticsListener listener : statisticsListeners) {
+			listener.generationCompleted(this, generationStatistics, statistics);
+		}
+		
+		generationStatistics.clear();
+	}
+	
+	/**
+	 * Returns a copy of the cumulative statistics of this run, which are updated at the end of each generation.
+	 * 
+	 * @return a copy of the cumulative statistics of this run
+	 */
+	public PISAStatistics getStatistics() {
+		return new PISAStatistics(statistics);
+	}
+	
+	/**
+	 * Adds a listener notified of the statistics after each generation.
+	 * 
+	 * @param listener the listener
+	 */
+	public void addStatisticsListener(PISAStatisticsListener listener) {
+		statisticsListeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener previously added with {@link #addStatisticsListener(PISAStatisticsListener)}.
+	 * 
+	 * @param listener the listener
+	 */
+	public void removeStatisticsListener(PISAStatisticsListener listener) {
+		statisticsListeners.remove(listener);
+	}
+	
+	/**
+	 * Starts the selector process.  A selector run in this JVM falls back to a separate process if its jar can not be
+	 * loaded.
+	 * 
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void launch() throws IOException {
+		SelectorLaunchEvent event = new SelectorLaunchEvent();
+		event.begin();
+		
+		if (selectorJar != null) {
+			try {
+				supervisor.attach(InProcessSelector.start(selectorJar, command[command.length - 1], filePrefix,
+						selectorPollRate));
+				commit(event);
+				return;
+			} catch (IOException e) {
+				System.err.println("unable to run " + name + " in-process, starting a separate process: " +
+						e.getMessage());
+				selectorJar = null;
+			}
 		}
+		
+		Process process = new ProcessBuilder(ArrayUtils.addAll(command, filePrefix, selectorPollRate)).start();
+		RedirectStream.redirect(process.getInputStream(), System.out);
+		RedirectStream.redirect(process.getErrorStream(), System.err);
+		supervisor.attach(process);
+		commit(event);
 	}
+	
+	/**
+	 * Records the launch of the selector, if enabled in a Flight Recorder recording.
+	 * 
+	 * @param event the event started before the launch
+	 */
+	private void commit(SelectorLaunchEvent event) {
+		if (event.shouldCommit()) {
+			Process process = supervisor.getProcess();
+			
+			event.selector = name;
+			event.command = String.join(" ", command);
+			event.filePrefix = filePrefix;
+			event.inProcess = process instanceof InProcessSelector;
+			event.pid = event.inProcess ? -1 : process.pid();
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Destroys the selector after a failure and wraps the cause.  If the failure was an interruption, the interrupt
+	 * status of the current thread is restored.
+	 * 
+	 * @param cause the failure
+	 * @return the exception to throw
+	 */
+	private AlgorithmException fail(Exception cause) {
+		supervisor.destroy();
+		
+		if (cause instanceof InterruptedException) {
+			Thread.currentThread().interrupt();
+		}
+		
+		return new AlgorithmException(this, cause);
+	}
+	
+	/**
+	 * Switches to the workspace of a selector borrowed from the {@link SelectorPool}.  Our own workspace was never seen
+	 * by a selector, so it is deleted.  The state and the {@code sel} and {@code arc} readers have not yet been used,
+	 * so only the wait strategy is carried over, watching the borrowed workspace instead if it watches for changes.
+	 * 
+	 * @param handle the borrowed selector
+	 */
+	private void adopt(SelectorPool.Handle handle) {
+		File stateFile = new File(handle.getFilePrefix() + "sta");
+		WaitStrategy waitStrategy = state.getWaitStrategy();
+		
+		if (waitStrategy instanceof WatchWaitStrategy) {
+			WaitStrategy movedWaitStrategy = ((WatchWaitStrategy)waitStrategy).forFile(stateFile);
+			
+			if (movedWaitStrategy != null) {
+				IOUtils.closeQuietly(state);
+				waitStrategy = movedWaitStrategy;
+			}
+		}
+		
+		workspace.close();
+		workspace = handle.getWorkspace();
+		filePrefix = handle.getFilePrefix();
+		state = state instanceof ChannelState ? new ChannelState(stateFile, waitStrategy) :
+			new State(stateFile, waitStrategy);
+		state.setSupervisor(supervisor);
+		selectionReader = new IdListReader(new File(filePrefix + "sel"), keepFilesOpen);
+		archiveReader = new IdListReader(new File(filePrefix + "arc"), keepFilesOpen);
+		supervisor.attach(handle.getProcess());
+	}
+	
+	/**
+	 * Evaluates the solutions, using the executor if configured.  Unlike {@link #evaluateAll(Iterable)}, this does not
+	 * count the evaluations, which instead happens in {@link #tell(List)}.
+	 * 
+	 * @param solutions the solutions to evaluate
+	 */
+	private void evaluateBatch(List<Solution> solutions) {
+		if (executor == null) {
+			for (Solution solution : solutions) {
+				problem.evaluate(solution);
+			}
+		} else {
+			List<Future<Solution>> futures = new ArrayList<Future<Solution>>();
+			
+			for (Solution solution : solutions) {
+				futures.add(executor.submit(() -> {
+					problem.evaluate(solution);
+					return solution;
+				}));
+			}
+			
+			try {
+				await(futures);
+			} catch (InterruptedException | ExecutionException e) {
+				throw new AlgorithmException(this, e);
+			}
+		}
+	}
+	
+	/**
+	 * Waits for the selector to either write the selection (state 2), request a reset (state 10), or finish, restarting
+	 * the selector if it exits unexpectedly and restarts remain.
+	 * 
+	 * @return the state, either 2, 10, or 4 or 7 if the selector has finished
+	 * @throws IOException if an I/O error occurred
+	 * @throws SelectorException if the selector exited or timed out
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private int awaitSelection() throws IOException, InterruptedException {
+		while (true) {
+			try {
+				return awaitState();
+			} catch (SelectorException e) {
+				if (supervisor.isAlive() || restartsRemaining <= 0) {
+					throw e;
+				}
+				
+				restartsRemaining--;
+				restart();
+			}
+		}
+	}
+	
+	/**
+	 * Waits for the selector to either write the selection (state 2), request a reset (state 10), or finish.  If the
+	 * selector asks to terminate (state 6), we acknowledge with state 7.
+	 * 
+	 * @return the state, either 2, 10, or 4 or 7 if the selector has finished
+	 * @throws IOException if an I/O error occurred
+	 * @throws SelectorException if the selector exited or timed out
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private int awaitState() throws IOException, InterruptedException {
+		int currentState = state.get();
 
+		while (true) {
+			if ((currentState == 2) || (currentState == 4) || (currentState == 7) || (currentState == 10)) {
+				return currentState;
+			} else if (currentState == 6) {
+				state.set(7);
+				return 7;
+			} else {
+				currentState = state.waitWhile(currentState);
+			}
+		}
+	}
+
+	/**
+	 * Terminates this run and the selector.  The selector is shut down and our files released even if an extension,
+	 * such as a {@link org.moeaframework.algorithm.extension.CheckpointExtension}, fails while terminating.
+	 */
 	@Override
 	public void terminate() {
-		super.terminate();
+		//a second call fails in super.terminate(), and the selector was already shut down by the first
+		boolean wasTerminated = isTerminated();
 		
+		try {
+			super.terminate();
+		} finally {
+			if (!wasTerminated) {
+				terminateSelector();
+			}
+		}
+	}
+	
+	/**
+	 * Completes the protocol with the selector, returning it to the {@link SelectorPool} if reusing selectors, and
+	 * releases our files.
+	 */
+	private void terminateSelector() {
 		//guard against attempting to access the non-existent state file if this algorithm is not yet initialized
 		if (!isInitialized()) {
+			releaseFiles();
 			return;
 		}
+		
+		if (shutdownExecutor) {
+			executor.shutdown();
+		}
+		
+		SelectorTerminationEvent event = new SelectorTerminationEvent();
+		boolean running = supervisor.isAlive();
+		
+		event.begin();
 
 		try {
-			int currentState = state.get();
-
-			while (true) {
-				if (currentState == 2) {
-					state.set(4);
-					state4();
-					state.set(5);
+			//skip the handshake if the selector was never started or has already exited
+			if (running) {
+				//a pending initial population follows a reset the selector requested and we already acknowledged
+				int currentState = pending != null && pendingInitial ? 10 : awaitSelection();
+				
+				switch (currentState) {
+				case 2:
+					//if asked but not told, state2() already applied and cleared the archive, so keep that archive
+					if (selectorKey != null) {
+						if (pending == null) {
+							state4();
+						}
+						
+						state.set(8);
+						supervisor.request();
+						
+						if (awaitReset()) {
+							release();
+						}
+					} else {
+						state.set(4);
+						
+						if (pending == null) {
+							state4();
+						}
+						
+						state.set(5);
+					}
+					
 					break;
-				} else if ((currentState == 4) || (currentState == 7)) {
+				case 10:
+					//the selector discarded its archive, so keep our last population
+					if (selectorKey != null) {
+						state.set(11);
+						release();
+					} else {
+						state.set(4);
+						state.set(5);
+					}
+					
+					break;
+				default:
 					break;
-				} else if (currentState < 8) {
-					currentState = state.waitWhile(currentState);
-				} else {
-					throw new AlgorithmException(this, "restart not supported");
 				}
 			}
+			
+			//a selector returned to the pool is no longer supervised
+			boolean pooled = running && supervisor.getProcess() == null;
+			
+			supervisor.shutdown();
+			
+			if (event.shouldCommit()) {
+				event.selector = name;
+				event.filePrefix = filePrefix;
+				event.running = running;
+				event.pooled = pooled;
+				event.evaluations = numberOfEvaluations;
+				event.commit();
+			}
 		} catch (Exception e) {
-			throw new AlgorithmException(this, e);
+			throw fail(e);
+		} finally {
+			releaseFiles();
+		}
+	}
+	
+	/**
+	 * Closes the communication files and deletes our workspace, unless handed over to the {@link SelectorPool}, and
+	 * releases the parameter file.
+	 */
+	private void releaseFiles() {
+		IOUtils.closeQuietly(state, selectionReader, archiveReader, workspace);
+		workspace = null;
+		
+		if (sharedParameterFile != null) {
+			SelectorRegistry.getInstance().releaseParameterFile(sharedParameterFile);
+			sharedParameterFile = null;
 		}
 	}
 
-	@Override
-	public void iterate() {
+	/**
+	 * Waits for the selector to acknowledge the reset requested by state 8.  Empty reads, seen while the selector is
+	 * rewriting the state file, are skipped.
+	 * 
+	 * @return {@code true} if the selector acknowledged the reset with state 9; {@code false} otherwise
+	 * @throws IOException if an I/O error occurred
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private boolean awaitReset() throws IOException, InterruptedException {
 		try {
-			int currentState = state.get();
-
-			while (true) {
-				if (currentState == 2) {
-					state2();
-					state.set(3);
-					break;
-				} else if ((currentState == 4) || (currentState == 7)) {
-					terminate();
-					break;
-				} else if (currentState < 8) {
-					currentState = state.waitWhile(currentState);
-				} else {
-					throw new AlgorithmException(this, "restart not supported");
-				}
+			int currentState = state.waitWhile(8);
+			
+			while (currentState < 0) {
+				currentState = state.waitWhile(currentState);
 			}
-		} catch (Exception e) {
-			throw new AlgorithmException(this, e);
+			
+			return currentState == 9;
+		} catch (SelectorException e) {
+			//the selector does not support the restart protocol, but the run itself completed
+			return false;
 		}
 	}
-
+	
+	/**
+	 * Returns the reset selector to the {@link SelectorPool}, where it waits for the {@code ini} file of the next run.
+	 * The pool takes over our workspace.
+	 */
+	private void release() {
+		SelectorPool.getInstance().release(new SelectorPool.Handle(selectorKey, workspace, supervisor.getProcess()));
+		workspace = null;
+		supervisor.detach();
+	}
+	
+	/**
+	 * Starts a new selector after the previous one exited unexpectedly.  The new selector receives an initial
+	 * population formed from the last archive, followed by the offspring not yet archived, and padded with copies of
+	 * these solutions if fewer than the population size remain.  No additional evaluations are required.
+	 * 
+	 * @throws IOException if an I/O error occurred
+	 * @throws InterruptedException if interrupted while writing the state
+	 */
+	private void restart() throws IOException, InterruptedException {
+		supervisor.destroy();
+		
+		int[] ids = new int[solutions.size()];
+		orderByArchive(ids);
+		
+		if (ids.length == 0) {
+			throw new SelectorException("unable to restart selector, no solutions are available");
+		}
+		
+		seed(ids, Math.min(ids.length, alpha));
+		launch();
+		supervisor.request();
+	}
+	
+	/**
+	 * Orders the identifiers of all stored solutions with those in the last archive first, followed by the remaining
+	 * solutions in order of their identifier.
+	 * 
+	 * @param ids the array receiving the identifiers, whose length must equal the number of stored solutions
+	 * @return the number of identifiers from the last archive
+	 */
+	private int orderByArchive(int[] ids) {
+		int count = 0;
+		boolean[] selected = new boolean[solutions.limit()];
+		
+		for (int i = 0; i < lastArchiveLength; i++) {
+			int id = archiveReader.getIds()[i];
+			
+			if (solutions.contains(id) && !selected[id]) {
+				selected[id] = true;
+				ids[count++] = id;
+			}
+		}
+		
+		int archived = count;
+		
+		for (int id = 0; id < selected.length; id++) {
+			if (solutions.contains(id) && !selected[id]) {
+				ids[count++] = id;
+			}
+		}
+		
+		return archived;
+	}
+	
+	/**
+	 * Writes the {@code ini} file for a new selector, retaining only the first {@code count} solutions and padding them
+	 * with copies if fewer than the population size.  The selector must still be launched or, if borrowed from the
+	 * {@link SelectorPool}, signaled.
+	 * 
+	 * @param ids the identifiers of the solutions
+	 * @param count the number of identifiers to use, which must be positive and at most the population size
+	 * @throws IOException if an I/O error occurred
+	 * @throws InterruptedException if interrupted while writing the state
+	 */
+	private void seed(int[] ids, int count) throws IOException, InterruptedException {
+		int[] population = Arrays.copyOf(ids, alpha);
+		
+		updatePopulation(population, count);
+		
+		for (int i = count; i < alpha; i++) {
+			population[i] = addToPopulation(solutions.get(population[i % count]).copy());
+		}
+		
+		state.set(0);
+		writePopulation(new File(filePrefix + "ini"), population);
+		state.set(1);
+	}
+	
+	/**
+	 * Saves the state of this run, which can be resumed by {@link #loadState(ObjectInputStream)} after this JVM or the
+	 * selector exits.  The selector itself is not saved.  Instead, the solutions in its last archive are saved, along
+	 * with the offspring that were evaluated but not yet archived.  The {@link PISAStatistics} are not saved.
+	 * <p>
+	 * Solutions returned by {@link #ask()} but not yet told are not saved, since they were never evaluated, and are
+	 * produced again after resuming.  If none were told since the selector started or reset, no solutions are saved
+	 * and the resumed run starts from a new initial population.
+	 */
 	@Override
-	public NondominatedPopulation getResult() {
-		NondominatedPopulation result = new NondominatedPopulation();
-		result.addAll(solutions.values());
-		return result;
+	public void saveState(ObjectOutputStream stream) throws IOException {
+		super.saveState(stream);
+		stream.writeUTF(getStateKey());
+		
+		int[] ids = new int[solutions.size()];
+		int archived = orderByArchive(ids);
+		int seeded = Math.min(ids.length, alpha);
+		int offspring = 0;
+		
+		//the offspring told after the last archive are resumed as the first var file, anything else seeds the ini file
+		if (archived > 0 && archived <= alpha && ids.length - archived == lambda) {
+			seeded = archived;
+			offspring = lambda;
+		}
+		
+		stream.writeInt(seeded);
+		stream.writeInt(offspring);
+		
+		for (int i = 0; i < seeded + offspring; i++) {
+			stream.writeObject(solutions.get(ids[i]));
+		}
 	}
 	
-	private String[] parseCommand(String command) {
-		return new StringTokenizer(command).setQuoteChar('\"').getTokenArray();
+	/**
+	 * Resumes a run saved by {@link #saveState(ObjectOutputStream)}, which must use the same selector and population
+	 * sizes.  A new selector is launched, or borrowed from the {@link SelectorPool}, and receives the saved archive as
+	 * its initial population, followed by the saved offspring as its first offspring.  No solutions are evaluated
+	 * again.
+	 * 
+	 * @throws IOException if an I/O error occurred or the state was saved by an incompatible configuration
+	 */
+	@Override
+	public void loadState(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+		super.loadState(stream);
+		
+		String key = stream.readUTF();
+		
+		if (!key.equals(getStateKey())) {
+			throw new IOException("saved state is not compatible with this configuration, expected " +
+					getStateKey().replace(System.lineSeparator(), " ") + " but was " +
+					key.replace(System.lineSeparator(), " "));
+		}
+		
+		int[] ids = new int[stream.readInt()];
+		int offspringLength = stream.readInt();
+		List<Solution> offspring = new ArrayList<Solution>(offspringLength);
+		
+		if (ids.length > alpha || (offspringLength != 0 && (ids.length == 0 || offspringLength != lambda))) {
+			throw new IOException("invalid number of saved solutions");
+		}
+		
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = addToPopulation((Solution)stream.readObject());
+		}
+		
+		for (int i = 0; i < offspringLength; i++) {
+			offspring.add((Solution)stream.readObject());
+		}
+		
+		//saved before any solutions were told, so the next call to ask() starts the selector
+		if (ids.length == 0) {
+			return;
+		}
+		
+		try {
+			prepare();
+			seed(ids, ids.length);
+			
+			if (supervisor.getProcess() == null) {
+				launch();
+			}
+			
+			supervisor.request();
+			
+			if (!offspring.isEmpty()) {
+				resumeOffspring(offspring);
+			}
+		} catch (Exception e) {
+			throw fail(e);
+		}
 	}
-
+	
 	/**
-	 * Clears the specified file. Some selector implementations may block until the {@code sel} and {@code arc} files
-	 * are cleared.
+	 * Writes the saved offspring in response to the first selection of the resumed selector, as if the variation
+	 * operator had produced them, so their evaluations are not lost.  If the selector instead requests a reset or
+	 * finishes, the offspring are discarded and the state is handled by the next call to {@link #ask()}.
 	 * 
-	 * @param file the file to clear
+	 * @param offspring the saved offspring
 	 * @throws IOException if an I/O error occurred
+	 * @throws InterruptedException if interrupted while waiting
 	 */
-	private void clearFile(File file) throws IOException {
-		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
-			writer.println('0');
+	private void resumeOffspring(List<Solution> offspring) throws IOException, InterruptedException {
+		if (awaitSelection() != 2) {
+			return;
 		}
+		
+		selectionReader.read();
+		lastArchiveLength = archiveReader.read();
+		updatePopulation(archiveReader.getIds(), lastArchiveLength);
+		selectionReader.clear();
+		archiveReader.clear();
+		
+		int[] ids = new int[offspring.size()];
+		
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = addToPopulation(offspring.get(i));
+		}
+		
+		writePopulation(new File(filePrefix + "var"), ids);
+		state.set(3);
+		supervisor.request();
 	}
-
+	
 	/**
-	 * Updates the population, retaining only those solutions with the specified identifiers.
+	 * Returns the selector name and configuration recorded in the saved state, which must match when resuming.
 	 * 
-	 * @param ids the identifiers to retain
+	 * @return the selector name and configuration
 	 */
-	private void updatePopulation(int[] ids) {
-		List<Integer> archivedIds = new ArrayList<Integer>();
+	private String getStateKey() {
+		return name + System.lineSeparator() + getConfiguration();
+	}
 
-		for (int id : ids) {
-			archivedIds.add(id);
+	@Override
+	public void iterate() {
+		List<Solution> offspring = ask();
+		
+		if (!offspring.isEmpty()) {
+			evaluateBatch(offspring);
+			tell(offspring);
 		}
+	}
+
+	/**
+	 * Returns the nondominated solutions among the current population.  The result is cached and refreshed from only
+	 * the solutions added or removed since the previous call, so calling this every generation is inexpensive.  The
+	 * returned population contains copies of the solutions.
+	 */
+	@Override
+	public NondominatedPopulation getResult() {
+		return result.get();
+	}
+	
+	private String[] parseCommand(String command) {
+		return new StringTokenizer(command).setQuoteChar('\"').getTokenArray();
+	}
 
-		solutions.keySet().retainAll(archivedIds);
+	/**
+	 * Updates the population, retaining only those solutions with the specified identifiers.
+	 * 
+	 * @param ids the identifiers to retain
+	 * @param length the number of identifiers to read from the array
+	 */
+	private void updatePopulation(int[] ids, int length) {
+		solutions.retainAll(ids, length);
+		result.retained();
 	}
 
 	/**
@@ -337,44 +1234,39 @@ public class PISAAlgorithm extends AbstractAlgorithm {
 	 * @return the assigned identifier for the solution
 	 */
 	private int addToPopulation(Solution solution) {
-		int id = nextFreeId();
-		solutions.put(id, solution);
+		int id = solutions.add(solution);
+		result.added(id);
 		return id;
 	}
 
 	/**
-	 * Returns the next available identifier.
+	 * The commands to execute when in state 0, returning the initial population to evaluate.
 	 * 
-	 * @return the next available identifier
+	 * @return the initial population
 	 */
-	private int nextFreeId() {
-		int id = 0;
-		Set<Integer> ids = solutions.keySet();
-
-		while (ids.contains(id)) {
-			id++;
-		}
-
-		return id;
+	private List<Solution> state0() {
+		long start = System.nanoTime();
+		Initialization initialization = new RandomInitialization(problem);
+		List<Solution> initialPopulation = Arrays.asList(initialization.initialize(alpha));
+		
+		generationStatistics.addVariationTime(System.nanoTime() - start);
+		return initialPopulation;
 	}
 
 	/**
-	 * The commands to execute when in state 0.
+	 * The commands to execute when in state 10, where the selector has reset and discarded its archive.  We do the
+	 * same, acknowledge with state 11, and return a new initial population to evaluate.
 	 * 
+	 * @return the new initial population
 	 * @throws IOException if an I/O error occurred
+	 * @throws InterruptedException if interrupted while writing the state
 	 */
-	private void state0() throws IOException {
-		Initialization initialization = new RandomInitialization(problem);
-		Solution[] initialPopulation = initialization.initialize(alpha);
-		int[] initialIds = new int[alpha];
-
-		evaluateAll(initialPopulation);
-
-		for (int i = 0; i < alpha; i++) {
-			initialIds[i] = addToPopulation(initialPopulation[i]);
-		}
-
-		writePopulation(new File(filePrefix + "ini"), initialIds);
+	private List<Solution> state10() throws IOException, InterruptedException {
+		solutions.clear();
+		result.cleared();
+		lastArchiveLength = 0;
+		state.set(11);
+		return state0();
 	}
 
 	/**
@@ -383,90 +1275,108 @@ public class PISAAlgorithm extends AbstractAlgorithm {
 	 * @throws IOException if an I/O error occurred
 	 */
 	private void state4() throws IOException {
-		int[] archivedIds = readList(new File(filePrefix + "arc"));
-		updatePopulation(archivedIds);
+		lastArchiveLength = archiveReader.read();
+		updatePopulation(archiveReader.getIds(), lastArchiveLength);
 	}
 
 	/**
-	 * The commands to execute when in state 2.
+	 * The commands to execute when in state 2, returning the offspring to evaluate.
 	 * 
+	 * @return the offspring
 	 * @throws IOException if an I/O error occurred
+	 * @throws InterruptedException if interrupted while waiting on the executor
+	 * @throws ExecutionException if the variation operator failed when using the executor
 	 */
-	private void state2() throws IOException {
-		int[] selectionIds = readList(new File(filePrefix + "sel"));
-		int[] archivedIds = readList(new File(filePrefix + "arc"));
-		int[] variationIds = new int[lambda];
+	private List<Solution> state2() throws IOException, InterruptedException, ExecutionException {
+		long readStart = System.nanoTime();
+		int selectionLength = selectionReader.read();
+		int[] selectionIds = selectionReader.getIds();
+		
+		lastArchiveLength = archiveReader.read();
 
-		if (selectionIds.length != mu) {
+		if (selectionLength != mu) {
 			throw new IOException("invalid selection length");
 		}
 
-		updatePopulation(archivedIds);
-		clearFile(new File(filePrefix + "sel"));
-		clearFile(new File(filePrefix + "arc"));
+		updatePopulation(archiveReader.getIds(), lastArchiveLength);
+		selectionReader.clear();
+		archiveReader.clear();
+		
+		long variationStart = System.nanoTime();
+		generationStatistics.addReadTime(variationStart - readStart);
+		generationStatistics.addBytesRead(selectionReader.getByteCount() + archiveReader.getByteCount());
 
-		List<Solution> offspring = new ArrayList<Solution>();
+		List<Solution> offspring = new ArrayList<Solution>(lambda);
 
-		for (int i = 0; i < mu; i += variation.getArity()) {
-			Solution[] parents = new Solution[variation.getArity()];
+		if (executor == null) {
+			for (int i = 0; i < mu; i += variation.getArity()) {
+				offspring.addAll(Arrays.asList(variation.evolve(getParents(selectionIds, i))));
+			}
+		} else {
+			List<Future<Solution[]>> futures = new ArrayList<Future<Solution[]>>();
 			
-			for (int j = 0; j < variation.getArity(); j++) {
-				parents[j] = solutions.get(selectionIds[i+j]);
+			for (int i = 0; i < mu; i += variation.getArity()) {
+				Solution[] parents = getParents(selectionIds, i);
+				futures.add(executor.submit(() -> variation.evolve(parents)));
+			}
+			
+			// collect in submission order so identifiers are assigned deterministically
+			for (Solution[] children : await(futures)) {
+				offspring.addAll(Arrays.asList(children));
 			}
-
-			offspring.addAll(Arrays.asList(variation.evolve(parents)));
 		}
-
+		
 		if (offspring.size() != lambda) {
 			throw new IOException("invalid variation length");
 		}
+		
+		generationStatistics.addVariationTime(System.nanoTime() - variationStart);
+		return offspring;
+	}
 
-		evaluateAll(offspring);
-
-		for (int i = 0; i < lambda; i++) {
-			variationIds[i] = addToPopulation(offspring.get(i));
+	/**
+	 * Returns the parents starting at the given offset in the selection.
+	 * 
+	 * @param selectionIds the identifiers of the selected solutions
+	 * @param offset the offset of the first parent
+	 * @return the parents
+	 */
+	private Solution[] getParents(int[] selectionIds, int offset) {
+		Solution[] parents = new Solution[variation.getArity()];
+		
+		for (int j = 0; j < variation.getArity(); j++) {
+			parents[j] = solutions.get(selectionIds[offset+j]);
 		}
-
-		writePopulation(new File(filePrefix + "var"), variationIds);
+		
+		return parents;
 	}
-
+	
 	/**
-	 * Reads either the {@code sel} or {@code arc} files, returning the list of identifiers contained in the file.
+	 * Waits for all tasks to complete, returning their results in submission order.  If any task fails, the remaining
+	 * tasks are cancelled.
 	 * 
-	 * @param file the {@code sel} or {@code arc} file
-	 * @return the list of identifiers contained in the file
-	 * @throws IOException if an I/O error occurred
+	 * @param <T> the type of result
+	 * @param futures the submitted tasks
+	 * @return the results in submission order
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws ExecutionException if any task failed
 	 */
-	private int[] readList(File file) throws IOException {
-		String line = null;
-
-		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-			line = reader.readLine();
-
-			if (line == null) {
-				throw new IOException("unexpected end of file");
-			}
-
-			int size = Integer.parseInt(line);
-			int[] result = new int[size];
-
-			for (int i = 0; i < size; i++) {
-				line = reader.readLine();
-
-				if (line == null) {
-					throw new IOException("unexpected end of file");
-				}
-
-				result[i] = Integer.parseInt(line);
+	private <T> List<T> await(List<Future<T>> futures) throws InterruptedException, ExecutionException {
+		List<T> results = new ArrayList<T>(futures.size());
+		
+		try {
+			for (Future<T> future : futures) {
+				results.add(future.get());
 			}
-
-			// sanity check
-			if (!"END".equals(reader.readLine())) {
-				throw new IOException("expected END on last line");
+		} catch (InterruptedException | ExecutionException e) {
+			for (Future<T> future : futures) {
+				future.cancel(true);
 			}
-
-			return result;
+			
+			throw e;
 		}
+		
+		return results;
 	}
 
 	/**
@@ -477,22 +1387,7 @@ public class PISAAlgorithm extends AbstractAlgorithm {
 	 * @throws IOException if an I/O error occurred
 	 */
 	private void writePopulation(File file, int[] ids) throws IOException {
-		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
-			writer.println(ids.length * (problem.getNumberOfObjectives() + 1));
-
-			for (int i = 0; i < ids.length; i++) {
-				writer.print(ids[i]);
-
-				for (int j = 0; j < problem.getNumberOfObjectives(); j++) {
-					writer.print(' ');
-					writer.print(solutions.get(ids[i]).getObjectiveValue(j));
-				}
-
-				writer.println();
-			}
-
-			writer.println("END");
-		}
+		populationWriter.write(file, solutions, ids);
 	}
 
 	/**
@@ -508,15 +1403,20 @@ public class PISAAlgorithm extends AbstractAlgorithm {
 		new File(filePrefix + "sta").delete();
 
 		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(new File(filePrefix + "cfg"))))) {
-			writer.print("alpha ");
-			writer.println(alpha);
-			writer.print("mu ");
-			writer.println(mu);
-			writer.print("lambda ");
-			writer.println(lambda);
-			writer.print("dim ");
-			writer.print(problem.getNumberOfObjectives());
+			writer.print(getConfiguration());
 		}
 	}
+	
+	/**
+	 * Returns the contents of the {@code cfg} file.
+	 * 
+	 * @return the contents of the {@code cfg} file
+	 */
+	private String getConfiguration() {
+		return "alpha " + alpha + System.lineSeparator() +
+				"mu " + mu + System.lineSeparator() +
+				"lambda " + lambda + System.lineSeparator() +
+				"dim " + problem.getNumberOfObjectives();
+	}
 
 }
@@ -18,7 +18,12 @@
 package org.moeaframework.algorithm.pisa;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.moeaframework.core.FrameworkException;
 import org.moeaframework.core.Settings;
 
 public class PISASettings {
@@ -38,11 +43,76 @@ public class PISASettings {
 	 */
 	static final String KEY_PISA_POLL = Settings.createKey(KEY_PISA_PREFIX, "poll");
 	
+	/**
+	 * The property key for the strategy used to wait on the state file.
+	 */
+	static final String KEY_PISA_WAIT_STRATEGY = Settings.createKey(KEY_PISA_PREFIX, "wait_strategy");
+	
+	/**
+	 * The property key for keeping the state file open for the duration of a run.
+	 */
+	static final String KEY_PISA_KEEP_STATE_OPEN = Settings.createKey(KEY_PISA_PREFIX, "keep_state_open");
+	
+	/**
+	 * The property key for the directory containing the PISA communication files.
+	 */
+	static final String KEY_PISA_COMMUNICATION_PATH = Settings.createKey(KEY_PISA_PREFIX, "communication_path");
+	
+	/**
+	 * The property key for keeping selector processes alive between runs.
+	 */
+	static final String KEY_PISA_REUSE_SELECTORS = Settings.createKey(KEY_PISA_PREFIX, "reuse_selectors");
+	
+	/**
+	 * The property key for the longest time the selector may take to respond to a single request.
+	 */
+	static final String KEY_PISA_GENERATION_TIMEOUT = Settings.createKey(KEY_PISA_PREFIX, "generation_timeout");
+	
+	/**
+	 * The property key for the longest time a run may wait on the selector.
+	 */
+	static final String KEY_PISA_TOTAL_TIMEOUT = Settings.createKey(KEY_PISA_PREFIX, "total_timeout");
+	
+	/**
+	 * The property key for the number of times a crashed selector is restarted.
+	 */
+	static final String KEY_PISA_MAX_RESTARTS = Settings.createKey(KEY_PISA_PREFIX, "max_restarts");
+	
+	/**
+	 * The property key for writing objective values in hexadecimal.
+	 */
+	static final String KEY_PISA_HEX_FLOATS = Settings.createKey(KEY_PISA_PREFIX, "hex_floats");
+	
+	/**
+	 * The property key for running selectors packaged as jar files in this JVM.
+	 */
+	static final String KEY_PISA_IN_PROCESS = Settings.createKey(KEY_PISA_PREFIX, "in_process");
+	
 	/**
 	 * The property key for enabling or disabling automatic PISA installations.
 	 */
 	static final String KEY_PISA_ALLOW_INSTALL = Settings.createKey(KEY_PISA_PREFIX, "allow_install");
 	
+	/**
+	 * The property key for the number of selectors installed concurrently.
+	 */
+	static final String KEY_PISA_INSTALL_THREADS = Settings.createKey(KEY_PISA_PREFIX, "install_threads");
+	
+	/**
+	 * The property key for the maximum number of live communication workspaces.
+	 */
+	static final String KEY_PISA_MAX_WORKSPACES = Settings.createKey(KEY_PISA_PREFIX, "max_workspaces");
+	
+	/**
+	 * The property key for the directory caching downloaded archives.
+	 */
+	static final String KEY_PISA_CACHE_PATH = Settings.createKey(KEY_PISA_PREFIX, "cache_path");
+	
+	/**
+	 * The property key for the mirror from which archives are downloaded.
+	 */
+	static final String KEY_PISA_MIRROR = Settings.createKey(KEY_PISA_PREFIX, "mirror");
+	
 	/**
 	 * The property key for overriding the installation path.
 	 */
@@ -70,6 +140,128 @@ public class PISASettings {
 		return Settings.PROPERTIES.getInt(KEY_PISA_POLL, 100);
 	}
 	
+	/**
+	 * Returns the strategy used to wait on the state file, either {@code watch} to use file system change
+	 * notifications when available, {@code poll} to always sleep for the poll rate between reads, or {@code backoff}
+	 * to spin briefly and then park with exponential backoff up to the poll rate.  See {@link WaitStrategy}.
+	 * 
+	 * @return the strategy used to wait on the state file
+	 */
+	public static String getPISAWaitStrategy() {
+		return Settings.PROPERTIES.getString(KEY_PISA_WAIT_STRATEGY, "watch");
+	}
+	
+	/**
+	 * Returns {@code true} if the state file is kept open for the duration of a run using {@link ChannelState};
+	 * {@code false} if the file is reopened on every read and write.  This is enabled by default except on Windows,
+	 * where selectors have been known to conflict with other processes holding the state file open.
+	 * 
+	 * @return {@code true} if the state file is kept open for the duration of a run; {@code false} otherwise
+	 */
+	public static boolean getPISAKeepStateOpen() {
+		return Settings.PROPERTIES.getBoolean(KEY_PISA_KEEP_STATE_OPEN, !SystemUtils.IS_OS_WINDOWS);
+	}
+	
+	/**
+	 * Returns the directory where the PISA communication files are created.  If not configured, we use a RAM-backed
+	 * file system when one is detected, so that each generation's file I/O never touches the disk.  Otherwise, this
+	 * returns {@code null} to use the default temporary directory.
+	 * <p>
+	 * Some PISA selectors parse their command line arguments using {@code sscanf}, which stops at whitespace, so the
+	 * configured path must not contain whitespace.
+	 * 
+	 * @return the directory where the PISA communication files are created, or {@code null} to use the default
+	 *         temporary directory
+	 * @throws FrameworkException if the configured path contains whitespace
+	 */
+	public static File getPISACommunicationPath() {
+		String path = Settings.PROPERTIES.getString(KEY_PISA_COMMUNICATION_PATH, null);
+		
+		if (path == null) {
+			return MemoryFileSystem.PATH;
+		}
+		
+		File file = new File(path);
+		
+		if (StringUtils.containsWhitespace(file.getAbsolutePath())) {
+			throw new FrameworkException("PISA communication path must not contain whitespace: '" + 
+					file.getAbsolutePath() + "'");
+		}
+		
+		return file;
+	}
+	
+	/**
+	 * Returns the maximum number of communication workspaces, one per run or idle pooled selector, that may exist at
+	 * once in this JVM, see {@link WorkspaceManager}.  A value of {@code 0} means there is no limit.
+	 * 
+	 * @return the maximum number of live communication workspaces, or {@code 0} if unlimited
+	 */
+	public static int getPISAMaxWorkspaces() {
+		return Settings.PROPERTIES.getInt(KEY_PISA_MAX_WORKSPACES, 0);
+	}
+	
+	/**
+	 * Returns {@code true} if selector processes are kept alive between runs and reset using the PISA restart
+	 * protocol, see {@link SelectorPool}; {@code false} if each run starts and stops its own selector.  This is
+	 * disabled by default since not all selectors implement the restart protocol.
+	 * 
+	 * @return {@code true} if selector processes are kept alive between runs; {@code false} otherwise
+	 */
+	public static boolean getPISAReuseSelectors() {
+		return Settings.PROPERTIES.getBoolean(KEY_PISA_REUSE_SELECTORS, false);
+	}
+	
+	/**
+	 * Returns the longest time, in seconds, the selector may take to respond to a single request before the run
+	 * fails.  A value of {@code 0} disables the timeout.
+	 * 
+	 * @return the longest time, in seconds, the selector may take to respond to a single request
+	 */
+	public static double getPISAGenerationTimeout() {
+		return Settings.PROPERTIES.getDouble(KEY_PISA_GENERATION_TIMEOUT, 0.0);
+	}
+	
+	/**
+	 * Returns the longest time, in seconds, from the start of a run that we will wait on the selector before the run
+	 * fails.  A value of {@code 0} disables the timeout.
+	 * 
+	 * @return the longest time, in seconds, from the start of a run that we will wait on the selector
+	 */
+	public static double getPISATotalTimeout() {
+		return Settings.PROPERTIES.getDouble(KEY_PISA_TOTAL_TIMEOUT, 0.0);
+	}
+	
+	/**
+	 * Returns the number of times a selector that exited unexpectedly is restarted from the last archive before the
+	 * run fails.  Defaults to {@code 0}, failing on the first crash.
+	 * 
+	 * @return the number of times a selector that exited unexpectedly is restarted
+	 */
+	public static int getPISAMaxRestarts() {
+		return Settings.PROPERTIES.getInt(KEY_PISA_MAX_RESTARTS, 0);
+	}
+	
+	/**
+	 * Returns {@code true} if objective values are written to the {@code ini} and {@code var} files in the C99
+	 * hexadecimal floating-point format; {@code false} if written in decimal.  See {@link PopulationWriter}.
+	 * 
+	 * @return {@code true} if objective values are written in hexadecimal; {@code false} if written in decimal
+	 */
+	public static boolean getPISAHexFloats() {
+		return Settings.PROPERTIES.getBoolean(KEY_PISA_HEX_FLOATS, false);
+	}
+	
+	/**
+	 * Returns {@code true} if selectors started with {@code java -jar} are run on a thread in this JVM instead of a
+	 * separate process; {@code false} otherwise.  See {@link InProcessSelector}.
+	 * 
+	 * @return {@code true} if selectors packaged as jar files are run in this JVM; {@code false} otherwise
+	 */
+	public static boolean getPISAInProcess() {
+		return Settings.PROPERTIES.getBoolean(KEY_PISA_IN_PROCESS, false);
+	}
+	
 	/**
 	 * Returns {@code true} if automatic installation of PISA selectors is enabled; {@code false} otherwise.
 	 * 
@@ -79,6 +271,38 @@ public class PISASettings {
 		return Settings.PROPERTIES.getBoolean(KEY_PISA_ALLOW_INSTALL, true);
 	}
 	
+	/**
+	 * Returns the number of selectors downloaded and extracted concurrently when installing several selectors.
+	 * Defaults to {@code 4}.
+	 * 
+	 * @return the number of selectors installed concurrently
+	 */
+	public static int getPISAInstallThreads() {
+		return Settings.PROPERTIES.getInt(KEY_PISA_INSTALL_THREADS, 4);
+	}
+	
+	/**
+	 * Returns the directory of the shared, content-addressed cache of downloaded archives, or {@code null} if
+	 * archives are not cached.  A cache pre-seeded with the archives allows installing without network access.
+	 * 
+	 * @return the directory caching downloaded archives, or {@code null} if archives are not cached
+	 */
+	public static File getPISACachePath() {
+		String path = Settings.PROPERTIES.getString(KEY_PISA_CACHE_PATH, null);
+		return path == null || path.isBlank() ? null : new File(path);
+	}
+	
+	/**
+	 * Returns the mirror from which archives are downloaded instead of their default location, or {@code null} to
+	 * use the default location.  The mirror is either a URL, such as {@code file:///mnt/pisa/}, or a local directory,
+	 * containing the archives with the same file names.
+	 * 
+	 * @return the mirror from which archives are downloaded, or {@code null} to use the default location
+	 */
+	public static String getPISAMirror() {
+		return Settings.PROPERTIES.getString(KEY_PISA_MIRROR, null);
+	}
+	
 	/**
 	 * Returns the path to install the PISA binaries.  If relative, will be created relative to the working directory
 	 * when running Java.
@@ -119,6 +343,46 @@ public class PISASettings {
 		return Settings.PROPERTIES.getStringArray(Settings.createKey(KEY_PISA_PREFIX, algorithmName, "parameters"), new String[0]);
 	}
 	
+	/**
+	 * Detects a RAM-backed file system, which is done once since mounts rarely change while running.
+	 */
+	private static class MemoryFileSystem {
+		
+		/**
+		 * The candidate locations, in order of preference.  If the temporary directory is already in memory, we
+		 * prefer it to keep the default behavior.
+		 */
+		private static final String[] CANDIDATES = { SystemUtils.JAVA_IO_TMPDIR, "/dev/shm", "/run/shm" };
+		
+		/**
+		 * The detected RAM-backed file system, or {@code null} if none was found.
+		 */
+		static final File PATH = detect();
+		
+		private static File detect() {
+			if (!SystemUtils.IS_OS_LINUX) {
+				return null;
+			}
+			
+			for (String candidate : CANDIDATES) {
+				File directory = new File(candidate);
+				
+				try {
+					if (directory.isDirectory() && directory.canWrite() &&
+							!StringUtils.containsWhitespace(directory.getAbsolutePath()) &&
+							Files.getFileStore(directory.toPath()).type().equals("tmpfs")) {
+						return directory;
+					}
+				} catch (IOException e) {
+					// not accessible, try the next candidate
+				}
+			}
+			
+			return null;
+		}
+		
+	}
+	
 	/**
 	 * Returns the default value of the specified parameter for the PISA selector.
 	 * 
@@ -0,0 +1,241 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent in each phase of a {@link PISAAlgorithm} run, along with counts of state polls and bytes transferred
+ * through the communication files.  A slow run can then be attributed to waiting on the selector, file I/O, variation,
+ * or evaluation.  Times are measured in nanoseconds.
+ * <p>
+ * A generation is one {@link PISAAlgorithm#ask()} followed by the matching
+ * {@link PISAAlgorithm#tell(java.util.List)}, including the initial population and any population sent after a reset.
+ * The statistics are collected with a few calls to {@link System#nanoTime()} per generation, independent of the
+ * population size.
+ * 
+ * @see PISAAlgorithm#getStatistics()
+ * @see PISAStatisticsListener
+ */
+public class PISAStatistics {
+	
+	private long generations;
+	
+	private long waitTime;
+	
+	private long readTime;
+	
+	private long variationTime;
+	
+	private long evaluationTime;
+	
+	private long writeTime;
+	
+	private long polls;
+	
+	private long bytesRead;
+	
+	private long bytesWritten;
+	
+	/**
+	 * Constructs empty statistics.
+	 */
+	public PISAStatistics() {
+		super();
+	}
+	
+	/**
+	 * Constructs a copy of the given statistics.
+	 * 
+	 * @param statistics the statistics to copy
+	 */
+	public PISAStatistics(PISAStatistics statistics) {
+		this();
+		add(statistics);
+	}
+	
+	/**
+	 * Returns the number of generations.
+	 * 
+	 * @return the number of generations
+	 */
+	public long getGenerations() {
+		return generations;
+	}
+	
+	/**
+	 * Returns the time spent waiting for the selector to write the selection, including restarting a selector that
+	 * exited unexpectedly.
+	 * 
+	 * @return the time, in nanoseconds, spent waiting for the selector
+	 */
+	public long getWaitTime() {
+		return waitTime;
+	}
+	
+	/**
+	 * Returns the time spent reading and clearing the {@code sel} and {@code arc} files and removing the solutions no
+	 * longer in the archive.
+	 * 
+	 * @return the time, in nanoseconds, spent reading the {@code sel} and {@code arc} files
+	 */
+	public long getReadTime() {
+		return readTime;
+	}
+	
+	/**
+	 * Returns the time spent creating the offspring with the variation operator, or generating the initial population.
+	 * 
+	 * @return the time, in nanoseconds, spent creating new solutions
+	 */
+	public long getVariationTime() {
+		return variationTime;
+	}
+	
+	/**
+	 * Returns the time from {@link PISAAlgorithm#ask()} returning the solutions to
+	 * {@link PISAAlgorithm#tell(java.util.List)} receiving them, which is the time spent evaluating the solutions.
+	 * 
+	 * @return the time, in nanoseconds, spent evaluating solutions
+	 */
+	public long getEvaluationTime() {
+		return evaluationTime;
+	}
+	
+	/**
+	 * Returns the time spent writing the {@code ini} and {@code var} files and signalling the selector.
+	 * 
+	 * @return the time, in nanoseconds, spent writing the {@code ini} and {@code var} files
+	 */
+	public long getWriteTime() {
+		return writeTime;
+	}
+	
+	/**
+	 * Returns the number of times we idled while waiting on the state file.
+	 * 
+	 * @return the number of times we idled while waiting on the state file
+	 */
+	public long getPolls() {
+		return polls;
+	}
+	
+	/**
+	 * Returns the number of bytes read from the {@code sel} and {@code arc} files.
+	 * 
+	 * @return the number of bytes read from the {@code sel} and {@code arc} files
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+	
+	/**
+	 * Returns the number of bytes written to the {@code ini} and {@code var} files.
+	 * 
+	 * @return the number of bytes written to the {@code ini} and {@code var} files
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+	
+	/**
+	 * Adds the given statistics to these statistics.
+	 * 
+	 * @param statistics the statistics to add
+	 */
+	public void add(PISAStatistics statistics) {
+		generations += statistics.generations;
+		waitTime += statistics.waitTime;
+		readTime += statistics.readTime;
+		variationTime += statistics.variationTime;
+		evaluationTime += statistics.evaluationTime;
+		writeTime += statistics.writeTime;
+		polls += statistics.polls;
+		bytesRead += statistics.bytesRead;
+		bytesWritten += statistics.bytesWritten;
+	}
+	
+	/**
+	 * Resets all statistics to zero.
+	 */
+	public void clear() {
+		generations = 0;
+		waitTime = 0;
+		readTime = 0;
+		variationTime = 0;
+		evaluationTime = 0;
+		writeTime = 0;
+		polls = 0;
+		bytesRead = 0;
+		bytesWritten = 0;
+	}
+	
+	void addGenerations(long generations) {
+		this.generations += generations;
+	}
+	
+	void addWaitTime(long time) {
+		waitTime += time;
+	}
+	
+	void addReadTime(long time) {
+		readTime += time;
+	}
+	
+	void addVariationTime(long time) {
+		variationTime += time;
+	}
+	
+	void addEvaluationTime(long time) {
+		evaluationTime += time;
+	}
+	
+	void addWriteTime(long time) {
+		writeTime += time;
+	}
+	
+	void addPolls(long polls) {
+		this.polls += polls;
+	}
+	
+	void addBytesRead(long bytes) {
+		bytesRead += bytes;
+	}
+	
+	void addBytesWritten(long bytes) {
+		bytesWritten += bytes;
+	}
+	
+	@Override
+	public String toString() {
+		return "generations=" + generations +
+				", wait=" + toMillis(waitTime) + " ms" +
+				", read=" + toMillis(readTime) + " ms" +
+				", variation=" + toMillis(variationTime) + " ms" +
+				", evaluation=" + toMillis(evaluationTime) + " ms" +
+				", write=" + toMillis(writeTime) + " ms" +
+				", polls=" + polls +
+				", bytesRead=" + bytesRead +
+				", bytesWritten=" + bytesWritten;
+	}
+	
+	private static double toMillis(long nanos) {
+		return nanos / (double)TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+}
@@ -0,0 +1,40 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.EventListener;
+
+/**
+ * Listens for the statistics of each generation of a {@link PISAAlgorithm}.  Listeners are called on the thread
+ * calling {@link PISAAlgorithm#tell(java.util.List)}, after the selector was signalled, so a slow listener delays the
+ * next generation only if the selector is faster.
+ */
+@FunctionalInterface
+public interface PISAStatisticsListener extends EventListener {
+	
+	/**
+	 * Called after each generation.  Both statistics are reused, so copy them with
+	 * {@link PISAStatistics#PISAStatistics(PISAStatistics)} if kept beyond this call.
+	 * 
+	 * @param algorithm the algorithm
+	 * @param generation the statistics of the generation that just completed
+	 * @param total the cumulative statistics of the run, including this generation
+	 */
+	public void generationCompleted(PISAAlgorithm algorithm, PISAStatistics generation, PISAStatistics total);
+
+}
@@ -0,0 +1,63 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits a fixed amount of time between successive reads of the state file.  This was the original behavior of
+ * {@link State}.  Sub-millisecond poll rates are supported.
+ */
+public class PollingWaitStrategy implements WaitStrategy {
+	
+	/**
+	 * The delay in nanoseconds between successive reads of the state file.
+	 */
+	private final long pollRate;
+	
+	/**
+	 * Constructs a wait strategy with a fixed delay.
+	 * 
+	 * @param pollRate the delay in nanoseconds between successive reads of the state file
+	 */
+	public PollingWaitStrategy(long pollRate) {
+		super();
+		this.pollRate = pollRate;
+	}
+
+	@Override
+	public void idle(int attempt) throws InterruptedException {
+		park(pollRate);
+	}
+	
+	/**
+	 * Parks the current thread for the given duration.  Unlike {@link Thread#sleep(long, int)}, this does not round
+	 * sub-millisecond durations up to the next millisecond.
+	 * 
+	 * @param nanos the duration in nanoseconds
+	 * @throws InterruptedException if the current thread was interrupted
+	 */
+	static void park(long nanos) throws InterruptedException {
+		LockSupport.parkNanos(nanos);
+		
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+	}
+
+}
@@ -0,0 +1,325 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import org.moeaframework.core.Solution;
+
+/**
+ * Writes the {@code ini} and {@code var} population files.  Each file is encoded into a byte buffer that is reused
+ * across generations and written through a {@link FileChannel} in a single call, avoiding the intermediate strings and
+ * character encoding of a {@link java.io.PrintWriter}.
+ * <p>
+ * Objective values are written in one of two formats, both of which round-trip exactly:
+ * <ul>
+ *   <li>decimal, the shortest representation that round-trips, in the format of {@link Double#toString(double)} (see
+ *       {@link DoubleFormatter})
+ *   <li>hexadecimal, matching the C99 {@code %a} format (e.g., {@code 0x1.8p+1}), which skips the conversion to
+ *       decimal entirely.  PISA selectors read objectives with {@code fscanf}, which accepts this format in any C99
+ *       runtime, but older C runtimes, such as those on Windows before Visual Studio 2015, do not.
+ * </ul>
+ */
+public class PopulationWriter {
+	
+	/**
+	 * The hexadecimal digits.
+	 */
+	private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+	
+	/**
+	 * The line separator, matching the output of {@link java.io.PrintWriter#println()}.
+	 */
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+	
+	/**
+	 * The number of objectives written for each solution.
+	 */
+	private final int numberOfObjectives;
+	
+	/**
+	 * {@code true} if objective values are written in hexadecimal; {@code false} if written in decimal.
+	 */
+	private final boolean hexFloats;
+	
+	/**
+	 * Formats decimal values.
+	 */
+	private final DoubleFormatter formatter;
+	
+	/**
+	 * The encoded contents of the file.
+	 */
+	private byte[] bytes;
+	
+	/**
+	 * The buffer wrapping {@link #bytes}, replaced only when the array grows.
+	 */
+	private ByteBuffer buffer;
+	
+	/**
+	 * The number of encoded bytes.
+	 */
+	private int length;
+	
+	/**
+	 * Constructs a writer for population files.
+	 * 
+	 * @param numberOfObjectives the number of objectives written for each solution
+	 * @param hexFloats {@code true} to write objective values in hexadecimal; {@code false} to write in decimal
+	 */
+	public PopulationWriter(int numberOfObjectives, boolean hexFloats) {
+		super();
+		this.numberOfObjectives = numberOfObjectives;
+		this.hexFloats = hexFloats;
+		
+		formatter = new DoubleFormatter();
+		bytes = new byte[8192];
+		buffer = ByteBuffer.wrap(bytes);
+	}
+	
+	/**
+	 * Returns {@code true} if objective values are written in hexadecimal.
+	 * 
+	 * @return {@code true} if objective values are written in hexadecimal; {@code false} if written in decimal
+	 */
+	public boolean isHexFloats() {
+		return hexFloats;
+	}
+	
+	/**
+	 * Returns the number of bytes written by the last call to {@link #write(File, SolutionStore, int[])}.
+	 * 
+	 * @return the number of bytes written by the last call to {@link #write(File, SolutionStore, int[])}
+	 */
+	public int getByteCount() {
+		return length;
+	}
+	
+	/**
+	 * Writes the solutions with the given identifiers, replacing the contents of the file.
+	 * 
+	 * @param file the {@code ini} or {@code var} file
+	 * @param solutions the solutions
+	 * @param ids the identifiers of the solutions to write
+	 * @throws IOException if an I/O error occurred
+	 */
+	public void write(File file, SolutionStore solutions, int[] ids) throws IOException {
+		FileTransferEvent event = new FileTransferEvent();
+		event.begin();
+		
+		encode(solutions, ids);
+		
+		buffer.clear().limit(length);
+		
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+		
+		if (event.shouldCommit()) {
+			event.file = file.getPath();
+			event.operation = "write";
+			event.bytes = length;
+			event.ids = ids.length;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Encodes the solutions with the given identifiers into the buffer.
+	 * 
+	 * @param solutions the solutions
+	 * @param ids the identifiers of the solutions to encode
+	 */
+	void encode(SolutionStore solutions, int[] ids) {
+		length = 0;
+		
+		appendInt(ids.length * (numberOfObjectives + 1));
+		appendLineSeparator();
+		
+		for (int i = 0; i < ids.length; i++) {
+			Solution solution = solutions.get(ids[i]);
+			
+			appendInt(ids[i]);
+			
+			for (int j = 0; j < numberOfObjectives; j++) {
+				append((byte)' ');
+				
+				if (hexFloats) {
+					appendHex(solution.getObjectiveValue(j));
+				} else {
+					appendDecimal(solution.getObjectiveValue(j));
+				}
+			}
+			
+			appendLineSeparator();
+		}
+		
+		append((byte)'E');
+		append((byte)'N');
+		append((byte)'D');
+		appendLineSeparator();
+	}
+	
+	/**
+	 * Returns the encoded contents, for testing.
+	 * 
+	 * @return the encoded contents
+	 */
+	String getEncoded() {
+		return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+	}
+	
+	/**
+	 * Appends a single byte, growing the buffer if necessary.
+	 * 
+	 * @param value the byte
+	 */
+	private void append(byte value) {
+		ensureCapacity(1);
+		bytes[length++] = value;
+	}
+	
+	/**
+	 * Grows the buffer, if necessary, to hold the given number of additional bytes.
+	 * 
+	 * @param count the number of additional bytes
+	 */
+	private void ensureCapacity(int count) {
+		if (length + count > bytes.length) {
+			byte[] grown = new byte[Math.max(bytes.length * 2, length + count)];
+			System.arraycopy(bytes, 0, grown, 0, length);
+			bytes = grown;
+			buffer = ByteBuffer.wrap(bytes);
+		}
+	}
+	
+	/**
+	 * Appends the line separator.
+	 */
+	private void appendLineSeparator() {
+		for (byte value : LINE_SEPARATOR) {
+			append(value);
+		}
+	}
+	
+	/**
+	 * Appends the decimal digits of an integer.
+	 * 
+	 * @param value the integer
+	 */
+	private void appendInt(int value) {
+		long remaining = value;
+		
+		if (remaining < 0) {
+			append((byte)'-');
+			remaining = -remaining;
+		}
+		
+		long divisor = 1;
+		
+		while (divisor * 10 <= remaining) {
+			divisor *= 10;
+		}
+		
+		while (divisor > 0) {
+			append((byte)('0' + (remaining / divisor)));
+			remaining %= divisor;
+			divisor /= 10;
+		}
+	}
+	
+	/**
+	 * Appends the shortest decimal representation of a value.
+	 * 
+	 * @param value the value
+	 */
+	private void appendDecimal(double value) {
+		ensureCapacity(DoubleFormatter.MAX_LENGTH);
+		length = formatter.format(value, bytes, length);
+	}
+	
+	/**
+	 * Appends a value in the C99 {@code %a} format, which exactly represents the bits of the value.  Infinities and NaN
+	 * use the same spelling as {@link Double#toString(double)}, which {@code fscanf} also accepts.
+	 * 
+	 * @param value the value
+	 */
+	private void appendHex(double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			appendDecimal(value);
+			return;
+		}
+		
+		long bits = Double.doubleToRawLongBits(value);
+		int exponent = (int)((bits >>> 52) & 0x7FF);
+		long significand = bits & 0xFFFFFFFFFFFFFL;
+		
+		if (bits < 0) {
+			append((byte)'-');
+		}
+		
+		append((byte)'0');
+		append((byte)'x');
+		
+		if (exponent == 0 && significand == 0) {
+			append((byte)'0');
+			append((byte)'p');
+			append((byte)'+');
+			append((byte)'0');
+			return;
+		}
+		
+		//subnormal values have an implicit leading zero and the minimum exponent
+		append(exponent == 0 ? (byte)'0' : (byte)'1');
+		
+		if (significand != 0) {
+			int digits = 13;
+			
+			while ((significand & 0xF) == 0) {
+				significand >>>= 4;
+				digits--;
+			}
+			
+			append((byte)'.');
+			
+			for (int shift = 4 * (digits - 1); shift >= 0; shift -= 4) {
+				append(HEX_DIGITS[(int)((significand >>> shift) & 0xF)]);
+			}
+		}
+		
+		int unbiasedExponent = exponent == 0 ? -1022 : exponent - 1023;
+		
+		append((byte)'p');
+		
+		if (unbiasedExponent >= 0) {
+			append((byte)'+');
+		}
+		
+		appendInt(unbiasedExponent);
+	}
+
+}
@@ -0,0 +1,208 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.population.NondominatedPopulation;
+
+/**
+ * Maintains the nondominated solutions of a {@link SolutionStore}, refreshed incrementally from the identifiers added
+ * and removed since the last refresh instead of rebuilt from every stored solution.  Solutions added to the store are
+ * offered to the cached result.  Solutions removed from the store only require work if they were in the result, in
+ * which case the stored solutions outside the result are offered again, since they may no longer be dominated.
+ * <p>
+ * The owner must call {@link #added(int)} after each addition, {@link #retained()} after each call to
+ * {@link SolutionStore#retainAll(int[], int)}, and {@link #cleared()} after clearing the store.
+ */
+class ResultCache {
+	
+	/**
+	 * The store whose nondominated solutions are cached.
+	 */
+	private final SolutionStore store;
+	
+	/**
+	 * The nondominated solutions as of the last refresh.
+	 */
+	private final NondominatedPopulation result;
+	
+	/**
+	 * The identifiers added since the last refresh.
+	 */
+	private final BitSet addedIds;
+	
+	/**
+	 * The solutions in the result as of the last refresh, indexed by their identifier, with {@code null} marking
+	 * solutions not in the result.
+	 */
+	private Solution[] members;
+	
+	/**
+	 * The solutions in the result that were removed from the store since the last refresh.
+	 */
+	private final Set<Solution> removedMembers;
+	
+	/**
+	 * {@code true} if the result reflects the current contents of the store.
+	 */
+	private boolean current;
+	
+	/**
+	 * Constructs the cached result of an empty store.
+	 * 
+	 * @param store the store whose nondominated solutions are cached
+	 */
+	public ResultCache(SolutionStore store) {
+		super();
+		this.store = store;
+		
+		result = new NondominatedPopulation();
+		addedIds = new BitSet();
+		members = new Solution[0];
+		removedMembers = Collections.newSetFromMap(new IdentityHashMap<Solution, Boolean>());
+		current = true;
+	}
+	
+	/**
+	 * Records that a solution was added to the store.
+	 * 
+	 * @param id the identifier of the added solution
+	 */
+	public void added(int id) {
+		//the identifier was reused without a call to retained(), so the previous solution was removed
+		if (id < members.length && members[id] != null) {
+			removedMembers.add(members[id]);
+			members[id] = null;
+		}
+		
+		addedIds.set(id);
+		current = false;
+	}
+	
+	/**
+	 * Records that solutions were removed from the store by {@link SolutionStore#retainAll(int[], int)}.  This runs in
+	 * time linear in the {@link SolutionStore#limit()}.
+	 */
+	public void retained() {
+		for (int id = 0; id < members.length; id++) {
+			if (members[id] != null && store.get(id) != members[id]) {
+				removedMembers.add(members[id]);
+				members[id] = null;
+				current = false;
+			}
+		}
+		
+		for (int id = addedIds.nextSetBit(0); id >= 0; id = addedIds.nextSetBit(id + 1)) {
+			if (!store.contains(id)) {
+				addedIds.clear(id);
+			}
+		}
+	}
+	
+	/**
+	 * Records that the store was cleared.
+	 */
+	public void cleared() {
+		result.clear();
+		addedIds.clear();
+		Arrays.fill(members, null);
+		removedMembers.clear();
+		current = true;
+	}
+	
+	/**
+	 * Returns a copy of the nondominated solutions in the store, refreshing the cached result if the store changed.
+	 * The copy contains copies of the solutions, so it is not affected by later changes.
+	 * 
+	 * @return a copy of the nondominated solutions in the store
+	 */
+	public NondominatedPopulation get() {
+		refresh();
+		return result.copy();
+	}
+	
+	/**
+	 * Returns the number of nondominated solutions in the store.
+	 * 
+	 * @return the number of nondominated solutions in the store
+	 */
+	public int size() {
+		refresh();
+		return result.size();
+	}
+	
+	private void refresh() {
+		if (current) {
+			return;
+		}
+		
+		int limit = store.limit();
+		
+		if (!removedMembers.isEmpty()) {
+			result.removeAll(removedMembers::contains);
+			removedMembers.clear();
+			
+			//solutions dominated only by the removed solutions, or duplicates of them, now belong to the result
+			for (int id = 0; id < limit; id++) {
+				if (store.contains(id) && (id >= members.length || members[id] == null)) {
+					addedIds.set(id);
+				}
+			}
+		}
+		
+		for (int id = addedIds.nextSetBit(0); id >= 0; id = addedIds.nextSetBit(id + 1)) {
+			Solution solution = store.get(id);
+			
+			if (solution != null) {
+				result.add(solution);
+			}
+		}
+		
+		addedIds.clear();
+		
+		//adding may have evicted dominated solutions, so record which stored solutions are now in the result
+		Set<Solution> resultSolutions = Collections.newSetFromMap(new IdentityHashMap<Solution, Boolean>());
+		
+		for (Solution solution : result) {
+			resultSolutions.add(solution);
+		}
+		
+		if (members.length < limit) {
+			members = new Solution[limit];
+		} else {
+			Arrays.fill(members, null);
+		}
+		
+		for (int id = 0; id < limit; id++) {
+			Solution solution = store.get(id);
+			
+			if (solution != null && resultSolutions.contains(solution)) {
+				members[id] = solution;
+			}
+		}
+		
+		current = true;
+	}
+
+}
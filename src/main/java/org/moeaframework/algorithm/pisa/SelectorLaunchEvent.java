@@ -0,0 +1,58 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for starting a selector, whose duration is the time taken to start the process or thread.
+ * Like the other PISA events, this is disabled by default and costs nothing until a recording enables it, either in
+ * its {@code .jfc} settings or with {@code recording.enable("org.moeaframework.pisa.SelectorLaunch")}.
+ */
+@Name("org.moeaframework.pisa.SelectorLaunch")
+@Label("Selector Launch")
+@Category({ "MOEA Framework", "PISA" })
+@Description("Started a PISA selector")
+@Enabled(false)
+@StackTrace(false)
+final class SelectorLaunchEvent extends Event {
+	
+	@Label("Selector")
+	String selector;
+	
+	@Label("Command")
+	String command;
+	
+	@Label("File Prefix")
+	String filePrefix;
+	
+	@Label("In-Process")
+	@Description("If the selector runs on a thread in this JVM")
+	boolean inProcess;
+	
+	@Label("PID")
+	@Description("The process identifier, or -1 if the selector runs in this JVM")
+	long pid;
+
+}
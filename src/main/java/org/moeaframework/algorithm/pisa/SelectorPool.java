@@ -0,0 +1,234 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps selector processes alive between runs, so a later run using the same selector command, parameters, and
+ * {@code cfg} file skips process startup and selector initialization.  When a run finishes, {@link PISAAlgorithm}
+ * resets the selector using the PISA restart handshake, setting state 8 and waiting for the selector to acknowledge
+ * with state 9, and then returns it to this pool.  The next run borrowing the selector adopts its communication files,
+ * writes a new {@code ini} file, and continues from state 1.
+ * <p>
+ * Reuse is enabled with the {@code reuseSelector} property or {@link PISASettings#getPISAReuseSelectors()}.  Idle
+ * selectors are stopped by {@link #clear()} or when the JVM exits.
+ */
+public class SelectorPool {
+	
+	/**
+	 * The shared instance, created on first use.
+	 */
+	private static SelectorPool INSTANCE;
+	
+	/**
+	 * The idle selectors, grouped by the key describing their configuration.
+	 */
+	private final Map<String, Deque<Handle>> idle;
+	
+	private SelectorPool() {
+		super();
+		idle = new HashMap<String, Deque<Handle>>();
+	}
+	
+	/**
+	 * Returns the shared pool of selector processes.
+	 * 
+	 * @return the shared pool of selector processes
+	 */
+	public static synchronized SelectorPool getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new SelectorPool();
+			Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::clear, "PISA selector pool shutdown"));
+		}
+		
+		return INSTANCE;
+	}
+	
+	/**
+	 * Removes and returns an idle selector with the given configuration.  Selectors that exited while idle are
+	 * discarded.
+	 * 
+	 * @param key the key describing the selector configuration
+	 * @return the idle selector, or {@code null} if none are available
+	 */
+	synchronized Handle borrow(String key) {
+		Deque<Handle> handles = idle.get(key);
+		
+		while (handles != null && !handles.isEmpty()) {
+			Handle handle = handles.pollFirst();
+			
+			if (handle.getProcess().isAlive()) {
+				return handle;
+			}
+			
+			handle.getWorkspace().close();
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Returns a selector that was reset and is waiting for a new {@code ini} file.
+	 * 
+	 * @param handle the selector
+	 */
+	synchronized void release(Handle handle) {
+		if (handle.getProcess().isAlive()) {
+			idle.computeIfAbsent(handle.getKey(), key -> new ArrayDeque<Handle>()).addFirst(handle);
+		} else {
+			handle.getWorkspace().close();
+		}
+	}
+	
+	/**
+	 * Returns the number of idle selectors in this pool.
+	 * 
+	 * @return the number of idle selectors in this pool
+	 */
+	public synchronized int size() {
+		int size = 0;
+		
+		for (Deque<Handle> handles : idle.values()) {
+			size += handles.size();
+		}
+		
+		return size;
+	}
+	
+	/**
+	 * Stops all idle selectors.  Each selector is asked to terminate by setting state 4, and is destroyed if it does
+	 * not exit promptly.
+	 */
+	public void clear() {
+		List<Handle> handles = new ArrayList<Handle>();
+		
+		synchronized (this) {
+			for (Deque<Handle> deque : idle.values()) {
+				handles.addAll(deque);
+			}
+			
+			idle.clear();
+		}
+		
+		for (Handle handle : handles) {
+			handle.stop();
+		}
+	}
+	
+	/**
+	 * A selector process together with the workspace holding the communication files it was started with.
+	 */
+	static final class Handle {
+		
+		/**
+		 * The key describing the selector configuration.
+		 */
+		private final String key;
+		
+		/**
+		 * The workspace used by the selector, which is deleted when the selector is stopped.
+		 */
+		private final WorkspaceManager.Workspace workspace;
+		
+		/**
+		 * The selector process.
+		 */
+		private final Process process;
+		
+		/**
+		 * Constructs a handle for a running selector.
+		 * 
+		 * @param key the key describing the selector configuration
+		 * @param workspace the workspace used by the selector
+		 * @param process the selector process
+		 */
+		Handle(String key, WorkspaceManager.Workspace workspace, Process process) {
+			super();
+			this.key = key;
+			this.workspace = workspace;
+			this.process = process;
+		}
+		
+		/**
+		 * Returns the key describing the selector configuration.
+		 * 
+		 * @return the key describing the selector configuration
+		 */
+		String getKey() {
+			return key;
+		}
+		
+		/**
+		 * Returns the file prefix used by the selector.
+		 * 
+		 * @return the file prefix used by the selector
+		 */
+		String getFilePrefix() {
+			return workspace.getFilePrefix();
+		}
+		
+		/**
+		 * Returns the workspace used by the selector.
+		 * 
+		 * @return the workspace used by the selector
+		 */
+		WorkspaceManager.Workspace getWorkspace() {
+			return workspace;
+		}
+		
+		/**
+		 * Returns the selector process.
+		 * 
+		 * @return the selector process
+		 */
+		Process getProcess() {
+			return process;
+		}
+		
+		/**
+		 * Asks the selector to terminate, destroying the process if it does not exit promptly, and deletes its
+		 * workspace.
+		 */
+		void stop() {
+			try (State state = new State(new File(getFilePrefix() + "sta"), new PollingWaitStrategy(0))) {
+				state.set(4);
+				
+				if (!process.waitFor(SelectorSupervisor.SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+					SelectorSupervisor.destroy(process);
+				}
+			} catch (InterruptedException e) {
+				SelectorSupervisor.destroy(process);
+				Thread.currentThread().interrupt();
+			} catch (Exception e) {
+				SelectorSupervisor.destroy(process);
+			} finally {
+				workspace.close();
+			}
+		}
+		
+	}
+
+}
@@ -0,0 +1,286 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.moeaframework.algorithm.pisa.installer.PISAInstaller;
+
+/**
+ * Caches the command and default parameters of installed selectors, so constructing many {@link PISAAlgorithm}
+ * instances does not repeatedly probe the install directory and parse the default parameter file.  A cached selector
+ * is resolved again when its install directory is modified or replaced, as detected by the directory's modification
+ * time and file key, or when its default parameter file is edited, which costs two file system calls per lookup.
+ * Replacing the executable in place is not detected, but does not change the cached command.
+ * <p>
+ * Parameter files are also shared: instances with identical parameters use the same {@code par} file, named by the
+ * digest of its contents, which is written once and deleted when the last instance using it terminates.  The files
+ * are kept in the JVM's shared directory managed by the {@link WorkspaceManager}.
+ */
+public class SelectorRegistry {
+	
+	/**
+	 * The shared instance, created on first use.
+	 */
+	private static SelectorRegistry INSTANCE;
+	
+	/**
+	 * The resolved selectors, keyed by their install directory.
+	 */
+	private final Map<String, Selector> selectors;
+	
+	/**
+	 * The parameter files in use, keyed by their directory and contents.
+	 */
+	private final Map<String, ParameterFile> parameterFiles;
+	
+	SelectorRegistry() {
+		super();
+		selectors = new ConcurrentHashMap<String, Selector>();
+		parameterFiles = new HashMap<String, ParameterFile>();
+	}
+	
+	/**
+	 * Returns the shared registry of selectors.
+	 * 
+	 * @return the shared registry of selectors
+	 */
+	public static synchronized SelectorRegistry getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new SelectorRegistry();
+		}
+		
+		return INSTANCE;
+	}
+	
+	/**
+	 * Returns the command and default parameters of the selector, installing it if necessary.
+	 * 
+	 * @param installer the installer for the selector
+	 * @param name the name of the selector
+	 * @return the command and default parameters of the selector
+	 * @throws IOException if an I/O error occurred while installing the selector or reading its parameters
+	 */
+	Selector resolve(PISAInstaller installer, String name) throws IOException {
+		File installPath = installer.getInstallPath(name);
+		String key = installPath.getAbsolutePath();
+		Selector selector = selectors.get(key);
+		
+		if (selector != null && selector.isCurrent(getStamp(installer, name))) {
+			return selector;
+		}
+		
+		synchronized (this) {
+			Object stamp = getStamp(installer, name);
+			selector = selectors.get(key);
+			
+			if (selector != null && selector.isCurrent(stamp)) {
+				return selector;
+			}
+			
+			if (!installer.isInstalled(name)) {
+				installer.ensureInstalled(name);
+				stamp = getStamp(installer, name);
+			}
+			
+			selector = new Selector(installer.getCommand(name), installer.getDefaultParameters(name), stamp);
+			selectors.put(key, selector);
+			return selector;
+		}
+	}
+	
+	/**
+	 * Returns a parameter file containing the given parameters, sharing the file with other runs using identical
+	 * parameters.  Each call must be paired with {@link #releaseParameterFile(File)}, and the file is deleted once no
+	 * longer used.
+	 * 
+	 * @param parameters the parameters, in the order expected by the selector
+	 * @return the parameter file
+	 * @throws IOException if an I/O error occurred while writing the file
+	 */
+	File acquireParameterFile(Map<String, String> parameters) throws IOException {
+		StringBuilder contents = new StringBuilder();
+		
+		for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+			contents.append(parameter.getKey()).append(' ').append(parameter.getValue());
+			contents.append(System.lineSeparator());
+		}
+		
+		File directory = WorkspaceManager.getInstance().getSharedDirectory();
+		String key = directory + "\0" + contents;
+		
+		synchronized (parameterFiles) {
+			ParameterFile parameterFile = parameterFiles.get(key);
+			byte[] bytes = contents.toString().getBytes(StandardCharsets.UTF_8);
+			
+			if (parameterFile == null) {
+				String digest = HexFormat.of().formatHex(createMessageDigest().digest(bytes));
+				parameterFile = new ParameterFile(new File(directory, digest.substring(0, 32) + ".par"));
+			}
+			
+			if (!parameterFile.file.isFile()) {
+				Files.write(parameterFile.file.toPath(), bytes);
+			}
+			
+			parameterFiles.put(key, parameterFile);
+			parameterFile.references++;
+			return parameterFile.file;
+		}
+	}
+	
+	/**
+	 * Releases a parameter file returned by {@link #acquireParameterFile(Map)}, deleting it if no other run uses it.
+	 * 
+	 * @param file the parameter file
+	 */
+	void releaseParameterFile(File file) {
+		synchronized (parameterFiles) {
+			Iterator<ParameterFile> iterator = parameterFiles.values().iterator();
+			
+			while (iterator.hasNext()) {
+				ParameterFile parameterFile = iterator.next();
+				
+				if (parameterFile.file.equals(file)) {
+					if (--parameterFile.references == 0) {
+						iterator.remove();
+						file.delete();
+					}
+					
+					return;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Forgets all resolved selectors, forcing them to be resolved again.
+	 */
+	public void clear() {
+		selectors.clear();
+	}
+	
+	/**
+	 * Returns the value identifying the current version of the selector, combining the modification time and file key
+	 * of its install directory with the modification time of its default parameter file, or {@code null} if the
+	 * directory does not exist.
+	 */
+	private static Object getStamp(PISAInstaller installer, String name) throws IOException {
+		BasicFileAttributes directory = readAttributes(installer.getInstallPath(name));
+		
+		if (directory == null) {
+			return null;
+		}
+		
+		BasicFileAttributes parameters = readAttributes(installer.getDefaultParameterFile(name));
+		
+		return List.of(directory.lastModifiedTime(), Objects.requireNonNullElse(directory.fileKey(), ""),
+				parameters == null ? "" : parameters.lastModifiedTime());
+	}
+	
+	private static BasicFileAttributes readAttributes(File file) throws IOException {
+		try {
+			return Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		} catch (NoSuchFileException e) {
+			return null;
+		}
+	}
+	
+	private static MessageDigest createMessageDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			//every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * A parameter file together with the number of runs using it.
+	 */
+	private static final class ParameterFile {
+		
+		private final File file;
+		
+		private int references;
+		
+		ParameterFile(File file) {
+			super();
+			this.file = file;
+		}
+		
+	}
+	
+	/**
+	 * The resolved command and default parameters of a selector.
+	 */
+	static final class Selector {
+		
+		private final String command;
+		
+		private final Map<String, String> defaultParameters;
+		
+		private final Object stamp;
+		
+		Selector(String command, Map<String, String> defaultParameters, Object stamp) {
+			super();
+			this.command = command;
+			this.defaultParameters = Collections.unmodifiableMap(new LinkedHashMap<String, String>(defaultParameters));
+			this.stamp = stamp;
+		}
+		
+		/**
+		 * Returns the command to start the selector.
+		 * 
+		 * @return the command to start the selector
+		 */
+		public String getCommand() {
+			return command;
+		}
+		
+		/**
+		 * Returns the default parameters, in the order expected by the selector.
+		 * 
+		 * @return the default parameters, which are unmodifiable
+		 */
+		public Map<String, String> getDefaultParameters() {
+			return defaultParameters;
+		}
+		
+		boolean isCurrent(Object currentStamp) {
+			return stamp != null && stamp.equals(currentStamp);
+		}
+		
+	}
+
+}
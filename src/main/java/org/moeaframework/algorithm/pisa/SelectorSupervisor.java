@@ -0,0 +1,214 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Watches over a selector process while we wait on it.  {@link State} calls {@link #check()} between successive reads
+ * of the state file, which fails if the selector exited or exceeded either timeout, so a crashed or hung selector no
+ * longer blocks the waiting thread forever.
+ * <p>
+ * Supervised processes, including any processes they started, are also destroyed when the JVM exits.
+ */
+public class SelectorSupervisor {
+	
+	/**
+	 * How long, in milliseconds, we wait for a selector to exit on its own after it was asked to terminate.
+	 */
+	static final long SHUTDOWN_TIMEOUT = 1000;
+	
+	/**
+	 * The processes to destroy when the JVM exits.
+	 */
+	private static final Set<Process> LIVE_PROCESSES = ConcurrentHashMap.newKeySet();
+	
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			for (Process process : LIVE_PROCESSES) {
+				destroy(process);
+			}
+		}, "PISA selector shutdown"));
+	}
+	
+	/**
+	 * The longest time, in nanoseconds, the selector may take to respond to a single request, or {@code 0} for no
+	 * limit.
+	 */
+	private final long generationTimeout;
+	
+	/**
+	 * The longest time, in nanoseconds, since {@link #start()} that we will wait on the selector, or {@code 0} for no
+	 * limit.
+	 */
+	private final long totalTimeout;
+	
+	/**
+	 * The supervised process, or {@code null} if not yet attached.
+	 */
+	private Process process;
+	
+	/**
+	 * The value of {@link System#nanoTime()} when the run started.
+	 */
+	private long startTime;
+	
+	/**
+	 * The value of {@link System#nanoTime()} when the last request was handed to the selector.
+	 */
+	private long requestTime;
+	
+	/**
+	 * Constructs a supervisor with the given timeouts.
+	 * 
+	 * @param generationTimeout the longest time, in nanoseconds, the selector may take to respond to a single
+	 *        request, or {@code 0} for no limit
+	 * @param totalTimeout the longest time, in nanoseconds, since {@link #start()} that we will wait on the
+	 *        selector, or {@code 0} for no limit
+	 */
+	public SelectorSupervisor(long generationTimeout, long totalTimeout) {
+		super();
+		this.generationTimeout = generationTimeout;
+		this.totalTimeout = totalTimeout;
+	}
+	
+	/**
+	 * Marks the start of the run, from which the total timeout is measured.
+	 */
+	public void start() {
+		startTime = System.nanoTime();
+		requestTime = startTime;
+	}
+	
+	/**
+	 * Marks that a request was handed to the selector, from which the generation timeout is measured.
+	 */
+	public void request() {
+		requestTime = System.nanoTime();
+	}
+	
+	/**
+	 * Supervises the given process, which is destroyed if still running when the JVM exits.
+	 * 
+	 * @param process the selector process
+	 */
+	public void attach(Process process) {
+		detach();
+		this.process = process;
+		LIVE_PROCESSES.add(process);
+	}
+	
+	/**
+	 * Stops supervising the current process without destroying it, for example when returning the selector to the
+	 * {@link SelectorPool}.
+	 */
+	public void detach() {
+		if (process != null) {
+			LIVE_PROCESSES.remove(process);
+			process = null;
+		}
+	}
+	
+	/**
+	 * Returns the supervised process.
+	 * 
+	 * @return the supervised process, or {@code null} if none is attached
+	 */
+	public Process getProcess() {
+		return process;
+	}
+	
+	/**
+	 * Returns {@code true} if a process is attached and still running.
+	 * 
+	 * @return {@code true} if a process is attached and still running; {@code false} otherwise
+	 */
+	public boolean isAlive() {
+		return process != null && process.isAlive();
+	}
+	
+	/**
+	 * Checks that the selector is still running and has not exceeded either timeout.
+	 * 
+	 * @throws SelectorException if the selector exited or timed out
+	 */
+	public void check() throws SelectorException {
+		if (process != null && !process.isAlive()) {
+			throw new SelectorException("selector exited unexpectedly with exit code " + process.exitValue());
+		}
+		
+		long now = System.nanoTime();
+		
+		if (generationTimeout > 0 && now - requestTime > generationTimeout) {
+			throw new SelectorException("selector did not respond within " +
+					TimeUnit.NANOSECONDS.toMillis(generationTimeout) + " ms");
+		}
+		
+		if (totalTimeout > 0 && now - startTime > totalTimeout) {
+			throw new SelectorException("run exceeded the total timeout of " +
+					TimeUnit.NANOSECONDS.toMillis(totalTimeout) + " ms");
+		}
+	}
+	
+	/**
+	 * Waits briefly for the selector, which was asked to terminate, to exit on its own and then destroys the process
+	 * and any processes it started.
+	 * 
+	 * @throws InterruptedException if interrupted while waiting for the process to exit
+	 */
+	public void shutdown() throws InterruptedException {
+		if (process != null) {
+			try {
+				process.waitFor(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+			} finally {
+				destroy();
+			}
+		}
+	}
+	
+	/**
+	 * Immediately destroys the process and any processes it started.
+	 */
+	public void destroy() {
+		if (process != null) {
+			destroy(process);
+			detach();
+		}
+	}
+	
+	/**
+	 * Destroys the process and any processes it started.  The descendants are collected first, since they are no
+	 * longer descendants once their parent is gone.
+	 * 
+	 * @param process the process to destroy
+	 */
+	static void destroy(Process process) {
+		List<ProcessHandle> descendants = process.descendants().collect(Collectors.toList());
+		
+		process.destroyForcibly();
+		
+		for (ProcessHandle descendant : descendants) {
+			descendant.destroyForcibly();
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for terminating a run, whose duration covers the terminate handshake with the selector and
+ * waiting for it to exit.
+ */
+@Name("org.moeaframework.pisa.SelectorTermination")
+@Label("Selector Termination")
+@Category({ "MOEA Framework", "PISA" })
+@Description("Terminated a PISA selector at the end of a run")
+@Enabled(false)
+@StackTrace(false)
+final class SelectorTerminationEvent extends Event {
+	
+	@Label("Selector")
+	String selector;
+	
+	@Label("File Prefix")
+	String filePrefix;
+	
+	@Label("Running")
+	@Description("If the selector was still running when the run terminated")
+	boolean running;
+	
+	@Label("Pooled")
+	@Description("If the selector was reset and returned to the pool instead of exiting")
+	boolean pooled;
+	
+	@Label("Evaluations")
+	int evaluations;
+
+}
@@ -0,0 +1,285 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.moeaframework.core.Solution;
+
+/**
+ * Stores the solutions exchanged with a PISA selector, keyed by their integer identifiers.  Identifiers are allocated
+ * from a free list, reusing those released by {@link #remove(int)}, and index directly into an array, so allocation,
+ * lookup, and removal are constant time and do not box identifiers.  Since freed identifiers are reused, the
+ * identifiers remain dense and the arrays stay proportional to the largest population held at once.
+ */
+class SolutionStore implements Iterable<Solution> {
+	
+	/**
+	 * The default initial capacity.
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	/**
+	 * The solutions indexed by their identifier, with {@code null} marking unused identifiers.
+	 */
+	private Solution[] solutions;
+	
+	/**
+	 * Stack of released identifiers available for reuse.
+	 */
+	private int[] freeIds;
+	
+	/**
+	 * The number of identifiers on the {@link #freeIds} stack.
+	 */
+	private int freeCount;
+	
+	/**
+	 * One more than the largest identifier ever allocated.  Identifiers at or above this limit have never been used.
+	 */
+	private int limit;
+	
+	/**
+	 * The number of solutions currently stored.
+	 */
+	private int size;
+	
+	/**
+	 * Reused bit set marking the identifiers to keep in {@link #retainAll(int[])}.
+	 */
+	private long[] marks;
+	
+	/**
+	 * Constructs an empty solution store.
+	 */
+	public SolutionStore() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Constructs an empty solution store with the given initial capacity.
+	 * 
+	 * @param initialCapacity the initial capacity
+	 */
+	public SolutionStore(int initialCapacity) {
+		super();
+		solutions = new Solution[Math.max(1, initialCapacity)];
+		freeIds = new int[solutions.length];
+		marks = new long[wordsFor(solutions.length)];
+	}
+	
+	/**
+	 * Adds the solution, returning its assigned identifier.
+	 * 
+	 * @param solution the solution
+	 * @return the assigned identifier
+	 */
+	public int add(Solution solution) {
+		if (solution == null) {
+			throw new IllegalArgumentException("solution must not be null");
+		}
+		
+		int id;
+		
+		if (freeCount > 0) {
+			id = freeIds[--freeCount];
+		} else {
+			if (limit == solutions.length) {
+				grow();
+			}
+			
+			id = limit++;
+		}
+		
+		solutions[id] = solution;
+		size++;
+		return id;
+	}
+	
+	/**
+	 * Returns the solution with the given identifier.
+	 * 
+	 * @param id the identifier
+	 * @return the solution, or {@code null} if no solution has this identifier
+	 */
+	public Solution get(int id) {
+		return id >= 0 && id < limit ? solutions[id] : null;
+	}
+	
+	/**
+	 * Returns {@code true} if a solution with the given identifier is stored.
+	 * 
+	 * @param id the identifier
+	 * @return {@code true} if a solution with the given identifier is stored; {@code false} otherwise
+	 */
+	public boolean contains(int id) {
+		return get(id) != null;
+	}
+	
+	/**
+	 * Removes the solution with the given identifier, releasing the identifier for reuse.
+	 * 
+	 * @param id the identifier
+	 * @return the removed solution, or {@code null} if no solution has this identifier
+	 */
+	public Solution remove(int id) {
+		Solution solution = get(id);
+		
+		if (solution != null) {
+			solutions[id] = null;
+			freeIds[freeCount++] = id;
+			size--;
+		}
+		
+		return solution;
+	}
+	
+	/**
+	 * Removes all solutions except those with the given identifiers, releasing the removed identifiers for reuse.
+	 * Identifiers not in this store are ignored.  This runs in time linear in the number of identifiers and the
+	 * {@link #limit()}.
+	 * 
+	 * @param ids the identifiers to retain
+	 */
+	public void retainAll(int[] ids) {
+		retainAll(ids, ids.length);
+	}
+	
+	/**
+	 * Removes all solutions except those with the first {@code length} identifiers in the array, which allows reusing
+	 * the array across calls.
+	 * 
+	 * @param ids the identifiers to retain
+	 * @param length the number of identifiers to read from the array
+	 * @see #retainAll(int[])
+	 */
+	public void retainAll(int[] ids, int length) {
+		int words = wordsFor(limit);
+		Arrays.fill(marks, 0, words, 0L);
+		
+		for (int i = 0; i < length; i++) {
+			int id = ids[i];
+			
+			if (id >= 0 && id < limit) {
+				marks[id >>> 6] |= 1L << id;
+			}
+		}
+		
+		// sweep downwards so the lowest released identifier ends on top of the free stack
+		for (int id = limit - 1; id >= 0; id--) {
+			if (solutions[id] != null && (marks[id >>> 6] & (1L << id)) == 0) {
+				solutions[id] = null;
+				freeIds[freeCount++] = id;
+				size--;
+			}
+		}
+	}
+	
+	/**
+	 * Removes all solutions.  Identifiers are allocated from {@code 0} again.
+	 */
+	public void clear() {
+		Arrays.fill(solutions, 0, limit, null);
+		freeCount = 0;
+		limit = 0;
+		size = 0;
+	}
+	
+	/**
+	 * Returns the number of solutions stored.
+	 * 
+	 * @return the number of solutions stored
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns {@code true} if no solutions are stored.
+	 * 
+	 * @return {@code true} if no solutions are stored; {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Returns one more than the largest identifier ever allocated, which bounds all stored identifiers.
+	 * 
+	 * @return one more than the largest identifier ever allocated
+	 */
+	public int limit() {
+		return limit;
+	}
+	
+	private void grow() {
+		int capacity = solutions.length << 1;
+		
+		if (capacity < 0) {
+			throw new IllegalStateException("solution store is full");
+		}
+		
+		solutions = Arrays.copyOf(solutions, capacity);
+		freeIds = Arrays.copyOf(freeIds, capacity);
+		marks = new long[wordsFor(capacity)];
+	}
+	
+	private static int wordsFor(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	/**
+	 * Iterates over the stored solutions in order of their identifier.  The store must not be modified while
+	 * iterating.
+	 */
+	@Override
+	public Iterator<Solution> iterator() {
+		return new Iterator<Solution>() {
+			
+			private int next = advance(0);
+
+			@Override
+			public boolean hasNext() {
+				return next < limit;
+			}
+
+			@Override
+			public Solution next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				
+				Solution solution = solutions[next];
+				next = advance(next + 1);
+				return solution;
+			}
+			
+			private int advance(int index) {
+				while (index < limit && solutions[index] == null) {
+					index++;
+				}
+				
+				return index;
+			}
+			
+		};
+	}
+
+}
@@ -18,41 +18,139 @@
 package org.moeaframework.algorithm.pisa;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Reads and writes PISA state files.
+ * Reads and writes PISA state files.  The {@link WaitStrategy} determines how we idle between successive reads while
+ * waiting on the selector, and the optional {@link SelectorSupervisor} stops the wait if the selector exits or times
+ * out.
  */
-public class State {
+public class State implements Closeable {
 
 	/**
 	 * The state file.
 	 */
 	private final File file;
-
-	/**
-	 * The delay in milliseconds between successive reads of the state file.
-	 */
-	private static final long pollRate = PISASettings.getPISAPollRate();
 	
 	/**
 	 * The number of times this class will attempt to write to the state file until propagating the error.  Failures
 	 * primarily result from PISA selectors locking the state file.
 	 */
 	private static final int numberOfRetries = 5;
+	
+	/**
+	 * The strategy for idling between successive reads of the state file.
+	 */
+	private WaitStrategy waitStrategy;
+	
+	/**
+	 * The supervisor checked between successive reads of the state file, or {@code null} to wait indefinitely.
+	 */
+	private SelectorSupervisor supervisor;
+	
+	/**
+	 * The number of times we idled while waiting.
+	 */
+	private long polls;
 
 	/**
-	 * Constructs a state indicator backed by the specified file.
+	 * Constructs a state indicator backed by the specified file, using the wait strategy and poll rate defined in
+	 * {@link PISASettings}.
 	 * 
 	 * @param file the state file
 	 */
 	public State(File file) {
+		this(file, WaitStrategy.of(PISASettings.getPISAWaitStrategy(), file,
+				TimeUnit.MILLISECONDS.toNanos(PISASettings.getPISAPollRate())));
+	}
+	
+	/**
+	 * Constructs a state indicator backed by the specified file.
+	 * 
+	 * @param file the state file
+	 * @param waitStrategy the strategy for idling between successive reads of the state file
+	 */
+	public State(File file, WaitStrategy waitStrategy) {
 		super();
 		this.file = file;
+		this.waitStrategy = waitStrategy;
+	}
+	
+	/**
+	 * Returns the state file.
+	 * 
+	 * @return the state file
+	 */
+	public File getFile() {
+		return file;
+	}
+	
+	/**
+	 * Returns the strategy for idling between successive reads of the state file.
+	 * 
+	 * @return the strategy for idling between successive reads of the state file
+	 */
+	public WaitStrategy getWaitStrategy() {
+		return waitStrategy;
+	}
+	
+	/**
+	 * Replaces the strategy for idling between successive reads of the state file, closing the previous strategy.
+	 * 
+	 * @param waitStrategy the new strategy for idling between successive reads of the state file
+	 * @throws IOException if an I/O error occurred while closing the previous strategy
+	 */
+	public void setWaitStrategy(WaitStrategy waitStrategy) throws IOException {
+		WaitStrategy previous = this.waitStrategy;
+		this.waitStrategy = waitStrategy;
+		
+		if (previous != waitStrategy) {
+			previous.close();
+		}
+	}
+	
+	/**
+	 * Returns the number of times this state indicator idled while waiting for the state to change, which is one less
+	 * than the number of reads of the state file made by each wait.
+	 * 
+	 * @return the number of times this state indicator idled while waiting
+	 */
+	public long getPollCount() {
+		return polls;
+	}
+	
+	/**
+	 * Sets the supervisor checked between successive reads of the state file while waiting.
+	 * 
+	 * @param supervisor the supervisor, or {@code null} to wait indefinitely
+	 */
+	public void setSupervisor(SelectorSupervisor supervisor) {
+		this.supervisor = supervisor;
+	}
+	
+	/**
+	 * Returns the supervisor checked between successive reads of the state file while waiting.
+	 * 
+	 * @return the supervisor, or {@code null} if waits are not supervised
+	 */
+	public SelectorSupervisor getSupervisor() {
+		return supervisor;
+	}
+	
+	/**
+	 * Returns {@code true} if this state indicator is notified of changes to the state file; {@code false} if it
+	 * idles without notifications.
+	 * 
+	 * @return {@code true} if this state indicator is notified of changes to the state file; {@code false} otherwise
+	 */
+	public boolean isWatching() {
+		return waitStrategy instanceof WatchWaitStrategy;
 	}
 
 	/**
@@ -78,14 +176,15 @@ public class State {
 	 * 
 	 * @param state the state
 	 * @throws IOException if an I/O error occurred
-	 * @throws InterruptedException if {@link Thread#sleep(long)} was interrupted
+	 * @throws InterruptedException if the wait between retries was interrupted
 	 */
 	public void set(int state) throws IOException, InterruptedException {
 		int retriesRemaining = numberOfRetries;
+		int attempt = 0;
 
 		while (true) {
-			try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
-				writer.print(state);
+			try {
+				write(state);
 				break;
 			} catch (IOException e) {
 				retriesRemaining--;
@@ -95,21 +194,62 @@ public class State {
 				}
 			}
 			
-			Thread.sleep(pollRate);
+			waitStrategy.idle(attempt++);
+		}
+	}
+
+	/**
+	 * Writes the state to the state file, replacing its contents.
+	 * 
+	 * @param state the state
+	 * @throws IOException if an I/O error occurred
+	 */
+	protected void write(int state) throws IOException {
+		try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+			writer.print(state);
 		}
 	}
+	
+	/**
+	 * Returns {@code true} if the state file exists.
+	 * 
+	 * @return {@code true} if the state file exists; {@code false} otherwise
+	 */
+	protected boolean exists() {
+		return file.exists();
+	}
 
 	/**
 	 * Blocks until the state becomes the specified value.
 	 * 
 	 * @param state the state to wait for
 	 * @throws IOException if an I/O error occurred
-	 * @throws InterruptedException if {@link Thread#sleep(long)} was interrupted
+	 * @throws SelectorException if the supervisor detected the selector exited or timed out
+	 * @throws InterruptedException if the wait was interrupted
 	 */
 	public void waitFor(int state) throws IOException, InterruptedException {
-		while (!file.exists() || (get() != state)) {
-			Thread.sleep(pollRate);
+		StateChangeEvent event = new StateChangeEvent();
+		int attempt = 0;
+		
+		event.begin();
+		
+		while (!exists() || (get() != state)) {
+			try {
+				supervise();
+			} catch (SelectorException e) {
+				//the selector may have written the state and exited after we read it
+				if (exists() && get() == state) {
+					break;
+				}
+				
+				throw e;
+			}
+			
+			waitStrategy.idle(attempt++);
+			polls++;
 		}
+		
+		commit(event, -1, state, attempt);
 	}
 
 	/**
@@ -118,16 +258,74 @@ public class State {
 	 * @param state the state to wait on
 	 * @return the new state
 	 * @throws IOException if an I/O error occurred
-	 * @throws InterruptedException if {@link Thread#sleep(long)} was interrupted
+	 * @throws SelectorException if the supervisor detected the selector exited or timed out
+	 * @throws InterruptedException if the wait was interrupted
 	 */
 	public int waitWhile(int state) throws IOException, InterruptedException {
+		int attempt = 0;
 		int current;
 
-		do {
-			Thread.sleep(pollRate);
-		} while (!file.exists() || ((current = get()) == state));
+		StateChangeEvent event = new StateChangeEvent();
+		event.begin();
 
+		while (!exists() || ((current = get()) == state)) {
+			try {
+				supervise();
+			} catch (SelectorException e) {
+				//the selector may have written its final state and exited after we read the state
+				if (exists() && (current = get()) != state) {
+					break;
+				}
+				
+				throw e;
+			}
+			
+			waitStrategy.idle(attempt++);
+			polls++;
+		}
+		
+		commit(event, state, current, attempt);
 		return current;
 	}
+	
+	/**
+	 * Records the state change observed by a wait, if enabled in a Flight Recorder recording.
+	 * 
+	 * @param event the event started before waiting
+	 * @param previousState the state waited on, or {@code -1} if waiting for a specific state
+	 * @param state the new state
+	 * @param polls the number of times we idled
+	 */
+	private void commit(StateChangeEvent event, int previousState, int state, int polls) {
+		if (event.shouldCommit()) {
+			event.file = file.getPath();
+			event.previousState = previousState;
+			event.state = state;
+			event.polls = polls;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Checks the supervisor, if any, before idling.  Since the selector can change the state and exit between our read
+	 * and this check, callers read the state once more before reporting a failure.
+	 * 
+	 * @throws SelectorException if the selector exited or timed out
+	 */
+	private void supervise() throws SelectorException {
+		if (supervisor != null) {
+			supervisor.check();
+		}
+	}
+	
+	/**
+	 * Releases any resources held by the wait strategy.  The state file itself is not deleted.
+	 * 
+	 * @throws IOException if an I/O error occurred
+	 */
+	@Override
+	public void close() throws IOException {
+		waitStrategy.close();
+	}
 
 }
@@ -0,0 +1,54 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a state change observed while waiting on the state file, whose duration is the time spent
+ * waiting.
+ */
+@Name("org.moeaframework.pisa.StateChange")
+@Label("State Change")
+@Category({ "MOEA Framework", "PISA" })
+@Description("Waited for the PISA selector to change the state")
+@Enabled(false)
+@StackTrace(false)
+final class StateChangeEvent extends Event {
+	
+	@Label("State File")
+	String file;
+	
+	@Label("Previous State")
+	@Description("The state waited on, or -1 if waiting for a specific state")
+	int previousState;
+	
+	@Label("State")
+	int state;
+	
+	@Label("Polls")
+	@Description("The number of times we idled before the state changed")
+	long polls;
+
+}
@@ -0,0 +1,72 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strategy for idling between successive reads of the PISA state file.  Each {@link State} owns its strategy, so
+ * implementations may hold per-file resources that are released by {@link #close()}.
+ */
+public interface WaitStrategy extends Closeable {
+	
+	/**
+	 * Idles until the state file should be read again.  Implementations may return early, in which case the caller
+	 * simply reads the state again.
+	 * 
+	 * @param attempt the number of times this method was previously called while waiting on the current state, which
+	 *        starts at {@code 0} each time the caller begins waiting
+	 * @throws InterruptedException if the wait was interrupted
+	 */
+	public void idle(int attempt) throws InterruptedException;
+	
+	@Override
+	public default void close() throws IOException {
+		// by default, there are no resources to release
+	}
+	
+	/**
+	 * Creates the wait strategy with the given name.  Supported names are {@code poll}, {@code watch}, and
+	 * {@code backoff}.  The {@code watch} strategy falls back to {@code poll} if file system change notifications are
+	 * not available.
+	 * 
+	 * @param name the name of the wait strategy
+	 * @param file the state file
+	 * @param pollRate the poll rate, in nanoseconds, which is the longest delay between successive reads
+	 * @return the wait strategy
+	 * @throws IllegalArgumentException if the name is not a supported wait strategy
+	 */
+	public static WaitStrategy of(String name, File file, long pollRate) {
+		if (name.equalsIgnoreCase("poll")) {
+			return new PollingWaitStrategy(pollRate);
+		} else if (name.equalsIgnoreCase("watch")) {
+			WaitStrategy strategy = WatchWaitStrategy.create(file, pollRate);
+			return strategy == null ? new PollingWaitStrategy(pollRate) : strategy;
+		} else if (name.equalsIgnoreCase("backoff")) {
+			long minimumDelay = TimeUnit.MICROSECONDS.toNanos(1);
+			return new BackoffWaitStrategy(BackoffWaitStrategy.DEFAULT_SPINS, minimumDelay,
+					Math.max(minimumDelay, pollRate));
+		} else {
+			throw new IllegalArgumentException("unsupported wait strategy '" + name + "'");
+		}
+	}
+
+}
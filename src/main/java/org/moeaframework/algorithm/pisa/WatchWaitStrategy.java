@@ -0,0 +1,120 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers for file system change notifications on the directory containing the state file, waking up as soon as
+ * the selector rewrites the file instead of sleeping for the full poll rate.  The poll rate remains the upper bound on
+ * how long we wait between reads, which guards against lost notifications and platforms where the
+ * {@link WatchService} is itself implemented by polling.
+ */
+public class WatchWaitStrategy implements WaitStrategy {
+	
+	/**
+	 * The longest delay in nanoseconds between successive reads of the state file.
+	 */
+	private final long pollRate;
+	
+	/**
+	 * The service notifying us of changes to the state file, or {@code null} if closed.
+	 */
+	private WatchService watcher;
+	
+	private WatchWaitStrategy(WatchService watcher, long pollRate) {
+		super();
+		this.watcher = watcher;
+		this.pollRate = pollRate;
+	}
+	
+	/**
+	 * Creates a wait strategy watching the directory containing the state file.
+	 * 
+	 * @param file the state file
+	 * @param pollRate the longest delay in nanoseconds between successive reads of the state file
+	 * @return the wait strategy, or {@code null} if file system change notifications are not available
+	 */
+	public static WatchWaitStrategy create(File file, long pollRate) {
+		Path directory = file.getAbsoluteFile().toPath().getParent();
+		WatchService watcher = null;
+		
+		try {
+			watcher = FileSystems.getDefault().newWatchService();
+			directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			return new WatchWaitStrategy(watcher, pollRate);
+		} catch (IOException | UnsupportedOperationException e) {
+			if (watcher != null) {
+				try {
+					watcher.close();
+				} catch (IOException ex) {
+					// ignore, we are falling back to polling anyway
+				}
+			}
+			
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a wait strategy with the same poll rate watching the directory containing another state file.
+	 * 
+	 * @param file the other state file
+	 * @return the wait strategy, or {@code null} if file system change notifications are not available
+	 */
+	WatchWaitStrategy forFile(File file) {
+		return create(file, pollRate);
+	}
+
+	@Override
+	public void idle(int attempt) throws InterruptedException {
+		if (watcher == null) {
+			PollingWaitStrategy.park(pollRate);
+			return;
+		}
+		
+		try {
+			WatchKey key = watcher.poll(pollRate, TimeUnit.NANOSECONDS);
+			
+			if (key != null) {
+				key.pollEvents();
+				key.reset();
+			}
+		} catch (ClosedWatchServiceException e) {
+			watcher = null;
+			PollingWaitStrategy.park(pollRate);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (watcher != null) {
+			watcher.close();
+			watcher = null;
+		}
+	}
+
+}
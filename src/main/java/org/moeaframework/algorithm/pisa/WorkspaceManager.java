@@ -0,0 +1,406 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Gives each run its own directory for the PISA communication files, so runs never leave files behind in the shared
+ * communication path.  Workspaces are named {@code pisa-<pid>-<n>} and are deleted when the run terminates, when an
+ * idle selector owning one is stopped by the {@link SelectorPool}, or when the JVM exits.
+ * <p>
+ * The owner of each workspace, and of each shared directory, holds a lock on the {@value #LOCK_FILE} file inside it
+ * for as long as it exists.  Workspaces left behind by JVMs that crashed are swept the first time this JVM uses a
+ * communication path, recognized by their lock no longer being held.  Unlike process IDs, locks remain meaningful when
+ * the communication path is shared between containers or hosts.
+ * <p>
+ * The number of live workspaces is limited by {@link PISASettings#getPISAMaxWorkspaces()}.  When the limit is
+ * reached, idle selectors in the {@link SelectorPool} are stopped to free their workspaces before failing.
+ */
+public class WorkspaceManager {
+	
+	/**
+	 * The pattern matching workspace names.
+	 */
+	private static final Pattern NAME_PATTERN = Pattern.compile("pisa-\\d+-\\d+");
+	
+	/**
+	 * The name of the lock file held by the owner of each workspace and shared directory.
+	 */
+	static final String LOCK_FILE = ".lock";
+	
+	/**
+	 * The shared instance, created on first use.
+	 */
+	private static WorkspaceManager INSTANCE;
+	
+	/**
+	 * The process ID of this JVM.
+	 */
+	private final long pid;
+	
+	/**
+	 * The counter numbering the workspaces created by this JVM.
+	 */
+	private final AtomicLong counter;
+	
+	/**
+	 * The workspaces that have not yet been released.
+	 */
+	private final Set<Workspace> live;
+	
+	/**
+	 * The communication paths that were swept for stale workspaces.
+	 */
+	private final Set<File> swept;
+	
+	/**
+	 * The directory shared by all runs in this JVM, such as for parameter files, in each communication path.
+	 */
+	private final Map<File, File> sharedDirectories;
+	
+	/**
+	 * The locks held on the shared directories, keyed by the shared directory.
+	 */
+	private final Map<File, FileChannel> sharedLocks;
+	
+	WorkspaceManager() {
+		super();
+		pid = ProcessHandle.current().pid();
+		counter = new AtomicLong();
+		live = new LinkedHashSet<Workspace>();
+		swept = new HashSet<File>();
+		sharedDirectories = new HashMap<File, File>();
+		sharedLocks = new HashMap<File, FileChannel>();
+	}
+	
+	/**
+	 * Returns the shared workspace manager.
+	 * 
+	 * @return the shared workspace manager
+	 */
+	public static synchronized WorkspaceManager getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new WorkspaceManager();
+			Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::shutdown, "PISA workspace cleanup"));
+		}
+		
+		return INSTANCE;
+	}
+	
+	/**
+	 * Creates a new workspace in the communication path, {@link PISASettings#getPISACommunicationPath()}.
+	 * 
+	 * @return the new workspace
+	 * @throws IOException if an I/O error occurred or the limit on live workspaces was reached
+	 */
+	Workspace create() throws IOException {
+		File root = getRoot();
+		int limit = PISASettings.getPISAMaxWorkspaces();
+		
+		if (limit > 0 && size() >= limit) {
+			SelectorPool.getInstance().clear();
+		}
+		
+		synchronized (this) {
+			if (limit > 0 && live.size() >= limit) {
+				throw new IOException("reached the limit of " + limit + " live PISA workspaces, see " +
+						PISASettings.KEY_PISA_MAX_WORKSPACES);
+			}
+			
+			while (true) {
+				File directory = new File(root, "pisa-" + pid + "-" + counter.incrementAndGet());
+				FileChannel lock = createLocked(directory);
+				
+				if (lock != null) {
+					Workspace workspace = new Workspace(this, directory, lock);
+					live.add(workspace);
+					return workspace;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the directory in the communication path shared by all runs in this JVM, which is named
+	 * {@code pisa-<pid>-0} and deleted when the JVM exits.  If another JVM with the same process ID, such as one in
+	 * another container, already owns that name, the next free workspace name is used instead.
+	 * 
+	 * @return the directory shared by all runs in this JVM
+	 * @throws IOException if an I/O error occurred
+	 */
+	File getSharedDirectory() throws IOException {
+		File root = getRoot();
+		
+		synchronized (this) {
+			File directory = sharedDirectories.get(root);
+			
+			if (directory == null) {
+				directory = new File(root, "pisa-" + pid + "-0");
+				FileChannel lock = createLocked(directory);
+				
+				while (lock == null) {
+					directory = new File(root, "pisa-" + pid + "-" + counter.incrementAndGet());
+					lock = createLocked(directory);
+				}
+				
+				sharedDirectories.put(root, directory);
+				sharedLocks.put(directory, lock);
+			}
+			
+			return directory;
+		}
+	}
+	
+	/**
+	 * Creates the directory and locks its {@value #LOCK_FILE} file.
+	 * 
+	 * @param directory the directory to create
+	 * @return the channel holding the lock, or {@code null} if the directory already exists or another process swept
+	 *         it before it was locked
+	 * @throws IOException if an I/O error occurred
+	 */
+	private static FileChannel createLocked(File directory) throws IOException {
+		FileChannel channel;
+		
+		try {
+			Files.createDirectory(directory.toPath());
+			channel = FileChannel.open(new File(directory, LOCK_FILE).toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE);
+		} catch (FileAlreadyExistsException | NoSuchFileException e) {
+			return null;
+		}
+		
+		if (tryLock(channel)) {
+			return channel;
+		}
+		
+		channel.close();
+		return null;
+	}
+	
+	/**
+	 * Attempts to lock the channel without waiting.
+	 * 
+	 * @param channel the channel
+	 * @return {@code true} if the lock was acquired; {@code false} if it is held elsewhere
+	 * @throws IOException if an I/O error occurred, after closing the channel
+	 */
+	private static boolean tryLock(FileChannel channel) throws IOException {
+		try {
+			return channel.tryLock() != null;
+		} catch (OverlappingFileLockException e) {
+			return false;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Returns the communication path, sweeping it for stale workspaces on first use.
+	 * 
+	 * @return the communication path
+	 * @throws IOException if an I/O error occurred
+	 */
+	private File getRoot() throws IOException {
+		File root = PISASettings.getPISACommunicationPath();
+		
+		if (root == null) {
+			root = FileUtils.getTempDirectory();
+		}
+		
+		root = root.getCanonicalFile();
+		sweep(root);
+		return root;
+	}
+	
+	/**
+	 * Deletes workspaces in the communication path whose lock is not held.  Each path is swept once.  This holds the
+	 * monitor throughout, since closing a channel can release every lock this JVM holds on the same file, so our own
+	 * workspaces must not be created while sweeping.
+	 * 
+	 * @param root the communication path
+	 */
+	synchronized void sweep(File root) {
+		if (!swept.add(root)) {
+			return;
+		}
+		
+		File[] directories = root.listFiles(File::isDirectory);
+		
+		if (directories == null) {
+			return;
+		}
+		
+		for (File directory : directories) {
+			if (NAME_PATTERN.matcher(directory.getName()).matches() && !isOwned(directory)) {
+				sweepDirectory(directory);
+			}
+		}
+	}
+	
+	private boolean isOwned(File directory) {
+		return sharedLocks.containsKey(directory) ||
+				live.stream().anyMatch(workspace -> workspace.getDirectory().equals(directory));
+	}
+	
+	/**
+	 * Deletes the workspace if its lock can be acquired.  The workspace is deleted while holding the lock, so a process
+	 * that just created it and has not yet locked it fails to lock it and picks another name.
+	 * 
+	 * @param directory the workspace
+	 */
+	private static void sweepDirectory(File directory) {
+		try (FileChannel channel = FileChannel.open(new File(directory, LOCK_FILE).toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			if (!tryLock(channel)) {
+				return;
+			}
+			
+			FileUtils.deleteQuietly(directory);
+		} catch (IOException e) {
+			//deleted by another process sweeping at the same time
+			return;
+		}
+		
+		//file systems that cannot delete open files, such as on Windows, leave the lock file until it is closed
+		FileUtils.deleteQuietly(directory);
+	}
+	
+	/**
+	 * Returns the number of live workspaces.
+	 * 
+	 * @return the number of live workspaces
+	 */
+	public synchronized int size() {
+		return live.size();
+	}
+	
+	/**
+	 * Deletes all live workspaces.
+	 */
+	public void clear() {
+		List<Workspace> workspaces;
+		
+		synchronized (this) {
+			workspaces = new ArrayList<Workspace>(live);
+		}
+		
+		for (Workspace workspace : workspaces) {
+			workspace.close();
+		}
+	}
+	
+	/**
+	 * Deletes all live workspaces and the shared directories.  This is called when the JVM exits.
+	 */
+	private void shutdown() {
+		clear();
+		
+		synchronized (this) {
+			for (Map.Entry<File, FileChannel> entry : sharedLocks.entrySet()) {
+				IOUtils.closeQuietly(entry.getValue());
+				FileUtils.deleteQuietly(entry.getKey());
+			}
+		}
+	}
+	
+	/**
+	 * Deletes the workspace, releasing its lock first so the lock file can also be deleted on every platform.  If
+	 * another process sweeps the workspace in between, it is deleted either way.
+	 */
+	private void release(Workspace workspace) {
+		synchronized (this) {
+			if (!live.remove(workspace)) {
+				return;
+			}
+		}
+		
+		IOUtils.closeQuietly(workspace.lock);
+		FileUtils.deleteQuietly(workspace.getDirectory());
+	}
+	
+	/**
+	 * The directory holding the communication files of one run, or of an idle selector in the {@link SelectorPool}.
+	 * Closing the workspace deletes the directory and releases its lock.
+	 */
+	static final class Workspace implements Closeable {
+		
+		private final WorkspaceManager manager;
+		
+		private final File directory;
+		
+		private final FileChannel lock;
+		
+		Workspace(WorkspaceManager manager, File directory, FileChannel lock) {
+			super();
+			this.manager = manager;
+			this.directory = directory;
+			this.lock = lock;
+		}
+		
+		/**
+		 * Returns the workspace directory.
+		 * 
+		 * @return the workspace directory
+		 */
+		File getDirectory() {
+			return directory;
+		}
+		
+		/**
+		 * Returns the prefix of the communication files in this workspace, which is passed to the selector.
+		 * 
+		 * @return the prefix of the communication files
+		 */
+		String getFilePrefix() {
+			return new File(directory, "pisa").getPath();
+		}
+		
+		/**
+		 * Deletes the workspace.  Has no effect if already closed.
+		 */
+		@Override
+		public void close() {
+			manager.release(this);
+		}
+		
+	}
+
+}
@@ -17,24 +17,76 @@
  */
 package org.moeaframework.algorithm.pisa.installer;
 
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
-import java.util.HashMap;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.moeaframework.algorithm.pisa.PISASettings;
 import org.moeaframework.core.FrameworkException;
-import org.moeaframework.util.io.RedirectStream;
 
+/**
+ * Installs PISA selectors by downloading and extracting archives.  Several selectors are installed concurrently, up
+ * to {@link PISASettings#getPISAInstallThreads()} at a time, each first into a staging directory.  Only once all
+ * selectors in the batch are installed are they moved into place, so a failed batch leaves any existing installations
+ * untouched.  If moving the batch into place fails, the selectors already moved are rolled back and the replaced
+ * installations restored.  The output of each selector is buffered and printed together once it completes.
+ * <p>
+ * Archives are downloaded from {@link PISASettings#getPISAMirror()}, if set, instead of their registered URL.  If
+ * {@link PISASettings#getPISACachePath()} is set, archives are kept in a shared {@link ArtifactCache} and only
+ * downloaded if not already cached.  Archives registered with a SHA-256 digest are verified against that digest.
+ * <p>
+ * Installations are coordinated across threads and processes sharing the install path by holding a lock on the
+ * {@value #LOCK_FILE} file in the install path.  Each selector is published by renaming its staging directory, which
+ * contains the {@value #INSTALLED_MARKER} marker, so a selector is never seen partially installed.  Processes that find
+ * a selector missing wait for the lock and then check again, so only one downloads it.
+ */
 public abstract class AbstractPISAInstaller implements PISAInstaller {
 	
-	private final Map<String, URL> files = new HashMap<String, URL>();
+	/**
+	 * The name of the lock file in the install path.
+	 */
+	static final String LOCK_FILE = ".lock";
+	
+	/**
+	 * The name of the marker file written into each completed installation.
+	 */
+	static final String INSTALLED_MARKER = ".installed";
+	
+	/**
+	 * Serializes installations within this JVM, since file locks are held on behalf of the whole JVM and can not be
+	 * acquired twice.
+	 */
+	private static final ReentrantLock JVM_LOCK = new ReentrantLock();
+	
+	private final Map<String, URL> files = new LinkedHashMap<String, URL>();
+	
+	private final Map<String, String> digests = new LinkedHashMap<String, String>();
 		
 	protected void register(String algorithm, String remoteUrl) {
 		try {
@@ -43,9 +95,140 @@ public abstract class AbstractPISAInstaller implements PISAInstaller {
 			throw new FrameworkException(e);
 		}
 	}
+	
+	/**
+	 * Registers the archive for a selector along with its expected SHA-256 digest, which is verified after
+	 * downloading and identifies the archive in the {@link ArtifactCache}.
+	 * 
+	 * @param algorithm the name of the selector
+	 * @param remoteUrl the URL of the archive
+	 * @param sha256 the SHA-256 digest of the archive, in hexadecimal
+	 * @throws IllegalArgumentException if the digest is not 64 hexadecimal digits
+	 */
+	protected void register(String algorithm, String remoteUrl, String sha256) {
+		if (!sha256.matches("[0-9a-fA-F]{64}")) {
+			throw new IllegalArgumentException("invalid SHA-256 digest '" + sha256 + "' for " + algorithm);
+		}
+		
+		register(algorithm, remoteUrl);
+		digests.put(getCanonicalName(algorithm), sha256.toLowerCase(Locale.ROOT));
+	}
 
 	@Override
 	public void install(String algorithm) throws IOException {
+		install(List.of(algorithm));
+	}
+	
+	/**
+	 * Installs the given selectors concurrently, replacing any existing installations.  Either all selectors are
+	 * installed or, if any fails, none are and the existing installations are left unchanged.
+	 * 
+	 * @param algorithms the names of the selectors to install
+	 * @throws IOException if any selector failed to install, with a summary of all failures in the message and each
+	 *         failure added as a suppressed exception
+	 */
+	public void install(Collection<String> algorithms) throws IOException {
+		Map<String, URL> downloadURLs = getDownloadURLs(algorithms);
+		
+		if (downloadURLs.isEmpty()) {
+			return;
+		}
+		
+		InstallLock lock = lock();
+		
+		try {
+			install(downloadURLs);
+		} finally {
+			lock.close();
+		}
+	}
+	
+	/**
+	 * Installs the selector unless it is already installed.  If another process is installing selectors, waits until
+	 * it finishes and checks again, so concurrent processes download each selector only once.  Installations made
+	 * before the {@value #INSTALLED_MARKER} marker was introduced are adopted rather than reinstalled.
+	 * 
+	 * @param algorithm the name of the selector
+	 * @throws IOException if the selector failed to install
+	 */
+	@Override
+	public void ensureInstalled(String algorithm) throws IOException {
+		if (isInstalled(algorithm) || adoptLegacyInstallation(algorithm)) {
+			return;
+		}
+		
+		Map<String, URL> downloadURLs = getDownloadURLs(List.of(algorithm));
+		
+		InstallLock lock = lock();
+		
+		try {
+			if (!isInstalled(algorithm)) {
+				install(downloadURLs);
+			}
+		} finally {
+			lock.close();
+		}
+	}
+	
+	/**
+	 * Adopts an installation lacking the {@value #INSTALLED_MARKER} marker, as made by earlier versions, by writing
+	 * the marker if the selector's executable exists.  Reinstalling instead would fail offline or when installation is
+	 * not enabled.  Directories without the marker are never left by this installer, which extracts into a staging
+	 * directory.
+	 * 
+	 * @param algorithm the name of the selector
+	 * @return {@code true} if the selector is now installed; {@code false} if there is no executable to adopt
+	 * @throws IOException if an I/O error occurred
+	 */
+	private boolean adoptLegacyInstallation(String algorithm) throws IOException {
+		if (!hasCommand(algorithm)) {
+			return false;
+		}
+		
+		InstallLock lock = lock();
+		
+		try {
+			if (isInstalled(algorithm)) {
+				return true;
+			} else if (!hasCommand(algorithm)) {
+				return false;
+			}
+			
+			Files.createFile(new File(getInstallPath(algorithm), INSTALLED_MARKER).toPath());
+			return true;
+		} finally {
+			lock.close();
+		}
+	}
+	
+	private boolean hasCommand(String algorithm) {
+		try {
+			getCommand(algorithm);
+			return true;
+		} catch (FrameworkException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Returns {@code true} if the selector was completely installed, as indicated by the {@value #INSTALLED_MARKER}
+	 * marker.
+	 * 
+	 * @param algorithm the name of the selector
+	 * @return {@code true} if the selector is installed; {@code false} otherwise
+	 */
+	@Override
+	public boolean isInstalled(String algorithm) {
+		return new File(getInstallPath(algorithm), INSTALLED_MARKER).isFile();
+	}
+	
+	/**
+	 * Checks that installing is permitted and returns the download URL of each selector.
+	 * 
+	 * @param algorithms the names of the selectors
+	 * @return the download URL of each selector
+	 */
+	private Map<String, URL> getDownloadURLs(Collection<String> algorithms) {
 		if (!PISASettings.getPISAAllowInstall()) {
 			throw new FrameworkException("installation of PISA selectors is not enabled");
 		}
@@ -54,32 +237,347 @@ public abstract class AbstractPISAInstaller implements PISAInstaller {
 			throw new FrameworkException("installer not supported on current OS (" + SystemUtils.OS_NAME + ")");
 		}
 		
-		URL downloadURL = getDownloadURL(algorithm);
+		Map<String, URL> downloadURLs = new LinkedHashMap<String, URL>();
 		
-		if (downloadURL == null) {
-			throw new FrameworkException(algorithm + " is not the name of a recognized PISA selector");
+		for (String algorithm : algorithms) {
+			URL downloadURL = getDownloadURL(algorithm);
+			
+			if (downloadURL == null) {
+				throw new FrameworkException(algorithm + " is not the name of a recognized PISA selector");
+			}
+			
+			downloadURLs.put(algorithm, downloadURL);
 		}
 		
-		File localFile = new File(FilenameUtils.getName(downloadURL.getPath()));
+		return downloadURLs;
+	}
+	
+	/**
+	 * Installs the selectors while holding the install lock.
+	 * 
+	 * @param downloadURLs the download URL of each selector
+	 * @throws IOException if any selector failed to install
+	 */
+	private void install(Map<String, URL> downloadURLs) throws IOException {
+		//stage within the install path so the installations can be moved into place by renaming
+		File installRoot = PISASettings.getPISAInstallPath();
+		File stagingPath = Files.createTempDirectory(installRoot.toPath(), ".staging").toFile();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(downloadURLs.size(),
+				Math.max(1, PISASettings.getPISAInstallThreads())));
+		boolean keepStaging = false;
 		
 		try {
-			System.out.println("Installing " + algorithm + "...");
+			Map<String, Future<Void>> futures = new LinkedHashMap<String, Future<Void>>();
+			
+			for (Map.Entry<String, URL> entry : downloadURLs.entrySet()) {
+				String algorithm = entry.getKey();
+				
+				futures.put(algorithm, executor.submit(() -> {
+					stage(algorithm, entry.getValue(), stagingPath);
+					return null;
+				}));
+			}
 			
-			System.out.println("  > Downloading " + algorithm + " to " + localFile.getAbsolutePath());
-			FileUtils.copyURLToFile(downloadURL, localFile);
+			Map<String, Throwable> failures = new LinkedHashMap<String, Throwable>();
 			
-			File installPath = getInstallPath(algorithm);
-			System.out.println("  > Extracting " + localFile.getAbsolutePath() + " to " + installPath.getAbsolutePath());
-			extractFile(localFile, installPath);
+			for (Map.Entry<String, Future<Void>> entry : futures.entrySet()) {
+				try {
+					entry.getValue().get();
+				} catch (ExecutionException e) {
+					failures.put(entry.getKey(), e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("interrupted while installing PISA selectors", e);
+				}
+			}
 			
-			System.out.println("  > Executing post install steps (if any)");
-			postInstall(algorithm, installPath);
+			if (!failures.isEmpty()) {
+				throw summarize(failures, futures.size());
+			}
+			
+			try {
+				publish(downloadURLs.keySet(), stagingPath);
+			} catch (IOException | RuntimeException e) {
+				//if rolling back failed, the staging path holds the only copy of some replaced installations
+				keepStaging = e.getSuppressed().length > 0;
+				throw e;
+			}
 		} finally {
-			System.out.println("  > Removing downloaded file");
-			localFile.delete();
+			executor.shutdownNow();
+			
+			if (keepStaging) {
+				System.err.println("Unable to restore the previous PISA installations, which remain in " +
+						stagingPath.getAbsolutePath());
+			} else {
+				FileUtils.deleteQuietly(stagingPath);
+			}
 		}
 	}
 	
+	/**
+	 * Moves the staged selectors into place.  Replaced installations are first renamed into the staging path.  If any
+	 * move fails, the selectors already published are moved back into the staging path and the replaced
+	 * installations are restored, so either the whole batch is published or none of it.
+	 * 
+	 * @param algorithms the names of the staged selectors
+	 * @param stagingPath the staging directory shared by the batch
+	 * @throws IOException if a move failed, after rolling back; any failure to roll back is added as a suppressed
+	 *         exception
+	 */
+	private void publish(Collection<String> algorithms, File stagingPath) throws IOException {
+		List<String> replaced = new ArrayList<String>();
+		List<String> published = new ArrayList<String>();
+		
+		try {
+			for (String algorithm : algorithms) {
+				File installPath = getInstallPath(algorithm);
+				
+				if (installPath.exists()) {
+					move(installPath, new File(stagingPath, getCanonicalName(algorithm) + ".old"));
+					replaced.add(algorithm);
+				}
+				
+				move(new File(stagingPath, getCanonicalName(algorithm)), installPath);
+				published.add(algorithm);
+			}
+		} catch (IOException | RuntimeException e) {
+			for (String algorithm : published) {
+				try {
+					move(getInstallPath(algorithm), new File(stagingPath, getCanonicalName(algorithm)));
+				} catch (IOException | RuntimeException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+			}
+			
+			for (String algorithm : replaced) {
+				try {
+					move(new File(stagingPath, getCanonicalName(algorithm) + ".old"), getInstallPath(algorithm));
+				} catch (IOException | RuntimeException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+			}
+			
+			throw e;
+		}
+	}
+	
+	/**
+	 * Downloads and extracts a selector into the staging path, buffering the output so it is printed together.
+	 * 
+	 * @param algorithm the name of the selector
+	 * @param downloadURL the URL of the archive
+	 * @param stagingPath the staging directory shared by the batch
+	 * @throws IOException if an I/O error occurred
+	 */
+	private void stage(String algorithm, URL downloadURL, File stagingPath) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		File downloadPath = new File(stagingPath, getCanonicalName(algorithm) + ".download");
+		
+		try (PrintStream out = new PrintStream(buffer, true)) {
+			File localFile = new File(downloadPath, FilenameUtils.getName(downloadURL.getPath()));
+			
+			try {
+				out.println("Installing " + algorithm + "...");
+				
+				download(algorithm, downloadURL, localFile, out);
+				
+				File installPath = new File(stagingPath, getCanonicalName(algorithm));
+				out.println("  > Extracting " + localFile.getAbsolutePath() + " to " + installPath.getAbsolutePath());
+				extractFile(localFile, installPath, out);
+				
+				out.println("  > Executing post install steps (if any)");
+				postInstall(algorithm, installPath, out);
+				
+				Files.createFile(new File(installPath, INSTALLED_MARKER).toPath());
+			} catch (IOException | RuntimeException e) {
+				out.println("  > Failed: " + e.getMessage());
+				throw e;
+			} finally {
+				out.println("  > Removing downloaded file");
+				FileUtils.deleteQuietly(downloadPath);
+			}
+		} finally {
+			System.out.print(buffer.toString());
+			System.out.flush();
+		}
+	}
+	
+	/**
+	 * Renames the file or directory, atomically if supported by the file system.  This is package-private so tests
+	 * can simulate failures.
+	 * 
+	 * @param source the file or directory to rename
+	 * @param target the new name, which must not exist
+	 * @throws IOException if an I/O error occurred
+	 */
+	void move(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath());
+		}
+	}
+	
+	/**
+	 * Acquires the install lock, waiting for other threads and processes to finish installing.  Staging directories
+	 * left behind by installers that crashed while holding the lock are removed.
+	 * 
+	 * @return the install lock, which must be closed to release it
+	 * @throws IOException if an I/O error occurred
+	 */
+	private static InstallLock lock() throws IOException {
+		File installRoot = PISASettings.getPISAInstallPath();
+		FileUtils.forceMkdir(installRoot);
+		
+		if (!JVM_LOCK.tryLock()) {
+			System.out.println("Waiting for another thread to finish installing PISA selectors...");
+			JVM_LOCK.lock();
+		}
+		
+		FileChannel channel = null;
+		
+		try {
+			channel = FileChannel.open(new File(installRoot, LOCK_FILE).toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE);
+			
+			if (channel.tryLock() == null) {
+				System.out.println("Waiting for another process to finish installing PISA selectors...");
+				channel.lock();
+			}
+			
+			//staging directories holding replaced installations that failed to roll back are kept for recovery
+			File[] leftovers = installRoot.listFiles((dir, name) -> name.startsWith(".staging") &&
+					ArrayUtils.isEmpty(new File(dir, name).list((stagingDir, entry) -> entry.endsWith(".old"))));
+			
+			if (leftovers != null) {
+				for (File leftover : leftovers) {
+					FileUtils.deleteQuietly(leftover);
+				}
+			}
+			
+			return new InstallLock(channel);
+		} catch (IOException | RuntimeException e) {
+			if (channel != null) {
+				channel.close();
+			}
+			
+			JVM_LOCK.unlock();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Downloads the archive of a selector, from the mirror if configured, through the cache if configured, and
+	 * verifies its digest if registered.
+	 * 
+	 * @param algorithm the name of the selector
+	 * @param downloadURL the registered URL of the archive
+	 * @param localFile the file receiving the archive
+	 * @param out the stream receiving progress messages
+	 * @throws IOException if an I/O error occurred or the archive does not match its digest
+	 */
+	private void download(String algorithm, URL downloadURL, File localFile, PrintStream out) throws IOException {
+		URL sourceURL = getMirrorURL(downloadURL);
+		String digest = getDigest(algorithm);
+		File cachePath = PISASettings.getPISACachePath();
+		
+		if (cachePath != null) {
+			File cachedFile = new ArtifactCache(cachePath).fetch(downloadURL, sourceURL, digest, out);
+			FileUtils.copyFile(cachedFile, localFile);
+		} else {
+			out.println("  > Downloading " + sourceURL + " to " + localFile.getAbsolutePath());
+			ArtifactCache.verify(sourceURL, digest, ArtifactCache.download(sourceURL, localFile));
+		}
+	}
+	
+	/**
+	 * Returns the URL of the archive in the mirror, {@link PISASettings#getPISAMirror()}, which has the same file
+	 * name as the registered URL.  If no mirror is configured, returns the registered URL.
+	 * 
+	 * @param downloadURL the registered URL of the archive
+	 * @return the URL to download the archive from
+	 * @throws IOException if the mirror is not a valid URL
+	 */
+	protected URL getMirrorURL(URL downloadURL) throws IOException {
+		String mirror = PISASettings.getPISAMirror();
+		
+		if (mirror == null || mirror.isBlank()) {
+			return downloadURL;
+		}
+		
+		String name = FilenameUtils.getName(downloadURL.getPath());
+		
+		//a scheme has at least two characters, which distinguishes it from a Windows drive letter
+		if (mirror.matches("[a-zA-Z][a-zA-Z0-9+.-]+:.*")) {
+			try {
+				return URI.create(mirror.endsWith("/") ? mirror : mirror + "/").resolve(name).toURL();
+			} catch (IllegalArgumentException e) {
+				throw new IOException("invalid mirror URL '" + mirror + "'", e);
+			}
+		} else {
+			return new File(mirror, name).toURI().toURL();
+		}
+	}
+	
+	/**
+	 * Returns the registered SHA-256 digest of the selector's archive.
+	 * 
+	 * @param algorithm the name of the selector
+	 * @return the SHA-256 digest, in lowercase hexadecimal, or {@code null} if not registered
+	 */
+	protected String getDigest(String algorithm) {
+		return digests.get(getCanonicalName(algorithm));
+	}
+	
+	/**
+	 * Creates the exception summarizing the failures of a batch.
+	 * 
+	 * @param failures the failure of each selector that did not install
+	 * @param total the number of selectors in the batch
+	 * @return the exception summarizing the failures
+	 */
+	private static IOException summarize(Map<String, Throwable> failures, int total) {
+		StringBuilder message = new StringBuilder();
+		message.append("failed to install ").append(failures.size()).append(" of ").append(total);
+		message.append(" PISA selectors, no selectors were installed:");
+		
+		for (Map.Entry<String, Throwable> failure : failures.entrySet()) {
+			message.append(System.lineSeparator()).append("  ").append(failure.getKey()).append(": ");
+			message.append(failure.getValue());
+		}
+		
+		IOException exception = new IOException(message.toString());
+		
+		for (Throwable failure : failures.values()) {
+			exception.addSuppressed(failure);
+		}
+		
+		return exception;
+	}
+	
+	/**
+	 * Performs any additional steps after extracting the selector, such as compiling it.
+	 * 
+	 * @param algorithm the name of the selector
+	 * @param installPath the directory where the selector was extracted, which is moved into place afterwards
+	 * @param out the stream receiving the output of this selector's installation
+	 * @throws IOException if an I/O error occurred
+	 */
+	protected void postInstall(String algorithm, File installPath, PrintStream out) throws IOException {
+		postInstall(algorithm, installPath);
+	}
+	
+	/**
+	 * Performs any additional steps after extracting the selector, such as compiling it.  Called by
+	 * {@link #postInstall(String, File, PrintStream)} unless that is overridden.
+	 * 
+	 * @param algorithm the name of the selector
+	 * @param installPath the directory where the selector was extracted, which is moved into place afterwards
+	 * @throws IOException if an I/O error occurred
+	 * @deprecated override {@link #postInstall(String, File, PrintStream)} instead, whose output is buffered with the
+	 *             rest of the selector's installation
+	 */
+	@Deprecated
 	protected void postInstall(String algorithm, File installPath) throws IOException {
 		// intentionally left blank
 	}
@@ -91,11 +589,9 @@ public abstract class AbstractPISAInstaller implements PISAInstaller {
 	
 	@Override
 	public void installAll() throws IOException {
-		for (String algorithm : files.keySet()) {
-			install(algorithm);
-		}
+		install(files.keySet());
 	}
-	
+
 	@Override
 	public String getCommand(String algorithm) {
 		File executableFile = new File(getInstallPath(algorithm), getCanonicalName(algorithm) + ".jar");
@@ -125,13 +621,76 @@ public abstract class AbstractPISAInstaller implements PISAInstaller {
 		return files.get(getCanonicalName(algorithm));
 	}
 	
+	/**
+	 * Extracts the archive into the destination, flattening a single top-level folder.  Zip and tar archives are
+	 * extracted in-process by {@link ArchiveExtractor}; other formats, such as rar, fall back to the external tool
+	 * returned by {@link #buildExtractCommand(File, File)}.
+	 * 
+	 * @param zipFile the archive
+	 * @param destinationPath the destination directory
+	 * @param out the stream receiving the output of external tools
+	 * @throws IOException if an I/O error occurred or the archive could not be extracted
+	 */
+	protected void extractFile(File zipFile, File destinationPath, PrintStream out) throws IOException {
+		if (overrides("extractFile", File.class, File.class)) {
+			extractFile(zipFile, destinationPath);
+		} else {
+			extract(zipFile, destinationPath, out);
+		}
+	}
+	
+	/**
+	 * Extracts the archive into the destination, flattening a single top-level folder.  If overridden, this is called
+	 * by {@link #extractFile(File, File, PrintStream)} instead of its default extraction.
+	 * 
+	 * @param zipFile the archive
+	 * @param destinationPath the destination directory
+	 * @throws IOException if an I/O error occurred or the archive could not be extracted
+	 * @deprecated override {@link #extractFile(File, File, PrintStream)} instead, whose output is buffered with the
+	 *             rest of the selector's installation
+	 */
+	@Deprecated
 	protected void extractFile(File zipFile, File destinationPath) throws IOException {
+		extract(zipFile, destinationPath, System.out);
+	}
+	
+	/**
+	 * Returns {@code true} if a subclass declares the method, used to keep calling deprecated hooks that subclasses
+	 * still override.
+	 * 
+	 * @param name the name of the method
+	 * @param parameterTypes the parameter types of the method
+	 * @return {@code true} if a subclass declares the method; {@code false} otherwise
+	 */
+	private boolean overrides(String name, Class<?>... parameterTypes) {
+		for (Class<?> type = getClass(); type != AbstractPISAInstaller.class; type = type.getSuperclass()) {
+			try {
+				type.getDeclaredMethod(name, parameterTypes);
+				return true;
+			} catch (NoSuchMethodException e) {
+				continue;
+			}
+		}
+		
+		return false;
+	}
+	
+	private void extract(File zipFile, File destinationPath, PrintStream out) throws IOException {
+		if (ArchiveExtractor.isSupported(zipFile)) {
+			ArchiveExtractor.extract(zipFile, destinationPath);
+			return;
+		}
+		
 		FileUtils.forceMkdir(destinationPath);
 		
 		try {
-			Process process = new ProcessBuilder(buildExtractCommand(zipFile, destinationPath)).start();
-			RedirectStream.redirect(process.getInputStream(), System.out);
-			RedirectStream.redirect(process.getErrorStream(), System.err);
+			Process process = new ProcessBuilder(buildExtractCommand(zipFile, destinationPath))
+					.redirectErrorStream(true)
+					.start();
+			
+			try (InputStream output = process.getInputStream()) {
+				output.transferTo(out);
+			}
 			
 			if (process.waitFor() != 0) {
 				throw new FrameworkException("Extraction exited with an error code (" + process.exitValue() + ")");
@@ -201,5 +760,28 @@ public abstract class AbstractPISAInstaller implements PISAInstaller {
 			nestedFolder.delete();
 		}
 	}
+	
+	/**
+	 * The install lock, held by this JVM through the file lock and by the current thread through {@link #JVM_LOCK}.
+	 */
+	private static final class InstallLock implements Closeable {
+		
+		private final FileChannel channel;
+		
+		InstallLock(FileChannel channel) {
+			super();
+			this.channel = channel;
+		}
+		
+		@Override
+		public void close() throws IOException {
+			try {
+				channel.close();
+			} finally {
+				JVM_LOCK.unlock();
+			}
+		}
+		
+	}
 
 }
@@ -0,0 +1,669 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa.installer;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Enumeration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Extracts zip, tar and gzip-compressed tar archives without spawning external tools.  Entries are streamed directly
+ * to disk and their Unix permissions, including the executable bit, are restored where the file system supports them.
+ * <p>
+ * Archives wrapping all of their contents in a single top-level folder are flattened while extracting, so the contents
+ * of that folder are written directly to the destination.  Entries that would be written outside the destination are
+ * rejected, as are entries written through a symbolic link extracted earlier and links whose target would only stay
+ * inside the destination if read as text, since either could be chained to reach outside the destination.  Links with
+ * absolute targets are also rejected.
+ */
+public class ArchiveExtractor {
+	
+	private static final int BLOCK_SIZE = 512;
+	
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	private static final PosixFilePermission[] PERMISSIONS = PosixFilePermission.values();
+	
+	private ArchiveExtractor() {
+		super();
+	}
+	
+	/**
+	 * Returns {@code true} if the archive's format, determined by its file extension, can be extracted in-process.
+	 * 
+	 * @param archive the archive
+	 * @return {@code true} if the archive can be extracted in-process; {@code false} otherwise
+	 */
+	public static boolean isSupported(File archive) {
+		String name = archive.getName().toLowerCase(Locale.ROOT);
+		return name.endsWith(".zip") || name.endsWith(".tar") || name.endsWith(".gz") || name.endsWith(".tgz");
+	}
+	
+	/**
+	 * Extracts the archive into the destination, flattening a single top-level folder.
+	 * 
+	 * @param archive the archive
+	 * @param destination the destination directory, which is created if it does not exist
+	 * @throws IOException if an I/O error occurred, the archive is malformed or not supported
+	 */
+	public static void extract(File archive, File destination) throws IOException {
+		String name = archive.getName().toLowerCase(Locale.ROOT);
+		Files.createDirectories(destination.toPath());
+		
+		Extraction extraction = new Extraction(destination.toPath());
+		
+		if (name.endsWith(".zip")) {
+			extractZip(archive, extraction);
+		} else if (name.endsWith(".tar")) {
+			try (InputStream in = new BufferedInputStream(Files.newInputStream(archive.toPath()), BUFFER_SIZE)) {
+				extractTar(in, extraction);
+			}
+		} else if (name.endsWith(".gz") || name.endsWith(".tgz")) {
+			try (InputStream in = new GZIPInputStream(Files.newInputStream(archive.toPath()), BUFFER_SIZE)) {
+				extractTar(in, extraction);
+			}
+		} else {
+			throw new IOException("unsupported archive " + archive);
+		}
+		
+		extraction.finish();
+	}
+	
+	private static void extractZip(File archive, Extraction extraction) throws IOException {
+		Map<String, Integer> modes = readZipModes(archive.toPath());
+		
+		try (ZipFile zipFile = new ZipFile(archive, StandardCharsets.UTF_8)) {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				int mode = modes.getOrDefault(entry.getName(), 0);
+				
+				if (entry.isDirectory()) {
+					extraction.directory(entry.getName(), mode);
+				} else if ((mode & 0170000) == 0120000) {
+					try (InputStream in = zipFile.getInputStream(entry)) {
+						extraction.symbolicLink(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+					}
+				} else {
+					try (InputStream in = zipFile.getInputStream(entry)) {
+						extraction.file(entry.getName(), mode, in, -1);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Reads the Unix modes of the entries from the zip central directory, which {@link ZipFile} does not expose.
+	 * Entries created on other platforms, and archives using extensions not handled here such as Zip64, have no mode.
+	 * 
+	 * @param path the zip archive
+	 * @return the modes of the entries created on Unix, keyed by entry name
+	 * @throws IOException if an I/O error occurred or the central directory is malformed
+	 */
+	private static Map<String, Integer> readZipModes(Path path) throws IOException {
+		Map<String, Integer> modes = new HashMap<String, Integer>();
+		
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			int tailLength = (int)Math.min(size, 22 + 0xFFFF);
+			ByteBuffer tail = read(channel, size - tailLength, tailLength);
+			int end = -1;
+			
+			for (int i = tailLength - 22; i >= 0; i--) {
+				if (tail.getInt(i) == 0x06054b50) {
+					end = i;
+					break;
+				}
+			}
+			
+			if (end < 0) {
+				return modes;
+			}
+			
+			long directorySize = Integer.toUnsignedLong(tail.getInt(end + 12));
+			long directoryOffset = Integer.toUnsignedLong(tail.getInt(end + 16));
+			
+			if (directoryOffset + directorySize > size) {
+				return modes;
+			}
+			
+			ByteBuffer directory = read(channel, directoryOffset, (int)directorySize);
+			int position = 0;
+			
+			while (position + 46 <= directory.limit() && directory.getInt(position) == 0x02014b50) {
+				int host = (directory.getShort(position + 4) >> 8) & 0xFF;
+				int nameLength = Short.toUnsignedInt(directory.getShort(position + 28));
+				int extraLength = Short.toUnsignedInt(directory.getShort(position + 30));
+				int commentLength = Short.toUnsignedInt(directory.getShort(position + 32));
+				int attributes = directory.getInt(position + 38);
+				
+				if (position + 46 + nameLength + extraLength + commentLength > directory.limit()) {
+					throw new IOException("invalid zip central directory");
+				}
+				
+				if (host == 3 && (attributes >>> 16) != 0) {
+					byte[] name = new byte[nameLength];
+					directory.get(position + 46, name);
+					modes.put(new String(name, StandardCharsets.UTF_8), attributes >>> 16);
+				}
+				
+				position += 46 + nameLength + extraLength + commentLength;
+			}
+		}
+		
+		return modes;
+	}
+	
+	private static ByteBuffer read(FileChannel channel, long offset, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, offset + buffer.position()) < 0) {
+				throw new EOFException();
+			}
+		}
+		
+		return buffer.flip();
+	}
+	
+	/**
+	 * Extracts a tar stream in the ustar, GNU or POSIX (pax) formats.  Regular files, directories and links are
+	 * extracted; other entry types, such as devices, are skipped.
+	 * 
+	 * @param in the uncompressed tar stream
+	 * @param extraction the extraction receiving the entries
+	 * @throws IOException if an I/O error occurred or the archive is malformed
+	 */
+	private static void extractTar(InputStream in, Extraction extraction) throws IOException {
+		byte[] header = new byte[BLOCK_SIZE];
+		String longName = null;
+		String longLinkName = null;
+		
+		while (readBlock(in, header)) {
+			if (isZero(header)) {
+				break;
+			}
+			
+			String name = parseString(header, 0, 100);
+			int mode = (int)parseNumber(header, 100, 8);
+			long size = parseNumber(header, 124, 12);
+			char type = (char)header[156];
+			String linkName = parseString(header, 157, 100);
+			
+			if (parseString(header, 257, 5).equals("ustar")) {
+				String prefix = parseString(header, 345, 155);
+				
+				if (!prefix.isEmpty()) {
+					name = prefix + "/" + name;
+				}
+			}
+			
+			if (type == 'L' || type == 'K') {
+				String value = parseString(readData(in, size), 0, (int)size);
+				
+				if (type == 'L') {
+					longName = value;
+				} else {
+					longLinkName = value;
+				}
+				
+				continue;
+			} else if (type == 'x') {
+				Map<String, String> headers = parsePaxHeaders(readData(in, size));
+				longName = headers.getOrDefault("path", longName);
+				longLinkName = headers.getOrDefault("linkpath", longLinkName);
+				continue;
+			}
+			
+			if (longName != null) {
+				name = longName;
+				longName = null;
+			}
+			
+			if (longLinkName != null) {
+				linkName = longLinkName;
+				longLinkName = null;
+			}
+			
+			switch (type) {
+				case '0', '\0', '7' -> {
+					if (name.endsWith("/")) {
+						extraction.directory(name, mode);
+					} else {
+						extraction.file(name, mode, in, size);
+					}
+				}
+				case '5' -> extraction.directory(name, mode);
+				case '1' -> extraction.hardLink(name, linkName);
+				case '2' -> extraction.symbolicLink(name, linkName);
+				default -> in.skipNBytes(size);
+			}
+			
+			skipPadding(in, size);
+		}
+	}
+	
+	private static boolean readBlock(InputStream in, byte[] block) throws IOException {
+		int count = in.readNBytes(block, 0, BLOCK_SIZE);
+		
+		if (count == 0) {
+			return false;
+		} else if (count < BLOCK_SIZE) {
+			throw new EOFException("truncated tar header");
+		}
+		
+		return true;
+	}
+	
+	private static boolean isZero(byte[] block) {
+		for (byte b : block) {
+			if (b != 0) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private static byte[] readData(InputStream in, long size) throws IOException {
+		if (size > Integer.MAX_VALUE - BLOCK_SIZE) {
+			throw new IOException("tar extended header too large");
+		}
+		
+		byte[] data = in.readNBytes((int)size);
+		
+		if (data.length < size) {
+			throw new EOFException("truncated tar entry");
+		}
+		
+		skipPadding(in, size);
+		return data;
+	}
+	
+	private static void skipPadding(InputStream in, long size) throws IOException {
+		long remainder = size % BLOCK_SIZE;
+		
+		if (remainder != 0) {
+			in.skipNBytes(BLOCK_SIZE - remainder);
+		}
+	}
+	
+	private static String parseString(byte[] buffer, int offset, int length) {
+		int end = offset;
+		
+		while (end < offset + length && buffer[end] != 0) {
+			end++;
+		}
+		
+		return new String(buffer, offset, end - offset, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Parses a numeric header field, which is either octal text or, for values too large for octal, a big-endian
+	 * base-256 number flagged by the high bit of the first byte.
+	 */
+	private static long parseNumber(byte[] buffer, int offset, int length) throws IOException {
+		long value = 0;
+		
+		if ((buffer[offset] & 0x80) != 0) {
+			value = buffer[offset] & 0x7F;
+			
+			for (int i = offset + 1; i < offset + length; i++) {
+				value = (value << 8) | (buffer[i] & 0xFF);
+			}
+			
+			return value;
+		}
+		
+		for (int i = offset; i < offset + length; i++) {
+			byte b = buffer[i];
+			
+			if (b == 0 || (b == ' ' && value > 0)) {
+				break;
+			} else if (b == ' ') {
+				continue;
+			} else if (b < '0' || b > '7') {
+				throw new IOException("invalid tar header, expected octal number");
+			}
+			
+			value = (value << 3) | (b - '0');
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Parses pax extended header records, each formatted as {@code "<length> <key>=<value>\n"}.
+	 */
+	private static Map<String, String> parsePaxHeaders(byte[] data) throws IOException {
+		Map<String, String> headers = new LinkedHashMap<String, String>();
+		int position = 0;
+		
+		while (position < data.length && data[position] != 0) {
+			int space = position;
+			
+			while (space < data.length && data[space] != ' ') {
+				space++;
+			}
+			
+			int length;
+			
+			try {
+				length = Integer.parseInt(new String(data, position, space - position, StandardCharsets.US_ASCII));
+			} catch (NumberFormatException e) {
+				throw new IOException("invalid pax header", e);
+			}
+			
+			if (length <= space - position || position + length > data.length) {
+				throw new IOException("invalid pax header");
+			}
+			
+			String record = new String(data, space + 1, position + length - space - 2, StandardCharsets.UTF_8);
+			int equals = record.indexOf('=');
+			
+			if (equals > 0) {
+				headers.put(record.substring(0, equals), record.substring(equals + 1));
+			}
+			
+			position += length;
+		}
+		
+		return headers;
+	}
+	
+	private static void setMode(Path path, int mode) throws IOException {
+		if ((mode & 0777) == 0) {
+			return;
+		}
+		
+		PosixFileAttributeView view = Files.getFileAttributeView(path, PosixFileAttributeView.class,
+				LinkOption.NOFOLLOW_LINKS);
+		
+		if (view != null) {
+			Set<PosixFilePermission> permissions = EnumSet.noneOf(PosixFilePermission.class);
+			
+			for (int i = 0; i < PERMISSIONS.length; i++) {
+				if ((mode & (0400 >> i)) != 0) {
+					permissions.add(PERMISSIONS[i]);
+				}
+			}
+			
+			view.setPermissions(permissions);
+		} else if ((mode & 0111) != 0) {
+			path.toFile().setExecutable(true);
+		}
+	}
+	
+	/**
+	 * Writes the entries of an archive to the destination, flattening a single top-level folder.  The first entry
+	 * nested in a folder starts flattening; an entry outside that folder undoes it by moving everything extracted so
+	 * far back into the folder.
+	 */
+	private static class Extraction {
+		
+		private final Path destination;
+		
+		private final Map<String, Integer> directoryModes = new LinkedHashMap<String, Integer>();
+		
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+		
+		/**
+		 * The single top-level folder being flattened, or {@code null} if not flattening.
+		 */
+		private String folder;
+		
+		/**
+		 * {@code true} once the first entry decided whether the archive is flattened.
+		 */
+		private boolean decided;
+		
+		public Extraction(Path destination) {
+			super();
+			this.destination = destination.toAbsolutePath().normalize();
+		}
+		
+		public void directory(String name, int mode) throws IOException {
+			Path path = resolve(name, true);
+			
+			if (path != null) {
+				if (Files.isSymbolicLink(path)) {
+					throw new IOException("archive entry '" + name + "' is written through a symbolic link");
+				}
+				
+				Files.createDirectories(path);
+				directoryModes.put(normalize(name), mode);
+			}
+		}
+		
+		public void file(String name, int mode, InputStream in, long size) throws IOException {
+			Path path = resolve(name, false);
+			
+			if (path == null) {
+				throw new IOException("invalid archive entry '" + name + "'");
+			}
+			
+			Files.createDirectories(path.getParent());
+			Files.deleteIfExists(path);
+			
+			try (OutputStream out = Files.newOutputStream(path)) {
+				if (size < 0) {
+					in.transferTo(out);
+				} else {
+					long remaining = size;
+					
+					while (remaining > 0) {
+						int count = in.read(buffer, 0, (int)Math.min(buffer.length, remaining));
+						
+						if (count < 0) {
+							throw new EOFException("truncated archive entry '" + name + "'");
+						}
+						
+						out.write(buffer, 0, count);
+						remaining -= count;
+					}
+				}
+			}
+			
+			setMode(path, mode);
+		}
+		
+		public void hardLink(String name, String target) throws IOException {
+			Path path = resolve(name, false);
+			Path targetPath = resolve(target, false);
+			
+			if (path == null || targetPath == null || !Files.isRegularFile(targetPath, LinkOption.NOFOLLOW_LINKS)) {
+				throw new IOException("invalid link '" + name + "' to '" + target + "'");
+			}
+			
+			Files.createDirectories(path.getParent());
+			Files.copy(targetPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+		}
+		
+		public void symbolicLink(String name, String target) throws IOException {
+			Path path = resolve(name, false);
+			
+			if (path == null || !isContained(path.getParent(), target)) {
+				throw new IOException("invalid link '" + name + "' to '" + target + "'");
+			}
+			
+			Files.createDirectories(path.getParent());
+			Files.deleteIfExists(path);
+			Files.createSymbolicLink(path, path.getFileSystem().getPath(target));
+		}
+		
+		/**
+		 * Returns {@code true} if the link target stays inside the destination.  Since earlier links may point
+		 * anywhere in the destination, following one and then climbing with {@code ..} can leave the destination even
+		 * when the normalized text does not.  {@code ..} is therefore only allowed before any other element of a
+		 * relative target, where it climbs the link's own parents, which {@link #resolve} ensures are not links.
+		 * Absolute targets are rejected, as the destination is typically a staging directory that is later moved.
+		 * 
+		 * @param parent the directory containing the link
+		 * @param target the target of the link
+		 * @return {@code true} if the link target stays inside the destination; {@code false} otherwise
+		 */
+		private boolean isContained(Path parent, String target) {
+			Path targetPath = parent.getFileSystem().getPath(target);
+			boolean climbing = true;
+			
+			if (targetPath.getRoot() != null) {
+				return false;
+			}
+			
+			for (Path element : targetPath) {
+				if (!element.toString().equals("..")) {
+					climbing = false;
+				} else if (!climbing) {
+					return false;
+				}
+			}
+			
+			return parent.resolve(targetPath).normalize().startsWith(destination);
+		}
+		
+		/**
+		 * Applies the directory modes last, so read-only directories do not prevent extracting their contents.
+		 */
+		public void finish() throws IOException {
+			for (Map.Entry<String, Integer> entry : directoryModes.entrySet()) {
+				Path path = resolve(entry.getKey(), true);
+				
+				if (path != null) {
+					setMode(path, entry.getValue());
+				}
+			}
+		}
+		
+		private static String normalize(String name) {
+			String result = name.replace('\\', '/');
+			
+			while (result.startsWith("./") || result.startsWith("/")) {
+				result = result.substring(result.startsWith("/") ? 1 : 2);
+			}
+			
+			while (result.endsWith("/")) {
+				result = result.substring(0, result.length() - 1);
+			}
+			
+			return result.equals(".") ? "" : result;
+		}
+		
+		/**
+		 * Returns the path of an entry after flattening, or {@code null} if the entry is the destination itself.
+		 * 
+		 * @param name the name of the entry
+		 * @param isDirectory {@code true} if the entry is a directory
+		 * @return the path of the entry, or {@code null} if the entry is the destination itself
+		 * @throws IOException if the entry is outside the destination or any of its parents is a symbolic link
+		 */
+		private Path resolve(String name, boolean isDirectory) throws IOException {
+			String normalized = normalize(name);
+			
+			if (normalized.isEmpty()) {
+				return null;
+			}
+			
+			int separator = normalized.indexOf('/');
+			String top = separator < 0 ? normalized : normalized.substring(0, separator);
+			String rest = separator < 0 ? "" : normalized.substring(separator + 1);
+			
+			if (!decided) {
+				decided = true;
+				
+				if ((separator >= 0 || isDirectory) && !top.equals("..")) {
+					folder = top;
+				}
+			} else if (folder != null && !top.equals(folder)) {
+				unflatten();
+			}
+			
+			String relative = folder != null ? rest : normalized;
+			
+			if (relative.isEmpty()) {
+				return null;
+			}
+			
+			Path path = destination.resolve(relative).normalize();
+			
+			if (!path.startsWith(destination) || path.equals(destination)) {
+				throw new IOException("archive entry '" + name + "' is outside the destination");
+			}
+			
+			//a link extracted earlier could redirect the entry anywhere, so never write through one
+			for (Path parent = path.getParent(); !parent.equals(destination); parent = parent.getParent()) {
+				if (Files.isSymbolicLink(parent)) {
+					throw new IOException("archive entry '" + name + "' is written through a symbolic link");
+				}
+			}
+			
+			return path;
+		}
+		
+		/**
+		 * Moves everything extracted so far back into the top-level folder, used when a later entry shows the
+		 * archive does not consist of a single folder.
+		 */
+		private void unflatten() throws IOException {
+			List<Path> children;
+			
+			try (Stream<Path> stream = Files.list(destination)) {
+				children = stream.collect(Collectors.toList());
+			}
+			
+			Path temporary = Files.createTempDirectory(destination, ".nested");
+			
+			for (Path child : children) {
+				Files.move(child, temporary.resolve(child.getFileName()));
+			}
+			
+			Files.move(temporary, destination.resolve(folder));
+			folder = null;
+		}
+		
+	}
+
+}
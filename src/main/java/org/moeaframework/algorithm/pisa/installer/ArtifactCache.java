@@ -0,0 +1,238 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa.installer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * A content-addressed cache of downloaded archives, which may be shared by several installations or machines.  Each
+ * archive is stored under its SHA-256 digest, so an archive with a known digest is found without consulting the
+ * network.  Archives without a known digest are found through an index from their URL to the digest of the content
+ * last downloaded from it.  Every archive is verified against its digest when read from the cache, and a corrupt
+ * archive is downloaded again.
+ * <p>
+ * Files are written to a temporary file and moved into place, so concurrent installers sharing the cache never see
+ * a partially written archive.  A cache pre-seeded with the archives allows installing selectors without network
+ * access.
+ */
+public class ArtifactCache {
+	
+	/**
+	 * The root directory of the cache.
+	 */
+	private final File directory;
+	
+	/**
+	 * Constructs a cache in the given directory, which is created as needed.
+	 * 
+	 * @param directory the root directory of the cache
+	 */
+	public ArtifactCache(File directory) {
+		super();
+		this.directory = directory;
+	}
+	
+	/**
+	 * Returns the file storing the archive with the given digest, which may not exist.
+	 * 
+	 * @param digest the SHA-256 digest of the archive, in hexadecimal
+	 * @return the file storing the archive with the given digest
+	 */
+	public File getFile(String digest) {
+		String normalized = digest.toLowerCase(Locale.ROOT);
+		return new File(new File(new File(directory, "sha256"), normalized.substring(0, 2)), normalized);
+	}
+	
+	/**
+	 * Returns the archive downloaded from the given URL, downloading it only if it is not already cached.
+	 * 
+	 * @param url the URL identifying the archive, which is also the index key for archives without a known digest
+	 * @param source the URL to download from if not cached, which may be a mirror of {@code url}
+	 * @param expectedDigest the expected SHA-256 digest of the archive, in hexadecimal, or {@code null} if unknown
+	 * @param out the stream receiving progress messages
+	 * @return the cached archive
+	 * @throws IOException if an I/O error occurred or the download does not match the expected digest
+	 */
+	public File fetch(URL url, URL source, String expectedDigest, PrintStream out) throws IOException {
+		String digest = expectedDigest != null ? expectedDigest.toLowerCase(Locale.ROOT) : readIndex(url);
+		
+		if (digest != null) {
+			File file = getFile(digest);
+			
+			if (file.isFile()) {
+				if (digest.equals(digest(file))) {
+					out.println("  > Found " + url + " in cache " + file.getAbsolutePath());
+					return file;
+				}
+				
+				out.println("  > Removing corrupt cache entry " + file.getAbsolutePath());
+				Files.deleteIfExists(file.toPath());
+			}
+		}
+		
+		FileUtils.forceMkdir(directory);
+		File temporaryFile = File.createTempFile("download", ".tmp", directory);
+		
+		try {
+			out.println("  > Downloading " + source + " to cache " + directory.getAbsolutePath());
+			String actualDigest = download(source, temporaryFile);
+			
+			verify(source, expectedDigest, actualDigest);
+			
+			File file = getFile(actualDigest);
+			FileUtils.forceMkdir(file.getParentFile());
+			move(temporaryFile.toPath(), file.toPath());
+			writeIndex(url, actualDigest);
+			return file;
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+	}
+	
+	/**
+	 * Downloads the URL to the given file, returning the SHA-256 digest of its contents.
+	 * 
+	 * @param url the URL to download
+	 * @param file the destination file, which is replaced
+	 * @return the SHA-256 digest of the contents, in hexadecimal
+	 * @throws IOException if an I/O error occurred
+	 */
+	public static String download(URL url, File file) throws IOException {
+		MessageDigest messageDigest = createMessageDigest();
+		
+		FileUtils.forceMkdirParent(file);
+		
+		try (InputStream in = new DigestInputStream(url.openStream(), messageDigest);
+				OutputStream output = Files.newOutputStream(file.toPath())) {
+			in.transferTo(output);
+		}
+		
+		return HexFormat.of().formatHex(messageDigest.digest());
+	}
+	
+	/**
+	 * Computes the SHA-256 digest of the file.
+	 * 
+	 * @param file the file
+	 * @return the SHA-256 digest of the file, in hexadecimal
+	 * @throws IOException if an I/O error occurred
+	 */
+	public static String digest(File file) throws IOException {
+		MessageDigest messageDigest = createMessageDigest();
+		
+		try (InputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), messageDigest)) {
+			in.transferTo(OutputStream.nullOutputStream());
+		}
+		
+		return HexFormat.of().formatHex(messageDigest.digest());
+	}
+	
+	/**
+	 * Checks that the digest of a download matches the expected digest.
+	 * 
+	 * @param url the URL that was downloaded
+	 * @param expectedDigest the expected digest, or {@code null} if unknown
+	 * @param actualDigest the digest of the download
+	 * @throws IOException if the digests differ
+	 */
+	static void verify(URL url, String expectedDigest, String actualDigest) throws IOException {
+		if (expectedDigest != null && !expectedDigest.equalsIgnoreCase(actualDigest)) {
+			throw new IOException("SHA-256 digest of " + url + " does not match, expected " +
+					expectedDigest.toLowerCase(Locale.ROOT) + " but was " + actualDigest);
+		}
+	}
+	
+	private static MessageDigest createMessageDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			//every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Returns the file in the index for the given URL, named by the digest of the URL itself.
+	 * 
+	 * @param url the URL
+	 * @return the index file for the URL
+	 */
+	private File getIndexFile(URL url) {
+		MessageDigest messageDigest = createMessageDigest();
+		byte[] hash = messageDigest.digest(url.toString().getBytes(StandardCharsets.UTF_8));
+		return new File(new File(directory, "urls"), HexFormat.of().formatHex(hash));
+	}
+	
+	private String readIndex(URL url) throws IOException {
+		File file = getIndexFile(url);
+		
+		if (!file.isFile()) {
+			return null;
+		}
+		
+		String digest = Files.readString(file.toPath(), StandardCharsets.US_ASCII).trim();
+		return digest.matches("[0-9a-f]{64}") ? digest : null;
+	}
+	
+	private void writeIndex(URL url, String digest) throws IOException {
+		File file = getIndexFile(url);
+		FileUtils.forceMkdir(file.getParentFile());
+		
+		File temporaryFile = File.createTempFile("index", ".tmp", file.getParentFile());
+		
+		try {
+			Files.writeString(temporaryFile.toPath(), digest, StandardCharsets.US_ASCII);
+			move(temporaryFile.toPath(), file.toPath());
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+	}
+	
+	/**
+	 * Moves the file into place, atomically if supported by the file system.
+	 * 
+	 * @param source the file to move
+	 * @param target the destination, which is replaced if it exists
+	 * @throws IOException if an I/O error occurred
+	 */
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+}
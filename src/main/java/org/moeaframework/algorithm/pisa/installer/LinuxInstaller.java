@@ -19,6 +19,7 @@ package org.moeaframework.algorithm.pisa.installer;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
 
 import org.apache.commons.lang3.SystemUtils;
 
@@ -50,11 +51,11 @@ public class LinuxInstaller extends AbstractPISAInstaller {
 	}
 	
 	@Override
-	public void postInstall(String algorithm, File installPath) throws IOException {
-		File executableFile = new File(getInstallPath(algorithm), getCanonicalName(algorithm));
+	public void postInstall(String algorithm, File installPath, PrintStream out) throws IOException {
+		File executableFile = new File(installPath, getCanonicalName(algorithm));
 		
 		if (executableFile.exists() && !executableFile.canExecute()) {
-			System.out.println("Setting executable flag on " + executableFile);
+			out.println("Setting executable flag on " + executableFile);
 			executableFile.setExecutable(true);
 		}
 	}
@@ -50,6 +50,12 @@ public interface PISAInstaller {
 		return getInstallPath(algorithm).exists();
 	}
 	
+	public default void ensureInstalled(String algorithm) throws IOException {
+		if (!isInstalled(algorithm)) {
+			install(algorithm);
+		}
+	}
+	
 	// The order of parameters matters!
 	public default Map<String, String> getDefaultParameters(String algorithm) throws FileNotFoundException, IOException {
 		File defaultParameterFile = getDefaultParameterFile(algorithm);
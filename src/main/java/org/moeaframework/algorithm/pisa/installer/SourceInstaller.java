@@ -19,7 +19,8 @@ package org.moeaframework.algorithm.pisa.installer;
 
 import java.io.File;
 import java.io.IOException;
-import org.moeaframework.util.io.RedirectStream;
+import java.io.InputStream;
+import java.io.PrintStream;
 
 /**
  * Downloads, compiles, and configures the PISA selector from source code.  This is experimental and may not work on
@@ -53,13 +54,15 @@ public class SourceInstaller extends AbstractPISAInstaller {
 	}
 
 	@Override
-	public void postInstall(String algorithm, File installPath) throws IOException {
-		System.out.println("Running make");
+	public void postInstall(String algorithm, File installPath, PrintStream out) throws IOException {
+		out.println("Running make");
 		
 		try {
-			Process process = new ProcessBuilder("make").directory(installPath).start();
-			RedirectStream.redirect(process.getInputStream(), System.out);
-			RedirectStream.redirect(process.getErrorStream(), System.err);
+			Process process = new ProcessBuilder("make").directory(installPath).redirectErrorStream(true).start();
+			
+			try (InputStream output = process.getInputStream()) {
+				output.transferTo(out);
+			}
 			
 			if (process.waitFor() != 0) {
 				throw new IOException("make exited with an error code (" + process.exitValue() + ")");
@@ -0,0 +1,114 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChannelStateTest {
+	
+	private File directory;
+	
+	private File file;
+	
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("pisa").toFile();
+		file = new File(directory, "sta");
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		FileUtils.deleteDirectory(directory);
+	}
+	
+	@Test
+	public void testWrite() throws IOException, InterruptedException {
+		try (ChannelState state = new ChannelState(file)) {
+			state.set(10);
+			Assert.assertEquals("10", Files.readString(file.toPath(), StandardCharsets.US_ASCII));
+			
+			state.set(3);
+			Assert.assertEquals("3", Files.readString(file.toPath(), StandardCharsets.US_ASCII));
+			
+			state.set(-1);
+			Assert.assertEquals("-1", Files.readString(file.toPath(), StandardCharsets.US_ASCII));
+			
+			state.set(Integer.MIN_VALUE);
+			Assert.assertEquals(Integer.toString(Integer.MIN_VALUE),
+					Files.readString(file.toPath(), StandardCharsets.US_ASCII));
+		}
+	}
+	
+	@Test
+	public void testRead() throws IOException, InterruptedException {
+		try (ChannelState state = new ChannelState(file)) {
+			state.set(0);
+			
+			// simulate the selector rewriting the file in place, as with fopen(..., "w")
+			rewrite("11\n");
+			Assert.assertEquals(11, state.get());
+			
+			rewrite("2");
+			Assert.assertEquals(2, state.get());
+			
+			rewrite("4\r\n");
+			Assert.assertEquals(4, state.get());
+			
+			rewrite("");
+			Assert.assertEquals(-1, state.get());
+			
+			rewrite("abc");
+			Assert.assertThrows(NumberFormatException.class, () -> state.get());
+			
+			rewrite("99999999999");
+			Assert.assertThrows(NumberFormatException.class, () -> state.get());
+		}
+	}
+	
+	@Test
+	public void testCompatibility() throws IOException, InterruptedException {
+		try (ChannelState channelState = new ChannelState(file); State state = new State(file)) {
+			channelState.set(1);
+			Assert.assertEquals(1, state.get());
+			
+			state.set(2);
+			Assert.assertEquals(2, channelState.get());
+			
+			channelState.set(3);
+			Assert.assertEquals(3, state.waitWhile(2));
+		}
+	}
+	
+	private void rewrite(String content) throws IOException {
+		try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+			writer.print(content);
+		}
+	}
+
+}
@@ -0,0 +1,111 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoubleFormatterTest {
+	
+	private final DoubleFormatter formatter = new DoubleFormatter();
+	
+	private final byte[] buffer = new byte[DoubleFormatter.MAX_LENGTH];
+	
+	private String format(double value) {
+		return new String(buffer, 0, formatter.format(value, buffer, 0), StandardCharsets.US_ASCII);
+	}
+	
+	@Test
+	public void testFormat() {
+		Assert.assertEquals("0.0", format(0.0));
+		Assert.assertEquals("-0.0", format(-0.0));
+		Assert.assertEquals("1.0", format(1.0));
+		Assert.assertEquals("-1.5", format(-1.5));
+		Assert.assertEquals("0.1", format(0.1));
+		Assert.assertEquals("0.3", format(0.3));
+		Assert.assertEquals("123.456", format(123.456));
+		Assert.assertEquals("100.0", format(100.0));
+		Assert.assertEquals("0.001", format(0.001));
+		Assert.assertEquals("1.0E-4", format(1.0E-4));
+		Assert.assertEquals("9999999.0", format(9999999.0));
+		Assert.assertEquals("1.0E7", format(1.0E7));
+		Assert.assertEquals("1.2345678E7", format(12345678.0));
+		Assert.assertEquals("3.141592653589793", format(Math.PI));
+		Assert.assertEquals("1.7976931348623157E308", format(Double.MAX_VALUE));
+		Assert.assertEquals("2.2250738585072014E-308", format(Double.MIN_NORMAL));
+		Assert.assertEquals("-2.2250738585072014E-308", format(-Double.MIN_NORMAL));
+		Assert.assertEquals("4.9E-324", format(Double.MIN_VALUE));
+		Assert.assertEquals("NaN", format(Double.NaN));
+		Assert.assertEquals("Infinity", format(Double.POSITIVE_INFINITY));
+		Assert.assertEquals("-Infinity", format(Double.NEGATIVE_INFINITY));
+	}
+	
+	@Test
+	public void testShorterThanDoubleToString() {
+		//Double.toString prints 9.999999999999999E22 and 1.9999999999999998E23 before Java 19
+		Assert.assertEquals("1.0E23", format(1.0E23));
+		Assert.assertEquals("2.0E23", format(2.0E23));
+	}
+	
+	@Test
+	public void testRoundTripAndShortest() {
+		Random random = new Random(12345);
+		
+		for (int i = 0; i < 200000; i++) {
+			double value = i % 2 == 0 ? Double.longBitsToDouble(random.nextLong()) :
+				random.nextDouble() * Math.pow(10.0, random.nextInt(40) - 20);
+			
+			if (Double.isNaN(value) || Double.isInfinite(value)) {
+				continue;
+			}
+			
+			String text = format(value);
+			
+			Assert.assertEquals(text, Double.doubleToRawLongBits(value),
+					Double.doubleToRawLongBits(Double.parseDouble(text)));
+			
+			//no decimal with one fewer significant digit parses to the same value
+			BigDecimal decimal = new BigDecimal(text).abs();
+			int precision = decimal.stripTrailingZeros().precision();
+			
+			if (precision > 1 && Math.abs(value) >= Double.MIN_NORMAL) {
+				BigDecimal exact = new BigDecimal(Math.abs(value));
+				
+				Assert.assertNotEquals(text, Math.abs(value),
+						exact.round(new MathContext(precision - 1, RoundingMode.FLOOR)).doubleValue(), 0.0);
+				Assert.assertNotEquals(text, Math.abs(value),
+						exact.round(new MathContext(precision - 1, RoundingMode.CEILING)).doubleValue(), 0.0);
+			}
+		}
+	}
+	
+	@Test
+	public void testSubnormals() {
+		for (long bits = 1; bits < 100000; bits += 7) {
+			double value = Double.longBitsToDouble(bits);
+			Assert.assertEquals(value, Double.parseDouble(format(value)), 0.0);
+		}
+	}
+
+}
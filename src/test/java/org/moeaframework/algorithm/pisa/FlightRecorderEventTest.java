@@ -0,0 +1,162 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.moeaframework.core.TypedProperties;
+import org.moeaframework.core.spi.OperatorFactory;
+import org.moeaframework.core.spi.ProblemFactory;
+import org.moeaframework.problem.Problem;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests the Flight Recorder events by recording a run against the {@link MockSelector}.
+ */
+public class FlightRecorderEventTest {
+	
+	private static final String[] EVENTS = {
+			"org.moeaframework.pisa.SelectorLaunch",
+			"org.moeaframework.pisa.StateChange",
+			"org.moeaframework.pisa.FileTransfer",
+			"org.moeaframework.pisa.SelectorTermination"
+	};
+	
+	private Path file;
+	
+	@Before
+	public void setUp() throws IOException {
+		file = Files.createTempFile("pisa", ".jfr");
+		MockSelector.register();
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		MockSelector.unregister();
+		Files.deleteIfExists(file);
+	}
+	
+	private Map<String, List<RecordedEvent>> record(boolean enable) throws IOException {
+		try (Recording recording = new Recording()) {
+			if (enable) {
+				for (String event : EVENTS) {
+					recording.enable(event);
+				}
+			}
+			
+			recording.start();
+			
+			Problem problem = ProblemFactory.getInstance().getProblem("DTLZ2_2");
+			TypedProperties properties = new TypedProperties();
+			properties.setInt("populationSize", 20);
+			
+			PISAAlgorithm algorithm = new PISAAlgorithm(MockSelector.NAME, problem,
+					OperatorFactory.getInstance().getVariation(null, properties, problem), properties);
+			
+			while (algorithm.getNumberOfEvaluations() < 100) {
+				algorithm.step();
+			}
+			
+			algorithm.terminate();
+			
+			recording.stop();
+			recording.dump(file);
+		}
+		
+		Map<String, List<RecordedEvent>> events = new HashMap<String, List<RecordedEvent>>();
+		
+		for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+			String name = event.getEventType().getName();
+			
+			if (name.startsWith("org.moeaframework.pisa.")) {
+				events.computeIfAbsent(name, key -> new ArrayList<RecordedEvent>()).add(event);
+			}
+		}
+		
+		return events;
+	}
+	
+	@Test
+	public void testDisabledByDefault() throws IOException {
+		Assert.assertFalse(EventType.getEventType(SelectorLaunchEvent.class).isEnabled());
+		Assert.assertFalse(EventType.getEventType(StateChangeEvent.class).isEnabled());
+		Assert.assertFalse(EventType.getEventType(FileTransferEvent.class).isEnabled());
+		Assert.assertFalse(EventType.getEventType(SelectorTerminationEvent.class).isEnabled());
+		
+		Assert.assertTrue(record(false).isEmpty());
+	}
+	
+	@Test
+	public void testEvents() throws IOException {
+		Map<String, List<RecordedEvent>> events = record(true);
+		
+		List<RecordedEvent> launches = events.get("org.moeaframework.pisa.SelectorLaunch");
+		Assert.assertEquals(1, launches.size());
+		Assert.assertEquals(MockSelector.NAME, launches.get(0).getString("selector"));
+		Assert.assertFalse(launches.get(0).getBoolean("inProcess"));
+		Assert.assertTrue(launches.get(0).getLong("pid") > 0);
+		
+		// 5 generations, each waiting at least for state 2
+		List<RecordedEvent> stateChanges = events.get("org.moeaframework.pisa.StateChange");
+		Assert.assertTrue(stateChanges.size() >= 5);
+		Assert.assertTrue(stateChanges.stream().anyMatch(event -> event.getInt("state") == 2));
+		
+		// one ini and four var files written, and the sel and arc files read and cleared in four generations
+		Map<String, Integer> transfers = new HashMap<String, Integer>();
+		
+		for (RecordedEvent event : events.get("org.moeaframework.pisa.FileTransfer")) {
+			String file = event.getString("file");
+			String key = event.getString("operation") + " " + file.substring(file.length() - 3);
+			transfers.merge(key, 1, Integer::sum);
+			
+			if (key.startsWith("write")) {
+				Assert.assertEquals(20, event.getInt("ids"));
+				Assert.assertTrue(event.getLong("bytes") > 0);
+			}
+		}
+		
+		Assert.assertEquals(Integer.valueOf(1), transfers.get("write ini"));
+		Assert.assertEquals(Integer.valueOf(4), transfers.get("write var"));
+		Assert.assertEquals(Integer.valueOf(4), transfers.get("read sel"));
+		Assert.assertEquals(Integer.valueOf(4), transfers.get("clear sel"));
+		
+		// the archive is also read when terminating
+		Assert.assertEquals(Integer.valueOf(5), transfers.get("read arc"));
+		
+		List<RecordedEvent> terminations = events.get("org.moeaframework.pisa.SelectorTermination");
+		Assert.assertEquals(1, terminations.size());
+		Assert.assertTrue(terminations.get(0).getBoolean("running"));
+		Assert.assertFalse(terminations.get(0).getBoolean("pooled"));
+		Assert.assertEquals(100, terminations.get(0).getInt("evaluations"));
+	}
+
+}
@@ -0,0 +1,127 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading a {@code sel} or {@code arc} file with a {@link BufferedReader} ({@code legacy}), as done by
+ * previous versions, against the {@link IdListReader} opening the file for each read ({@code reader}) or keeping it
+ * open ({@code channel}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdListReaderBenchmark {
+	
+	@Param({ "legacy", "reader", "channel" })
+	public String method;
+	
+	@Param({ "100", "1000", "10000", "100000" })
+	public int size;
+	
+	private File file;
+	
+	private IdListReader reader;
+	
+	@Setup
+	public void setUp() throws IOException {
+		Random random = new Random(12345);
+		
+		file = File.createTempFile("pisa", "sel", PISASettings.getPISACommunicationPath());
+		
+		try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+			writer.println(size);
+			
+			for (int i = 0; i < size; i++) {
+				writer.println(random.nextInt(2 * size));
+			}
+			
+			writer.println("END");
+		}
+		
+		reader = new IdListReader(file, method.equals("channel"));
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		reader.close();
+		file.delete();
+	}
+	
+	@Benchmark
+	public int read() throws IOException {
+		if (method.equals("legacy")) {
+			return readLegacy().length;
+		} else {
+			return reader.read();
+		}
+	}
+	
+	private int[] readLegacy() throws IOException {
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String line = reader.readLine();
+			
+			if (line == null) {
+				throw new IOException("unexpected end of file");
+			}
+			
+			int[] result = new int[Integer.parseInt(line)];
+			
+			for (int i = 0; i < result.length; i++) {
+				line = reader.readLine();
+				
+				if (line == null) {
+					throw new IOException("unexpected end of file");
+				}
+				
+				result[i] = Integer.parseInt(line);
+			}
+			
+			if (!"END".equals(reader.readLine())) {
+				throw new IOException("expected END on last line");
+			}
+			
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IdListReaderTest {
+	
+	private File file;
+	
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("pisa", "sel");
+	}
+	
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+	
+	private void write(String contents) throws IOException {
+		Files.writeString(file.toPath(), contents, StandardCharsets.US_ASCII);
+	}
+	
+	private void assertIds(IdListReader reader, int... expected) throws IOException {
+		int length = reader.read();
+		
+		Assert.assertEquals(expected.length, length);
+		
+		for (int i = 0; i < length; i++) {
+			Assert.assertEquals(expected[i], reader.getIds()[i]);
+		}
+	}
+	
+	@Test
+	public void testRead() throws IOException {
+		try (IdListReader reader = new IdListReader(file, false)) {
+			write("3\n5\n0\n12\nEND\n");
+			assertIds(reader, 5, 0, 12);
+			
+			write("2\r\n7\r\n-1\r\nEND");
+			assertIds(reader, 7, -1);
+			
+			write("1\r2147483647\rEND\r");
+			assertIds(reader, Integer.MAX_VALUE);
+			
+			write("0\nEND\ntrailing content is ignored");
+			assertIds(reader);
+		}
+	}
+	
+	@Test
+	public void testKeepOpen() throws IOException {
+		try (IdListReader reader = new IdListReader(file, true)) {
+			write("3\n5\n0\n12\nEND\n");
+			assertIds(reader, 5, 0, 12);
+			
+			//selectors rewrite the file in place, which the open channel sees
+			write("1\n4\nEND\n");
+			assertIds(reader, 4);
+			
+			reader.clear();
+			Assert.assertEquals("0" + System.lineSeparator(), Files.readString(file.toPath()));
+		}
+	}
+	
+	@Test
+	public void testGrowth() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		int size = 100000;
+		
+		sb.append(size).append('\n');
+		
+		for (int i = 0; i < size; i++) {
+			sb.append(i).append('\n');
+		}
+		
+		sb.append("END\n");
+		write(sb.toString());
+		
+		try (IdListReader reader = new IdListReader(file, false)) {
+			Assert.assertEquals(size, reader.read());
+			
+			for (int i = 0; i < size; i++) {
+				Assert.assertEquals(i, reader.getIds()[i]);
+			}
+		}
+	}
+	
+	@Test
+	public void testClear() throws IOException {
+		write("3\n5\n0\n12\nEND\n");
+		
+		try (IdListReader reader = new IdListReader(file, false)) {
+			reader.clear();
+		}
+		
+		Assert.assertEquals("0" + System.lineSeparator(), Files.readString(file.toPath()));
+	}
+	
+	private void assertInvalid(String contents, Class<? extends Exception> type, String message) throws IOException {
+		write(contents);
+		
+		try (IdListReader reader = new IdListReader(file, false)) {
+			reader.read();
+			Assert.fail("expected " + type.getSimpleName() + " when reading '" + contents + "'");
+		} catch (Exception e) {
+			Assert.assertEquals(type, e.getClass());
+			
+			if (message != null) {
+				Assert.assertEquals(message, e.getMessage());
+			}
+		}
+	}
+	
+	@Test
+	public void testInvalid() throws IOException {
+		assertInvalid("", IOException.class, "unexpected end of file");
+		assertInvalid("3\n5\n0\n", IOException.class, "unexpected end of file");
+		assertInvalid("2\n5\n0\n", IOException.class, "expected END on last line");
+		assertInvalid("2\n5\n0\nENDING\n", IOException.class, "expected END on last line");
+		assertInvalid("2\n5\n0\n1\nEND\n", IOException.class, "expected END on last line");
+		assertInvalid("-1\nEND\n", IOException.class, null);
+		assertInvalid("2\n5\n\nEND\n", NumberFormatException.class, null);
+		assertInvalid("2\n5 \n1\nEND\n", NumberFormatException.class, null);
+		assertInvalid("1\n2147483648\nEND\n", NumberFormatException.class, null);
+		assertInvalid("1\n+\nEND\n", NumberFormatException.class, null);
+		assertInvalid("x\nEND\n", NumberFormatException.class, null);
+	}
+	
+	@Test(expected = IOException.class)
+	public void testMissingFile() throws IOException {
+		file.delete();
+		
+		try (IdListReader reader = new IdListReader(file, false)) {
+			reader.read();
+		}
+	}
+	
+	@Test
+	public void testNoAllocation() throws IOException {
+		Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append(1000).append('\n');
+		
+		for (int i = 0; i < 1000; i++) {
+			sb.append(i).append('\n');
+		}
+		
+		sb.append("END\n");
+		write(sb.toString());
+		
+		try (IdListReader reader = new IdListReader(file, true)) {
+			//warm up, which grows the buffers to their final size
+			for (int i = 0; i < 100; i++) {
+				reader.read();
+			}
+			
+			long threadId = Thread.currentThread().getId();
+			long before = bean.getThreadAllocatedBytes(threadId);
+			
+			for (int i = 0; i < 1000; i++) {
+				reader.read();
+			}
+			
+			long allocated = bean.getThreadAllocatedBytes(threadId) - before;
+			
+			//allow some slack for the measurement itself, but far less than one string per line
+			Assert.assertTrue("allocated " + allocated + " bytes", allocated < 64 * 1024);
+		}
+	}
+
+}
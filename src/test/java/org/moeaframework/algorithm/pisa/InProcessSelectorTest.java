@@ -0,0 +1,116 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InProcessSelectorTest {
+	
+	private File directory;
+	
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("pisa").toFile();
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		FileUtils.deleteDirectory(directory);
+	}
+	
+	private File createJar(String mainClass) throws IOException {
+		File jarFile = new File(directory, "selector.jar");
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		
+		if (mainClass != null) {
+			manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, mainClass);
+		}
+		
+		new JarOutputStream(new FileOutputStream(jarFile), manifest).close();
+		return jarFile;
+	}
+	
+	@Test
+	public void testGetJarFile() throws IOException {
+		File jarFile = createJar(null);
+		String path = jarFile.getAbsolutePath();
+		
+		Assert.assertEquals(jarFile, InProcessSelector.getJarFile(new String[] { "java", "-jar", path }));
+		Assert.assertEquals(jarFile, InProcessSelector.getJarFile(new String[] { "/usr/bin/java", "-jar", path }));
+		Assert.assertNull(InProcessSelector.getJarFile(new String[] { "java", "-Xmx1g", "-jar", path }));
+		Assert.assertNull(InProcessSelector.getJarFile(new String[] { "java", "-cp", path, "Main" }));
+		Assert.assertNull(InProcessSelector.getJarFile(new String[] { "sibea", "-jar", path }));
+		Assert.assertNull(InProcessSelector.getJarFile(new String[] { "java", "-jar",
+				new File(directory, "missing.jar").getAbsolutePath() }));
+	}
+	
+	@Test(expected = IOException.class)
+	public void testMissingMainClass() throws IOException {
+		InProcessSelector.start(createJar(null), "par", "prefix", "0.01");
+	}
+	
+	@Test(expected = IOException.class)
+	public void testUnknownMainClass() throws IOException {
+		InProcessSelector.start(createJar("org.example.Selector"), "par", "prefix", "0.01");
+	}
+	
+	@Test
+	public void testIsolatedClassLoader() throws IOException {
+		//the class is on our classpath, but the selector only sees the classes in its jar
+		Assert.assertThrows(IOException.class, () -> InProcessSelector.start(createJar(MockSelector.class.getName()),
+				"par", "prefix", "0.01"));
+	}
+	
+	@Test
+	public void testDestroy() throws IOException, InterruptedException {
+		File jarFile = new File(directory, "mock.jar");
+		MockSelector.createJar(jarFile);
+		
+		String prefix = new File(directory, "pisa").getAbsolutePath();
+		Files.writeString(new File(prefix + "cfg").toPath(), "alpha 10\nmu 10\nlambda 10\ndim 2\n");
+		
+		//without a state file, the selector waits until it is interrupted
+		InProcessSelector selector = InProcessSelector.start(jarFile, prefix + "par", prefix, "0.01");
+		
+		Assert.assertTrue(selector.isAlive());
+		Assert.assertFalse(selector.waitFor(100, TimeUnit.MILLISECONDS));
+		Assert.assertThrows(IllegalThreadStateException.class, selector::exitValue);
+		Assert.assertEquals(0, selector.descendants().count());
+		
+		selector.destroy();
+		
+		Assert.assertTrue(selector.waitFor(10, TimeUnit.SECONDS));
+		Assert.assertFalse(selector.isAlive());
+		Assert.assertEquals(0, selector.exitValue());
+	}
+
+}
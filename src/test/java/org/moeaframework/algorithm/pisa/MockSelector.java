@@ -0,0 +1,409 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.moeaframework.core.Settings;
+
+/**
+ * A minimal PISA selector used for testing without downloading the real selectors.  The archive keeps the
+ * {@code alpha} solutions with the smallest sum of objectives and parents are selected uniformly at random.  The
+ * selector itself only uses JDK classes, so it can run either in a separate JVM with just the test classes on the
+ * classpath or in-process on its own thread.
+ * <p>
+ * The selector acknowledges resets requested by the variator (state 8).  If the {@code reset} parameter is positive,
+ * it also requests a reset itself (state 10) after that many generations.  Failures are simulated by the {@code crash}
+ * and {@code hang} parameters, which exit with a non-zero status or stop responding after that many generations.
+ */
+public class MockSelector implements Runnable {
+	
+	/**
+	 * The name used to register this selector.
+	 */
+	public static final String NAME = "mock";
+	
+	/**
+	 * Exits if the state does not change for this long, so an abandoned selector does not linger.
+	 */
+	private static final long TIMEOUT = 60000;
+	
+	private final File parameterFile;
+	
+	private final String prefix;
+	
+	private final long pollRate;
+	
+	private final Map<Integer, double[]> archive;
+	
+	private Random random;
+	
+	private int alpha;
+	
+	private int mu;
+	
+	private int dimension;
+	
+	private int resetInterval;
+	
+	private int crashGeneration;
+	
+	private int hangGeneration;
+	
+	private boolean crashed;
+	
+	private int generation;
+	
+	/**
+	 * Constructs the selector from the standard PISA arguments.
+	 * 
+	 * @param args the parameter file, file prefix, and poll rate in seconds
+	 */
+	public MockSelector(String[] args) {
+		super();
+		parameterFile = new File(args[0]);
+		prefix = args[1];
+		pollRate = Math.max(0, Math.round(Double.parseDouble(args[2]) * 1000));
+		archive = new LinkedHashMap<Integer, double[]>();
+	}
+	
+	/**
+	 * Returns the command for launching this selector in a separate JVM.
+	 * 
+	 * @return the command for launching this selector in a separate JVM
+	 */
+	public static String getCommand() {
+		try {
+			File java = new File(new File(System.getProperty("java.home"), "bin"), "java");
+			File classpath = new File(MockSelector.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+			
+			return "\"" + java.getAbsolutePath() + "\" -cp \"" + classpath.getAbsolutePath() + "\" " +
+					MockSelector.class.getName();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Packages this selector into an executable jar, as Java-based selectors are distributed, and returns the
+	 * {@code java -jar} command that runs it.
+	 * 
+	 * @param jarFile the jar file to create
+	 * @return the command for launching this selector from the jar file
+	 * @throws IOException if an I/O error occurred while writing the jar file
+	 */
+	public static String createJar(File jarFile) throws IOException {
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, MockSelector.class.getName());
+		
+		String path = MockSelector.class.getName().replace('.', '/');
+		
+		try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile), manifest)) {
+			File directory = new File(MockSelector.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+			File[] classFiles = new File(directory, path).getParentFile().listFiles((dir, name) ->
+					name.startsWith(MockSelector.class.getSimpleName()) && name.endsWith(".class"));
+			
+			for (File classFile : classFiles) {
+				jar.putNextEntry(new JarEntry(path.substring(0, path.lastIndexOf('/') + 1) + classFile.getName()));
+				jar.write(Files.readAllBytes(classFile.toPath()));
+				jar.closeEntry();
+			}
+		} catch (URISyntaxException e) {
+			throw new IOException(e);
+		}
+		
+		File java = new File(new File(System.getProperty("java.home"), "bin"), "java");
+		return "\"" + java.getAbsolutePath() + "\" -jar \"" + jarFile.getAbsolutePath() + "\"";
+	}
+	
+	/**
+	 * Registers this selector under {@link #NAME} in the settings, with the {@code seed} and {@code reset}
+	 * parameters.
+	 */
+	public static void register() {
+		register(getCommand());
+	}
+	
+	/**
+	 * Registers this selector under {@link #NAME} in the settings, launched with the given command.
+	 * 
+	 * @param command the command for launching this selector
+	 */
+	public static void register(String command) {
+		Settings.PROPERTIES.setString(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".command", command);
+		Settings.PROPERTIES.setString(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".parameters",
+				"seed,reset,crash,hang");
+		Settings.PROPERTIES.setString(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".parameter.seed", "1");
+		Settings.PROPERTIES.setString(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".parameter.reset", "0");
+		Settings.PROPERTIES.setString(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".parameter.crash", "0");
+		Settings.PROPERTIES.setString(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".parameter.hang", "0");
+	}
+	
+	/**
+	 * Removes the settings added by {@link #register()}.
+	 */
+	public static void unregister() {
+		Settings.PROPERTIES.remove(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".command");
+		Settings.PROPERTIES.remove(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".parameters");
+		Settings.PROPERTIES.remove(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".parameter.seed");
+		Settings.PROPERTIES.remove(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".parameter.reset");
+		Settings.PROPERTIES.remove(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".parameter.crash");
+		Settings.PROPERTIES.remove(PISASettings.KEY_PISA_PREFIX + "." + NAME + ".parameter.hang");
+	}
+	
+	/**
+	 * Runs the selector.  This never calls {@link System#exit(int)}, so it can also run in-process; a simulated crash
+	 * instead throws an exception, which exits a separate JVM with a non-zero status.
+	 * 
+	 * @param args the parameter file, file prefix, and poll rate in seconds
+	 */
+	public static void main(String[] args) {
+		MockSelector selector = new MockSelector(args);
+		selector.run();
+		
+		if (selector.crashed) {
+			throw new IllegalStateException("simulated crash");
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			readParameters();
+			readConfiguration();
+			
+			File stateFile = new File(prefix + "sta");
+			int previousState = -1;
+			long lastChange = System.currentTimeMillis();
+			
+			while (System.currentTimeMillis() - lastChange < TIMEOUT) {
+				int state = readState(stateFile);
+				
+				if (state != previousState) {
+					previousState = state;
+					lastChange = System.currentTimeMillis();
+					
+					if (state == 3) {
+						generation++;
+					}
+				}
+				
+				if (state == 3 && generation == crashGeneration) {
+					crashed = true;
+					return;
+				} else if (state == 3 && generation == hangGeneration) {
+					Thread.sleep(pollRate);
+				} else if (state == 3 && resetInterval > 0 && generation % resetInterval == 0) {
+					archive.clear();
+					writeState(stateFile, 10);
+					
+					//remember our own writes, otherwise a fast variator's next state 3 looks unchanged and is not counted
+					previousState = 10;
+				} else if (state == 1 || state == 3) {
+					readPopulation(new File(prefix + (state == 1 ? "ini" : "var")));
+					truncate();
+					writeArchive();
+					writeSelection();
+					writeState(stateFile, 2);
+					previousState = 2;
+				} else if (state == 8) {
+					archive.clear();
+					generation = 0;
+					writeState(stateFile, 9);
+					previousState = 9;
+				} else if (state >= 4 && state <= 7) {
+					return;
+				} else {
+					Thread.sleep(pollRate);
+				}
+			}
+		} catch (InterruptedException e) {
+			// stop when interrupted
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	private void readParameters() throws IOException {
+		long seed = 0;
+		
+		if (parameterFile.exists()) {
+			for (String line : readLines(parameterFile)) {
+				String[] tokens = line.trim().split("\\s+");
+				
+				if (tokens.length == 2 && tokens[0].equals("seed")) {
+					seed = Long.parseLong(tokens[1]);
+				} else if (tokens.length == 2 && tokens[0].equals("reset")) {
+					resetInterval = Integer.parseInt(tokens[1]);
+				} else if (tokens.length == 2 && tokens[0].equals("crash")) {
+					crashGeneration = Integer.parseInt(tokens[1]);
+				} else if (tokens.length == 2 && tokens[0].equals("hang")) {
+					hangGeneration = Integer.parseInt(tokens[1]);
+				}
+			}
+		}
+		
+		random = new Random(seed);
+	}
+	
+	private void readConfiguration() throws IOException {
+		for (String line : readLines(new File(prefix + "cfg"))) {
+			String[] tokens = line.trim().split("\\s+");
+			
+			if (tokens[0].equals("alpha")) {
+				alpha = Integer.parseInt(tokens[1]);
+			} else if (tokens[0].equals("mu")) {
+				mu = Integer.parseInt(tokens[1]);
+			} else if (tokens[0].equals("dim")) {
+				dimension = Integer.parseInt(tokens[1]);
+			}
+		}
+	}
+	
+	private void readPopulation(File file) throws IOException {
+		List<String> tokens = new ArrayList<String>();
+		
+		for (String line : readLines(file)) {
+			for (String token : line.trim().split("\\s+")) {
+				if (!token.isEmpty()) {
+					tokens.add(token);
+				}
+			}
+		}
+		
+		int count = Integer.parseInt(tokens.get(0)) / (dimension + 1);
+		int index = 1;
+		
+		for (int i = 0; i < count; i++) {
+			int id = Integer.parseInt(tokens.get(index++));
+			double[] objectives = new double[dimension];
+			
+			for (int j = 0; j < dimension; j++) {
+				objectives[j] = Double.parseDouble(tokens.get(index++));
+			}
+			
+			archive.put(id, objectives);
+		}
+		
+		if (!tokens.get(index).equals("END")) {
+			throw new IOException("expected END in " + file);
+		}
+	}
+	
+	private void truncate() {
+		if (archive.size() <= alpha) {
+			return;
+		}
+		
+		List<Map.Entry<Integer, double[]>> entries = new ArrayList<Map.Entry<Integer, double[]>>(archive.entrySet());
+		entries.sort(Comparator.comparingDouble((Map.Entry<Integer, double[]> entry) -> sum(entry.getValue())));
+		
+		for (int i = alpha; i < entries.size(); i++) {
+			archive.remove(entries.get(i).getKey());
+		}
+	}
+	
+	private static double sum(double[] values) {
+		double result = 0.0;
+		
+		for (double value : values) {
+			result += value;
+		}
+		
+		return result;
+	}
+	
+	private void writeArchive() throws IOException {
+		writeList(new File(prefix + "arc"), new ArrayList<Integer>(archive.keySet()));
+	}
+	
+	private void writeSelection() throws IOException {
+		List<Integer> ids = new ArrayList<Integer>(archive.keySet());
+		List<Integer> selection = new ArrayList<Integer>();
+		
+		Collections.sort(ids);
+		
+		for (int i = 0; i < mu; i++) {
+			selection.add(ids.get(random.nextInt(ids.size())));
+		}
+		
+		writeList(new File(prefix + "sel"), selection);
+	}
+	
+	private static void writeList(File file, List<Integer> ids) throws IOException {
+		try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+			writer.println(ids.size());
+			
+			for (int id : ids) {
+				writer.println(id);
+			}
+			
+			writer.println("END");
+		}
+	}
+	
+	private static int readState(File file) throws IOException {
+		if (!file.exists()) {
+			return -1;
+		}
+		
+		List<String> lines = readLines(file);
+		return lines.isEmpty() || lines.get(0).isBlank() ? -1 : Integer.parseInt(lines.get(0).trim());
+	}
+	
+	private static void writeState(File file, int state) throws IOException {
+		try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+			writer.print(state);
+		}
+	}
+	
+	private static List<String> readLines(File file) throws IOException {
+		List<String> lines = new ArrayList<String>();
+		
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String line = null;
+			
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+		}
+		
+		return lines;
+	}
+
+}
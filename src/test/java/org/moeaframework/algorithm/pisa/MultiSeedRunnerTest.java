@@ -0,0 +1,130 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.moeaframework.algorithm.AlgorithmException;
+import org.moeaframework.core.FrameworkException;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.TypedProperties;
+import org.moeaframework.core.population.NondominatedPopulation;
+import org.moeaframework.core.spi.ProblemFactory;
+import org.moeaframework.problem.DTLZ.DTLZ2;
+
+public class MultiSeedRunnerTest {
+	
+	private TypedProperties properties;
+	
+	@Before
+	public void setUp() {
+		MockSelector.register();
+		
+		properties = new TypedProperties();
+		properties.setInt("populationSize", 20);
+	}
+	
+	@After
+	public void tearDown() {
+		MockSelector.unregister();
+	}
+	
+	@Test
+	public void testRun() {
+		MultiSeedRunner.Result result = new MultiSeedRunner(MockSelector.NAME,
+				() -> ProblemFactory.getInstance().getProblem("DTLZ2_2"))
+				.withProperties(properties)
+				.withMaxEvaluations(200)
+				.withConcurrency(2)
+				.run(1, 2, 3, 4, 5);
+		
+		Assert.assertEquals(5, result.getResults().size());
+		Assert.assertEquals(1000, result.getEvaluations());
+		Assert.assertTrue(result.getThroughput() > 0.0);
+		
+		for (NondominatedPopulation population : result.getResults()) {
+			Assert.assertTrue(population.size() > 0);
+		}
+		
+		Assert.assertFalse(properties.contains("seed"));
+	}
+	
+	@Test
+	public void testTerminateFailure() {
+		//the selector exits on the last offspring, so the runs complete their evaluations but fail to terminate
+		properties.setInt("crash", 9);
+		
+		MultiSeedRunner runner = new MultiSeedRunner(MockSelector.NAME,
+				() -> ProblemFactory.getInstance().getProblem("DTLZ2_2"))
+				.withProperties(properties)
+				.withMaxEvaluations(200);
+		
+		FrameworkException e = Assert.assertThrows(FrameworkException.class, () -> runner.run(1, 2));
+		Assert.assertTrue(e.getCause() instanceof AlgorithmException);
+		Assert.assertTrue(e.getCause().getCause() instanceof SelectorException);
+	}
+	
+	@Test
+	public void testCancelledRunsTerminated() {
+		AtomicInteger problems = new AtomicInteger();
+		
+		//the first run fails early while the other, slower runs are still evaluating
+		MultiSeedRunner runner = new MultiSeedRunner(MockSelector.NAME, () -> {
+			boolean failing = problems.getAndIncrement() == 0;
+			AtomicInteger evaluations = new AtomicInteger();
+			
+			return new DTLZ2(2) {
+				
+				@Override
+				public void evaluate(Solution solution) {
+					if (failing && evaluations.incrementAndGet() > 100) {
+						throw new IllegalStateException("simulated failure");
+					} else if (!failing) {
+						try {
+							Thread.sleep(1);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+					
+					super.evaluate(solution);
+				}
+				
+			};
+		}).withProperties(properties).withMaxEvaluations(100000).withConcurrency(3);
+		
+		FrameworkException e = Assert.assertThrows(FrameworkException.class, () -> runner.run(1, 2, 3));
+		Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+		
+		//every run, including the cancelled ones, has released its workspace
+		Assert.assertEquals(0, WorkspaceManager.getInstance().size());
+	}
+	
+	@Test(expected = FrameworkException.class)
+	public void testFailure() {
+		new MultiSeedRunner("missing", () -> ProblemFactory.getInstance().getProblem("DTLZ2_2"))
+				.withProperties(properties)
+				.withMaxEvaluations(200)
+				.run(1, 2);
+	}
+
+}
@@ -0,0 +1,97 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.moeaframework.core.TypedProperties;
+import org.moeaframework.core.spi.OperatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-generation overhead of {@link PISAAlgorithm} on a {@link ZeroCostProblem}, from writing the
+ * {@code var} file through waiting on the selector to reading the selection and archive and creating the offspring.
+ * The stand-in {@link MockSelector} runs in-process from a jar (see {@link InProcessSelector}) with a zero poll rate,
+ * and we wait with the {@code backoff} strategy, which spins briefly before parking so the selector thread can run
+ * even on a single core.  The result is therefore dominated by file I/O and bookkeeping rather than by the poll rate
+ * or process startup.  Note that the time also includes the stand-in selector, which is not optimized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PISAAlgorithmBenchmark {
+	
+	@Param({ "100", "1000", "10000", "100000" })
+	public int populationSize;
+	
+	@Param({ "2", "10", "20" })
+	public int numberOfObjectives;
+	
+	private File jarFile;
+	
+	private PISAAlgorithm algorithm;
+	
+	@Setup
+	public void setUp() throws IOException {
+		jarFile = File.createTempFile("mock", ".jar");
+		MockSelector.register(MockSelector.createJar(jarFile));
+		
+		ZeroCostProblem problem = new ZeroCostProblem(numberOfObjectives);
+		TypedProperties properties = new TypedProperties();
+		properties.setInt("populationSize", populationSize);
+		properties.setBoolean("inProcess", true);
+		properties.setString("waitStrategy", "backoff");
+		properties.setDouble("pollRate", 0.0);
+		properties.setBoolean("keepStateOpen", true);
+		
+		algorithm = new PISAAlgorithm(MockSelector.NAME, problem,
+				OperatorFactory.getInstance().getVariation("pm", properties, problem), properties);
+		
+		//evaluates the initial population, which is not part of the per-generation overhead
+		algorithm.step();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		algorithm.terminate();
+		MockSelector.unregister();
+		jarFile.delete();
+	}
+	
+	@Benchmark
+	public void iterate() {
+		algorithm.step();
+	}
+
+}
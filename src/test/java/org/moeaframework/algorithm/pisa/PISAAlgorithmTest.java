@@ -0,0 +1,834 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.moeaframework.algorithm.AlgorithmException;
+import org.moeaframework.algorithm.extension.CheckpointExtension;
+import org.moeaframework.algorithm.extension.Frequency;
+import org.moeaframework.core.PRNG;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.TypedProperties;
+import org.moeaframework.core.operator.Variation;
+import org.moeaframework.core.population.NondominatedPopulation;
+import org.moeaframework.core.spi.OperatorFactory;
+import org.moeaframework.core.spi.ProblemFactory;
+import org.moeaframework.core.variable.RealVariable;
+import org.moeaframework.problem.Problem;
+import org.moeaframework.problem.DTLZ.DTLZ2;
+
+/**
+ * Tests the {@link PISAAlgorithm} class against the {@link MockSelector}, which does not require downloading any
+ * selectors.
+ */
+public class PISAAlgorithmTest {
+	
+	private Problem problem;
+	
+	private TypedProperties properties;
+	
+	@Before
+	public void setUp() {
+		problem = ProblemFactory.getInstance().getProblem("DTLZ2_2");
+		properties = new TypedProperties();
+		properties.setInt("populationSize", 20);
+		MockSelector.register();
+	}
+	
+	@After
+	public void tearDown() {
+		MockSelector.unregister();
+	}
+	
+	private PISAAlgorithm createAlgorithm() throws IOException {
+		return new PISAAlgorithm(MockSelector.NAME, problem,
+				OperatorFactory.getInstance().getVariation(null, properties, problem), properties);
+	}
+	
+	@Test
+	public void testRun() throws IOException {
+		PISAAlgorithm algorithm = createAlgorithm();
+		
+		Assert.assertEquals(0, algorithm.getResult().size());
+		
+		while (algorithm.getNumberOfEvaluations() < 200) {
+			algorithm.step();
+		}
+		
+		algorithm.terminate();
+		
+		Assert.assertEquals(200, algorithm.getNumberOfEvaluations());
+		Assert.assertTrue(algorithm.getResult().size() > 0);
+		Assert.assertTrue(algorithm.isTerminated());
+	}
+	
+	@Test
+	public void testUnaryOperator() throws IOException {
+		properties.setString("operator", "pm");
+		testRun();
+	}
+	
+	@Test
+	public void testStreamState() throws IOException {
+		properties.setBoolean("keepStateOpen", false);
+		properties.setString("waitStrategy", "poll");
+		properties.setDouble("pollRate", 0.5);
+		testRun();
+	}
+	
+	@Test
+	public void testBackoff() throws IOException {
+		properties.setString("waitStrategy", "backoff");
+		testRun();
+	}
+	
+	@Test
+	public void testHexFloats() throws IOException {
+		properties.setBoolean("hexFloats", true);
+		testRun();
+	}
+	
+	@Test
+	public void testNumberOfThreads() throws IOException {
+		properties.setInt("numberOfThreads", 4);
+		testRun();
+	}
+	
+	@Test
+	public void testExecutorService() throws IOException, InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		
+		try {
+			PISAAlgorithm algorithm = createAlgorithm();
+			algorithm.setExecutorService(executor);
+			
+			while (algorithm.getNumberOfEvaluations() < 200) {
+				algorithm.step();
+			}
+			
+			algorithm.terminate();
+			
+			Assert.assertEquals(200, algorithm.getNumberOfEvaluations());
+			Assert.assertFalse(executor.isShutdown());
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void testParallelWritesSameFiles() throws IOException {
+		properties.setInt("seed", 1);
+		List<String> sequential = recordPopulationFiles();
+		
+		properties.setInt("numberOfThreads", 4);
+		List<String> parallel = recordPopulationFiles();
+		
+		Assert.assertEquals(10, sequential.size());
+		Assert.assertEquals(sequential, parallel);
+	}
+	
+	/**
+	 * Runs to 200 evaluations with a fixed seed and a deterministic variation operator, returning the contents of the
+	 * {@code ini} file followed by each {@code var} file.
+	 */
+	private List<String> recordPopulationFiles() throws IOException {
+		PRNG.setSeed(1);
+		
+		PISAAlgorithm algorithm = new PISAAlgorithm(MockSelector.NAME, problem, new MidpointVariation(), properties);
+		List<String> contents = new ArrayList<String>();
+		
+		try {
+			while (algorithm.getNumberOfEvaluations() < 200) {
+				algorithm.step();
+				String extension = contents.isEmpty() ? "ini" : "var";
+				contents.add(Files.readString(Path.of(algorithm.getFilePrefix() + extension)));
+			}
+		} finally {
+			algorithm.terminate();
+		}
+		
+		return contents;
+	}
+	
+	@Test
+	public void testConcurrentEvaluation() throws IOException {
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(2);
+		
+		//each evaluation waits for a second one to start, which only happens if they run concurrently
+		problem = new DTLZ2(2) {
+			
+			@Override
+			public void evaluate(Solution solution) {
+				maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+				
+				try {
+					latch.countDown();
+					latch.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					active.decrementAndGet();
+				}
+				
+				super.evaluate(solution);
+			}
+			
+		};
+		
+		properties.setInt("numberOfThreads", 2);
+		
+		PISAAlgorithm algorithm = createAlgorithm();
+		
+		try {
+			algorithm.step();
+		} finally {
+			algorithm.terminate();
+		}
+		
+		Assert.assertEquals(2, maxActive.get());
+	}
+	
+	/**
+	 * Variation operator without randomness, producing the midpoint of the parents and the point a quarter of the
+	 * way between them.
+	 */
+	private static class MidpointVariation implements Variation {
+
+		@Override
+		public String getName() {
+			return "midpoint";
+		}
+
+		@Override
+		public int getArity() {
+			return 2;
+		}
+
+		@Override
+		public Solution[] evolve(Solution[] parents) {
+			Solution child1 = parents[0].copy();
+			Solution child2 = parents[1].copy();
+			
+			for (int i = 0; i < child1.getNumberOfVariables(); i++) {
+				double value1 = RealVariable.getReal(parents[0].getVariable(i));
+				double value2 = RealVariable.getReal(parents[1].getVariable(i));
+				
+				RealVariable.setReal(child1.getVariable(i), (value1 + value2) / 2.0);
+				RealVariable.setReal(child2.getVariable(i), (3.0 * value1 + value2) / 4.0);
+			}
+			
+			return new Solution[] { child1, child2 };
+		}
+		
+	}
+	
+	@Test
+	public void testAskTell() throws IOException, InterruptedException {
+		PISAAlgorithm algorithm1 = createAlgorithm();
+		PISAAlgorithm algorithm2 = createAlgorithm();
+		BlockingQueue<Solution> queue = new LinkedBlockingQueue<Solution>();
+		
+		while (algorithm1.getNumberOfEvaluations() < 200) {
+			List<Solution> batch1 = algorithm1.ask();
+			List<Solution> batch2 = algorithm2.ask();
+			
+			Assert.assertEquals(20, batch1.size());
+			Assert.assertEquals(20, batch2.size());
+			Assert.assertThrows(AlgorithmException.class, () -> algorithm1.ask());
+			
+			// pack the evaluations from both runs into one job, evaluating copies as if sent elsewhere
+			for (Solution solution : batch1) {
+				queue.put(solution.copy());
+			}
+			
+			for (Solution solution : batch2) {
+				queue.put(solution.copy());
+			}
+			
+			List<Solution> evaluated = new ArrayList<Solution>();
+			
+			while (!queue.isEmpty()) {
+				Solution solution = queue.take();
+				problem.evaluate(solution);
+				evaluated.add(solution);
+			}
+			
+			algorithm1.tell(evaluated.subList(0, 20));
+			algorithm2.tell(evaluated.subList(20, 40));
+		}
+		
+		algorithm1.terminate();
+		algorithm2.terminate();
+		
+		Assert.assertEquals(200, algorithm1.getNumberOfEvaluations());
+		Assert.assertEquals(200, algorithm2.getNumberOfEvaluations());
+		Assert.assertTrue(algorithm1.getResult().size() > 0);
+		Assert.assertTrue(algorithm2.getResult().size() > 0);
+	}
+	
+	@Test
+	public void testTellWithoutAsk() throws IOException {
+		PISAAlgorithm algorithm = createAlgorithm();
+		Assert.assertThrows(AlgorithmException.class, () -> algorithm.tell(List.of()));
+		
+		List<Solution> initialPopulation = algorithm.ask();
+		Assert.assertThrows(IllegalArgumentException.class, () -> algorithm.tell(initialPopulation.subList(0, 1)));
+		
+		initialPopulation.forEach(problem::evaluate);
+		algorithm.tell(initialPopulation);
+		algorithm.terminate();
+	}
+	
+	@Test
+	public void testReuseSelector() throws IOException {
+		properties.setBoolean("reuseSelector", true);
+		int workspaces = WorkspaceManager.getInstance().size();
+		
+		try {
+			testRun();
+			Assert.assertEquals(1, SelectorPool.getInstance().size());
+			
+			PISAAlgorithm algorithm = createAlgorithm();
+			algorithm.step();
+			Assert.assertEquals(0, SelectorPool.getInstance().size());
+			
+			while (algorithm.getNumberOfEvaluations() < 200) {
+				algorithm.step();
+			}
+			
+			algorithm.terminate();
+			
+			Assert.assertEquals(200, algorithm.getNumberOfEvaluations());
+			Assert.assertTrue(algorithm.getResult().size() > 0);
+			Assert.assertEquals(1, SelectorPool.getInstance().size());
+			
+			//the idle selector keeps its workspace
+			Assert.assertEquals(workspaces + 1, WorkspaceManager.getInstance().size());
+		} finally {
+			SelectorPool.getInstance().clear();
+		}
+		
+		Assert.assertEquals(0, SelectorPool.getInstance().size());
+		Assert.assertEquals(workspaces, WorkspaceManager.getInstance().size());
+	}
+	
+	@Test
+	public void testReuseSelectorWithFreshProperties() throws IOException {
+		try {
+			for (int i = 0; i < 3; i++) {
+				//each run sets its own random seed in its properties
+				properties = new TypedProperties();
+				properties.setInt("populationSize", 20);
+				properties.setBoolean("reuseSelector", true);
+				
+				PISAAlgorithm algorithm = createAlgorithm();
+				algorithm.step();
+				Assert.assertEquals(0, SelectorPool.getInstance().size());
+				
+				while (algorithm.getNumberOfEvaluations() < 200) {
+					algorithm.step();
+				}
+				
+				algorithm.terminate();
+				Assert.assertEquals(1, SelectorPool.getInstance().size());
+			}
+		} finally {
+			SelectorPool.getInstance().clear();
+		}
+	}
+	
+	@Test
+	public void testReuseSelectorWithExplicitSeed() throws IOException {
+		try {
+			for (int seed : new int[] { 1, 2, 1 }) {
+				properties = new TypedProperties();
+				properties.setInt("populationSize", 20);
+				properties.setBoolean("reuseSelector", true);
+				properties.setInt("seed", seed);
+				
+				PISAAlgorithm algorithm = createAlgorithm();
+				
+				while (algorithm.getNumberOfEvaluations() < 200) {
+					algorithm.step();
+				}
+				
+				algorithm.terminate();
+			}
+			
+			//the selector started with seed 2 did not borrow the one started with seed 1, which the third run did
+			Assert.assertEquals(2, SelectorPool.getInstance().size());
+		} finally {
+			SelectorPool.getInstance().clear();
+		}
+	}
+	
+	@Test
+	public void testWorkspace() throws IOException {
+		int workspaces = WorkspaceManager.getInstance().size();
+		
+		PISAAlgorithm algorithm = createAlgorithm();
+		Assert.assertEquals(workspaces + 1, WorkspaceManager.getInstance().size());
+		algorithm.terminate();
+		Assert.assertEquals(workspaces, WorkspaceManager.getInstance().size());
+		
+		algorithm = createAlgorithm();
+		algorithm.step();
+		algorithm.step();
+		algorithm.terminate();
+		Assert.assertEquals(workspaces, WorkspaceManager.getInstance().size());
+	}
+	
+	@Test
+	public void testReuseSelectorStreamState() throws IOException {
+		properties.setBoolean("keepStateOpen", false);
+		testReuseSelector();
+	}
+	
+	@Test
+	public void testSelectorReset() throws IOException {
+		properties.setInt("reset", 3);
+		testRun();
+	}
+	
+	@Test
+	public void testSelectorResetWithReuse() throws IOException {
+		properties.setInt("reset", 4);
+		testReuseSelector();
+	}
+	
+	@Test
+	public void testSelectorCrash() throws IOException {
+		properties.setInt("crash", 4);
+		
+		PISAAlgorithm algorithm = createAlgorithm();
+		
+		try {
+			while (algorithm.getNumberOfEvaluations() < 200) {
+				algorithm.step();
+			}
+			
+			Assert.fail("expected the selector crash to fail the run");
+		} catch (AlgorithmException e) {
+			Assert.assertTrue(e.getCause() instanceof SelectorException);
+		} finally {
+			algorithm.terminate();
+		}
+	}
+	
+	@Test
+	public void testSelectorRestart() throws IOException {
+		properties.setInt("crash", 6);
+		properties.setInt("maxRestarts", 1);
+		testRun();
+	}
+	
+	@Test
+	public void testGenerationTimeout() throws IOException {
+		properties.setInt("hang", 3);
+		properties.setDouble("generationTimeout", 0.5);
+		
+		PISAAlgorithm algorithm = createAlgorithm();
+		
+		try {
+			while (algorithm.getNumberOfEvaluations() < 200) {
+				algorithm.step();
+			}
+			
+			Assert.fail("expected the selector timeout to fail the run");
+		} catch (AlgorithmException e) {
+			Assert.assertTrue(e.getCause() instanceof SelectorException);
+		} finally {
+			algorithm.terminate();
+		}
+	}
+	
+	@Test
+	public void testInProcess() throws IOException {
+		File jarFile = File.createTempFile("mock", ".jar");
+		
+		try {
+			MockSelector.register(MockSelector.createJar(jarFile));
+			properties.setBoolean("inProcess", true);
+			
+			//pooled selectors from other tests may still be running, but no new process is started
+			long processes = ProcessHandle.current().children().count();
+			PISAAlgorithm algorithm = createAlgorithm();
+			
+			while (algorithm.getNumberOfEvaluations() < 200) {
+				algorithm.step();
+				Assert.assertTrue(ProcessHandle.current().children().count() <= processes);
+			}
+			
+			algorithm.terminate();
+			
+			Assert.assertEquals(200, algorithm.getNumberOfEvaluations());
+			Assert.assertTrue(algorithm.getResult().size() > 0);
+		} finally {
+			jarFile.delete();
+		}
+	}
+	
+	@Test
+	public void testInProcessRestart() throws IOException {
+		properties.setInt("crash", 6);
+		properties.setInt("maxRestarts", 1);
+		testInProcess();
+	}
+	
+	@Test
+	public void testInProcessFallback() throws IOException {
+		//the mock selector is normally started with -cp, which must still run in a separate process
+		properties.setBoolean("inProcess", true);
+		testRun();
+	}
+	
+	@Test
+	public void testStatistics() throws IOException {
+		PISAAlgorithm algorithm = createAlgorithm();
+		PISAStatistics sum = new PISAStatistics();
+		List<PISAStatistics> totals = new ArrayList<PISAStatistics>();
+		
+		algorithm.addStatisticsListener((source, generation, total) -> {
+			Assert.assertSame(algorithm, source);
+			Assert.assertEquals(1, generation.getGenerations());
+			Assert.assertTrue(generation.getBytesWritten() > 0);
+			sum.add(generation);
+			totals.add(new PISAStatistics(total));
+		});
+		
+		while (algorithm.getNumberOfEvaluations() < 200) {
+			algorithm.step();
+		}
+		
+		algorithm.terminate();
+		
+		PISAStatistics statistics = algorithm.getStatistics();
+		
+		Assert.assertEquals(10, totals.size());
+		Assert.assertEquals(10, statistics.getGenerations());
+		Assert.assertEquals(statistics.toString(), sum.toString());
+		Assert.assertEquals(statistics.toString(), totals.get(9).toString());
+		
+		// only the first generation, with the initial population, does not wait or read
+		Assert.assertTrue(totals.get(0).getBytesRead() == 0);
+		Assert.assertTrue(statistics.getWaitTime() > 0);
+		Assert.assertTrue(statistics.getReadTime() > 0);
+		Assert.assertTrue(statistics.getVariationTime() > 0);
+		Assert.assertTrue(statistics.getEvaluationTime() > 0);
+		Assert.assertTrue(statistics.getWriteTime() > 0);
+		Assert.assertTrue(statistics.getBytesRead() > 0);
+		Assert.assertTrue(statistics.getBytesWritten() > 0);
+	}
+	
+	@Test
+	public void testRemoveStatisticsListener() throws IOException {
+		PISAAlgorithm algorithm = createAlgorithm();
+		List<PISAStatistics> totals = new ArrayList<PISAStatistics>();
+		PISAStatisticsListener listener = (source, generation, total) -> totals.add(new PISAStatistics(total));
+		
+		algorithm.addStatisticsListener(listener);
+		algorithm.step();
+		algorithm.removeStatisticsListener(listener);
+		algorithm.step();
+		algorithm.terminate();
+		
+		Assert.assertEquals(1, totals.size());
+		Assert.assertEquals(2, algorithm.getStatistics().getGenerations());
+	}
+	
+	@Test
+	public void testTerminateBeforeLaunch() throws IOException {
+		PISAAlgorithm algorithm = createAlgorithm();
+		algorithm.ask();
+		algorithm.terminate();
+		Assert.assertTrue(algorithm.isTerminated());
+	}
+	
+	@Test
+	public void testSaveState() throws IOException, ClassNotFoundException {
+		PISAAlgorithm algorithm = createAlgorithm();
+		
+		try {
+			algorithm.step();
+			algorithm.step();
+			
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			
+			try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+				algorithm.saveState(stream);
+			}
+			
+			PISAAlgorithm resumed = createAlgorithm();
+			
+			try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+				resumed.loadState(stream);
+			}
+			
+			Assert.assertTrue(resumed.isInitialized());
+			Assert.assertEquals(40, resumed.getNumberOfEvaluations());
+			assertSameObjectives(algorithm.getResult(), resumed.getResult());
+			
+			while (resumed.getNumberOfEvaluations() < 200) {
+				resumed.step();
+			}
+			
+			resumed.terminate();
+			Assert.assertEquals(200, resumed.getNumberOfEvaluations());
+		} finally {
+			algorithm.terminate();
+		}
+	}
+	
+	@Test
+	public void testSaveStateWhilePending() throws IOException, ClassNotFoundException {
+		PISAAlgorithm algorithm = createAlgorithm();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		
+		try {
+			//nothing was told yet, so the resumed run starts from a new initial population
+			algorithm.ask();
+			
+			try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+				algorithm.saveState(stream);
+			}
+		} finally {
+			algorithm.terminate();
+		}
+		
+		PISAAlgorithm resumed = createAlgorithm();
+		
+		try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			resumed.loadState(stream);
+		}
+		
+		Assert.assertEquals(0, resumed.getNumberOfEvaluations());
+		Assert.assertEquals(20, resumed.ask().size());
+		resumed.terminate();
+	}
+	
+	@Test
+	public void testCheckpointWhilePending() throws IOException {
+		File checkpoint = File.createTempFile("pisa", ".state");
+		
+		try {
+			PISAAlgorithm algorithm = createAlgorithm();
+			algorithm.addExtension(new CheckpointExtension(checkpoint, Frequency.ofIterations(1)));
+			algorithm.step();
+			algorithm.step();
+			
+			NondominatedPopulation result = algorithm.getResult();
+			
+			//the checkpoint written while terminating keeps the told solutions and drops the pending offspring
+			Assert.assertEquals(20, algorithm.ask().size());
+			algorithm.terminate();
+			
+			Assert.assertTrue(algorithm.isTerminated());
+			Assert.assertFalse(new File(algorithm.getFilePrefix() + "sta").exists());
+			
+			PISAAlgorithm resumed = createAlgorithm();
+			resumed.addExtension(new CheckpointExtension(checkpoint, Frequency.ofIterations(1)));
+			
+			Assert.assertEquals(40, resumed.getNumberOfEvaluations());
+			assertSameObjectives(result, resumed.getResult());
+			
+			while (resumed.getNumberOfEvaluations() < 200) {
+				resumed.step();
+			}
+			
+			resumed.terminate();
+			Assert.assertEquals(200, resumed.getNumberOfEvaluations());
+		} finally {
+			checkpoint.delete();
+		}
+	}
+	
+	@Test
+	public void testLoadIncompatibleState() throws IOException {
+		PISAAlgorithm algorithm = createAlgorithm();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		
+		try {
+			algorithm.step();
+			
+			try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+				algorithm.saveState(stream);
+			}
+		} finally {
+			algorithm.terminate();
+		}
+		
+		properties.setInt("populationSize", 30);
+		PISAAlgorithm resumed = createAlgorithm();
+		
+		try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			Assert.assertThrows(IOException.class, () -> resumed.loadState(stream));
+		} finally {
+			resumed.terminate();
+		}
+	}
+	
+	@Test
+	public void testResumeAfterCrash() throws IOException {
+		AtomicInteger evaluations = new AtomicInteger();
+		
+		problem = new DTLZ2(2) {
+			
+			@Override
+			public void evaluate(Solution solution) {
+				evaluations.incrementAndGet();
+				super.evaluate(solution);
+			}
+			
+		};
+		
+		File checkpoint = File.createTempFile("pisa", ".state");
+		
+		try {
+			//the selector dies during the sixth generation, after the checkpoint of the fifth
+			properties.setInt("crash", 6);
+			
+			PISAAlgorithm algorithm = createAlgorithm();
+			algorithm.addExtension(new CheckpointExtension(checkpoint, Frequency.ofIterations(1)));
+			
+			try {
+				while (algorithm.getNumberOfEvaluations() < 200) {
+					algorithm.step();
+				}
+				
+				Assert.fail("expected the selector crash to fail the run");
+			} catch (AlgorithmException e) {
+				Assert.assertTrue(e.getCause() instanceof SelectorException);
+			}
+			
+			int spent = evaluations.get();
+			NondominatedPopulation result = algorithm.getResult();
+			
+			Assert.assertEquals(spent, algorithm.getNumberOfEvaluations());
+			
+			//resume in a new run, as if after restarting the JVM
+			properties.remove("crash");
+			
+			PISAAlgorithm resumed = createAlgorithm();
+			resumed.addExtension(new CheckpointExtension(checkpoint, Frequency.ofIterations(1)));
+			
+			Assert.assertEquals(spent, resumed.getNumberOfEvaluations());
+			assertSameObjectives(result, resumed.getResult());
+			
+			while (resumed.getNumberOfEvaluations() < 200) {
+				resumed.step();
+			}
+			
+			resumed.terminate();
+			
+			//every evaluation is counted once, none were repeated after resuming
+			Assert.assertEquals(200, resumed.getNumberOfEvaluations());
+			Assert.assertEquals(200, evaluations.get());
+			Assert.assertTrue(resumed.getResult().size() > 0);
+		} finally {
+			checkpoint.delete();
+		}
+	}
+	
+	private void assertSameObjectives(NondominatedPopulation expected, NondominatedPopulation actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		
+		for (Solution solution : expected) {
+			Assert.assertTrue(actual.asList().stream().anyMatch(other ->
+					Arrays.equals(solution.getObjectiveValues(), other.getObjectiveValues())));
+		}
+	}
+	
+	@Test
+	public void testTerminateWithPendingAsk() throws IOException {
+		PISAAlgorithm algorithm = createAlgorithm();
+		
+		List<Solution> initialPopulation = algorithm.ask();
+		initialPopulation.forEach(problem::evaluate);
+		algorithm.tell(initialPopulation);
+		algorithm.step();
+		
+		int size = algorithm.getResult().size();
+		
+		Assert.assertEquals(20, algorithm.ask().size());
+		algorithm.terminate();
+		
+		Assert.assertTrue(algorithm.isTerminated());
+		Assert.assertEquals(40, algorithm.getNumberOfEvaluations());
+		Assert.assertEquals(size, algorithm.getResult().size());
+	}
+	
+	@Test
+	public void testTerminateWithPendingAskAndReuse() throws IOException {
+		properties.setBoolean("reuseSelector", true);
+		
+		try {
+			testTerminateWithPendingAsk();
+			Assert.assertEquals(1, SelectorPool.getInstance().size());
+		} finally {
+			SelectorPool.getInstance().clear();
+		}
+	}
+	
+	@Test
+	public void testTerminateWithPendingReset() throws IOException {
+		properties.setInt("reset", 1);
+		
+		PISAAlgorithm algorithm = createAlgorithm();
+		algorithm.step();
+		
+		//the selector requests a reset after the first offspring, so the next ask returns a new initial population
+		List<Solution> offspring = algorithm.ask();
+		offspring.forEach(problem::evaluate);
+		algorithm.tell(offspring);
+		
+		Assert.assertEquals(20, algorithm.ask().size());
+		algorithm.terminate();
+		Assert.assertTrue(algorithm.isTerminated());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstraints() throws IOException {
+		problem = ProblemFactory.getInstance().getProblem("CF1");
+		createAlgorithm();
+	}
+
+}
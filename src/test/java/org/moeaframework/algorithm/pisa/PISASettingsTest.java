@@ -17,8 +17,13 @@
  */
 package org.moeaframework.algorithm.pisa;
 
+import java.io.File;
+
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Assert;
 import org.junit.Test;
+import org.moeaframework.core.FrameworkException;
+import org.moeaframework.core.Settings;
 
 public class PISASettingsTest {
 	
@@ -32,6 +37,26 @@ public class PISASettingsTest {
 		Assert.assertTrue(PISASettings.getPISAPollRate() >= 0);
 	}
 
+	@Test
+	public void testPISACommunicationPath() {
+		File path = PISASettings.getPISACommunicationPath();
+		
+		if (path != null) {
+			Assert.assertTrue(path.isDirectory());
+			Assert.assertFalse(StringUtils.containsWhitespace(path.getAbsolutePath()));
+		}
+		
+		try {
+			Settings.PROPERTIES.setString(PISASettings.KEY_PISA_COMMUNICATION_PATH, "foo");
+			Assert.assertEquals(new File("foo"), PISASettings.getPISACommunicationPath());
+			
+			Settings.PROPERTIES.setString(PISASettings.KEY_PISA_COMMUNICATION_PATH, "foo bar");
+			Assert.assertThrows(FrameworkException.class, () -> PISASettings.getPISACommunicationPath());
+		} finally {
+			Settings.PROPERTIES.remove(PISASettings.KEY_PISA_COMMUNICATION_PATH);
+		}
+	}
+
 	@Test
 	public void testPISACommand() {
 		for (String algorithm : PISASettings.getPISAAlgorithms()) {
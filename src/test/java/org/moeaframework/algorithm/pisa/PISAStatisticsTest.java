@@ -0,0 +1,81 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PISAStatisticsTest {
+	
+	private PISAStatistics create(long value) {
+		PISAStatistics statistics = new PISAStatistics();
+		statistics.addGenerations(1);
+		statistics.addWaitTime(value);
+		statistics.addReadTime(2 * value);
+		statistics.addVariationTime(3 * value);
+		statistics.addEvaluationTime(4 * value);
+		statistics.addWriteTime(5 * value);
+		statistics.addPolls(6 * value);
+		statistics.addBytesRead(7 * value);
+		statistics.addBytesWritten(8 * value);
+		return statistics;
+	}
+	
+	private void assertStatistics(long generations, long value, PISAStatistics statistics) {
+		Assert.assertEquals(generations, statistics.getGenerations());
+		Assert.assertEquals(value, statistics.getWaitTime());
+		Assert.assertEquals(2 * value, statistics.getReadTime());
+		Assert.assertEquals(3 * value, statistics.getVariationTime());
+		Assert.assertEquals(4 * value, statistics.getEvaluationTime());
+		Assert.assertEquals(5 * value, statistics.getWriteTime());
+		Assert.assertEquals(6 * value, statistics.getPolls());
+		Assert.assertEquals(7 * value, statistics.getBytesRead());
+		Assert.assertEquals(8 * value, statistics.getBytesWritten());
+	}
+	
+	@Test
+	public void testAdd() {
+		PISAStatistics statistics = create(10);
+		statistics.add(create(5));
+		assertStatistics(2, 15, statistics);
+	}
+	
+	@Test
+	public void testCopy() {
+		PISAStatistics statistics = create(10);
+		PISAStatistics copy = new PISAStatistics(statistics);
+		
+		statistics.add(create(5));
+		
+		assertStatistics(1, 10, copy);
+	}
+	
+	@Test
+	public void testClear() {
+		PISAStatistics statistics = create(10);
+		statistics.clear();
+		assertStatistics(0, 0, statistics);
+	}
+	
+	@Test
+	public void testToString() {
+		Assert.assertEquals("generations=1, wait=1.0 ms, read=2.0 ms, variation=3.0 ms, evaluation=4.0 ms, " +
+				"write=5.0 ms, polls=6000000, bytesRead=7000000, bytesWritten=8000000", create(1000000).toString());
+	}
+
+}
@@ -0,0 +1,125 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.moeaframework.core.Solution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares writing a population file with a {@link PrintWriter} ({@code legacy}), as done by previous versions,
+ * against the {@link PopulationWriter} in decimal ({@code decimal}) and hexadecimal ({@code hex}) formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopulationWriterBenchmark {
+	
+	@Param({ "legacy", "decimal", "hex" })
+	public String encoding;
+	
+	@Param({ "100", "1000", "10000", "100000" })
+	public int size;
+	
+	@Param({ "2", "10", "20" })
+	public int numberOfObjectives;
+	
+	private File file;
+	
+	private SolutionStore solutions;
+	
+	private int[] ids;
+	
+	private PopulationWriter writer;
+	
+	@Setup
+	public void setUp() throws IOException {
+		Random random = new Random(12345);
+		
+		file = File.createTempFile("pisa", "var", PISASettings.getPISACommunicationPath());
+		solutions = new SolutionStore(size);
+		ids = new int[size];
+		
+		for (int i = 0; i < size; i++) {
+			Solution solution = new Solution(0, numberOfObjectives);
+			
+			for (int j = 0; j < numberOfObjectives; j++) {
+				solution.setObjectiveValue(j, random.nextDouble());
+			}
+			
+			ids[i] = solutions.add(solution);
+		}
+		
+		writer = new PopulationWriter(numberOfObjectives, encoding.equals("hex"));
+	}
+	
+	@TearDown
+	public void tearDown() {
+		file.delete();
+	}
+	
+	@Benchmark
+	public void write() throws IOException {
+		if (encoding.equals("legacy")) {
+			writeLegacy();
+		} else {
+			writer.write(file, solutions, ids);
+		}
+	}
+	
+	private void writeLegacy() throws IOException {
+		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+			writer.println(ids.length * (numberOfObjectives + 1));
+
+			for (int i = 0; i < ids.length; i++) {
+				writer.print(ids[i]);
+
+				for (int j = 0; j < numberOfObjectives; j++) {
+					writer.print(' ');
+					writer.print(solutions.get(ids[i]).getObjectiveValue(j));
+				}
+
+				writer.println();
+			}
+
+			writer.println("END");
+		}
+	}
+
+}
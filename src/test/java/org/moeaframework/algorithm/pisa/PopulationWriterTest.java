@@ -0,0 +1,214 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.moeaframework.core.Solution;
+
+public class PopulationWriterTest {
+	
+	private static final double[] SPECIAL_VALUES = { 0.0, -0.0, 1.0, -1.0, 0.1, 1.0 / 3.0, Math.PI, 1e-300, 1e300,
+			Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_NORMAL, Math.nextDown(Double.MIN_NORMAL), Double.MAX_VALUE,
+			-Double.MAX_VALUE, 2.0E-3, 9007199254740993.0 };
+	
+	private SolutionStore createStore(List<double[]> objectives, int[] ids) {
+		SolutionStore solutions = new SolutionStore();
+		
+		for (int i = 0; i < objectives.size(); i++) {
+			Solution solution = new Solution(0, objectives.get(i).length);
+			solution.setObjectiveValues(objectives.get(i));
+			ids[i] = solutions.add(solution);
+		}
+		
+		return solutions;
+	}
+	
+	private List<double[]> createObjectives(int size, int numberOfObjectives, long seed) {
+		Random random = new Random(seed);
+		List<double[]> objectives = new ArrayList<double[]>();
+		
+		for (int i = 0; i < size; i++) {
+			double[] values = new double[numberOfObjectives];
+			
+			for (int j = 0; j < numberOfObjectives; j++) {
+				double value;
+				
+				//mix arbitrary bit patterns with typical objective values
+				do {
+					value = i % 2 == 0 ? Double.longBitsToDouble(random.nextLong()) : random.nextDouble() * 10.0;
+				} while (Double.isNaN(value) || Double.isInfinite(value));
+				
+				values[j] = value;
+			}
+			
+			objectives.add(values);
+		}
+		
+		for (int i = 0; i < SPECIAL_VALUES.length; i++) {
+			objectives.add(new double[] { SPECIAL_VALUES[i], SPECIAL_VALUES[SPECIAL_VALUES.length - i - 1] });
+		}
+		
+		return objectives;
+	}
+	
+	private void testRoundTrip(boolean hexFloats) {
+		List<double[]> objectives = createObjectives(10000, 2, 12345);
+		int[] ids = new int[objectives.size()];
+		SolutionStore solutions = createStore(objectives, ids);
+		
+		PopulationWriter writer = new PopulationWriter(2, hexFloats);
+		writer.encode(solutions, ids);
+		
+		String[] lines = writer.getEncoded().split(System.lineSeparator());
+		
+		Assert.assertEquals(ids.length + 2, lines.length);
+		Assert.assertEquals(Integer.toString(ids.length * 3), lines[0]);
+		Assert.assertEquals("END", lines[lines.length - 1]);
+		
+		for (int i = 0; i < ids.length; i++) {
+			String[] tokens = lines[i + 1].split(" ");
+			
+			Assert.assertEquals(3, tokens.length);
+			Assert.assertEquals(ids[i], Integer.parseInt(tokens[0]));
+			
+			for (int j = 0; j < 2; j++) {
+				Assert.assertEquals(tokens[j + 1], Double.doubleToRawLongBits(objectives.get(i)[j]),
+						Double.doubleToRawLongBits(Double.parseDouble(tokens[j + 1])));
+			}
+		}
+	}
+	
+	@Test
+	public void testDecimalRoundTrip() {
+		testRoundTrip(false);
+	}
+	
+	@Test
+	public void testHexRoundTrip() {
+		testRoundTrip(true);
+	}
+	
+	@Test
+	public void testDecimalMatchesPrintWriter() {
+		Random random = new Random(54321);
+		List<double[]> objectives = new ArrayList<double[]>();
+		
+		//values with few significant digits, for which Double.toString is also the shortest representation
+		for (int i = 0; i < 1000; i++) {
+			objectives.add(new double[] { random.nextInt(100000) / 1000.0, random.nextInt() / 8.0,
+					random.nextInt(1000) * 1e-5 });
+		}
+		
+		int[] ids = new int[objectives.size()];
+		SolutionStore solutions = createStore(objectives, ids);
+		StringWriter expected = new StringWriter();
+		
+		try (PrintWriter writer = new PrintWriter(expected)) {
+			writer.println(ids.length * 4);
+			
+			for (int i = 0; i < ids.length; i++) {
+				writer.print(ids[i]);
+				
+				for (int j = 0; j < 3; j++) {
+					writer.print(' ');
+					writer.print(solutions.get(ids[i]).getObjectiveValue(j));
+				}
+				
+				writer.println();
+			}
+			
+			writer.println("END");
+		}
+		
+		PopulationWriter writer = new PopulationWriter(3, false);
+		writer.encode(solutions, ids);
+		
+		Assert.assertEquals(expected.toString(), writer.getEncoded());
+	}
+	
+	@Test
+	public void testHexFormat() {
+		Assert.assertEquals("0x1p+0", encodeHex(1.0));
+		Assert.assertEquals("-0x1.8p+1", encodeHex(-3.0));
+		Assert.assertEquals("0x1p-1", encodeHex(0.5));
+		Assert.assertEquals("0x1.999999999999ap-4", encodeHex(0.1));
+		Assert.assertEquals("0x0p+0", encodeHex(0.0));
+		Assert.assertEquals("-0x0p+0", encodeHex(-0.0));
+		Assert.assertEquals("0x0.0000000000001p-1022", encodeHex(Double.MIN_VALUE));
+		Assert.assertEquals("0x1p-1022", encodeHex(Double.MIN_NORMAL));
+		Assert.assertEquals("0x1.fffffffffffffp+1023", encodeHex(Double.MAX_VALUE));
+		Assert.assertEquals("Infinity", encodeHex(Double.POSITIVE_INFINITY));
+		Assert.assertEquals("-Infinity", encodeHex(Double.NEGATIVE_INFINITY));
+		Assert.assertEquals("NaN", encodeHex(Double.NaN));
+	}
+	
+	private String encodeHex(double value) {
+		int[] ids = new int[1];
+		SolutionStore solutions = createStore(List.of(new double[] { value }), ids);
+		PopulationWriter writer = new PopulationWriter(1, true);
+		writer.encode(solutions, ids);
+		
+		String[] lines = writer.getEncoded().split(System.lineSeparator());
+		return lines[1].split(" ")[1];
+	}
+	
+	@Test
+	public void testWriteReplacesContents() throws IOException {
+		File file = File.createTempFile("pisa", "var");
+		
+		try {
+			Files.writeString(file.toPath(), "a much longer previous content that must be truncated".repeat(100));
+			
+			int[] ids = new int[1];
+			SolutionStore solutions = createStore(List.of(new double[] { 1.0, 2.0 }), ids);
+			PopulationWriter writer = new PopulationWriter(2, false);
+			writer.write(file, solutions, ids);
+			
+			Assert.assertEquals("3" + System.lineSeparator() + "0 1.0 2.0" + System.lineSeparator() + "END" +
+					System.lineSeparator(), Files.readString(file.toPath(), StandardCharsets.US_ASCII));
+		} finally {
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void testBufferGrowth() throws IOException {
+		List<double[]> objectives = createObjectives(5000, 10, 1);
+		objectives.removeIf(values -> values.length != 10);
+		
+		int[] ids = new int[objectives.size()];
+		SolutionStore solutions = createStore(objectives, ids);
+		PopulationWriter writer = new PopulationWriter(10, false);
+		writer.encode(solutions, ids);
+		
+		Assert.assertTrue(writer.getEncoded().length() > 8192);
+		Assert.assertTrue(writer.getEncoded().endsWith("END" + System.lineSeparator()));
+	}
+
+}
@@ -0,0 +1,101 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.concurrent.TimeUnit;
+
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.population.NondominatedPopulation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one generation followed by a call to {@code getResult}, comparing rebuilding the result from every stored
+ * solution with the incremental {@link ResultCache}.  The archive is a nondominated front of {@code size} solutions
+ * and each generation adds {@code size} dominated offspring, which the next generation discards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultCacheBenchmark {
+	
+	@Param({ "100", "1000" })
+	public int size;
+	
+	private SolutionStore solutions;
+	
+	private ResultCache cache;
+	
+	private int[] archive;
+	
+	private Solution[] offspring;
+	
+	@Setup
+	public void setUp() {
+		solutions = new SolutionStore(2 * size);
+		cache = new ResultCache(solutions);
+		archive = new int[size];
+		offspring = new Solution[size];
+		
+		for (int i = 0; i < size; i++) {
+			Solution solution = new Solution(0, 2);
+			solution.setObjectiveValues(new double[] { i, size - i });
+			archive[i] = solutions.add(solution);
+			cache.added(archive[i]);
+			
+			offspring[i] = new Solution(0, 2);
+			offspring[i].setObjectiveValues(new double[] { i + 0.5, size - i + 0.5 });
+		}
+		
+		cache.get();
+	}
+	
+	private void generation() {
+		solutions.retainAll(archive, size);
+		cache.retained();
+		
+		for (int i = 0; i < size; i++) {
+			cache.added(solutions.add(offspring[i]));
+		}
+	}
+	
+	@Benchmark
+	public NondominatedPopulation rebuild() {
+		generation();
+		return new NondominatedPopulation(solutions);
+	}
+	
+	@Benchmark
+	public NondominatedPopulation incremental() {
+		generation();
+		return cache.get();
+	}
+
+}
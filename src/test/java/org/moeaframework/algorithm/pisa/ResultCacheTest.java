@@ -0,0 +1,156 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.population.NondominatedPopulation;
+
+public class ResultCacheTest {
+	
+	private static Solution createSolution(double... objectives) {
+		Solution solution = new Solution(0, objectives.length);
+		solution.setObjectiveValues(objectives);
+		return solution;
+	}
+	
+	private static List<String> toStrings(Iterable<Solution> solutions) {
+		List<String> result = new ArrayList<String>();
+		
+		for (Solution solution : solutions) {
+			result.add(Arrays.toString(solution.getObjectiveValues()));
+		}
+		
+		Collections.sort(result);
+		return result;
+	}
+	
+	private static void assertResult(SolutionStore store, ResultCache cache) {
+		Assert.assertEquals(toStrings(new NondominatedPopulation(store)), toStrings(cache.get()));
+	}
+	
+	@Test
+	public void testIncremental() {
+		SolutionStore store = new SolutionStore();
+		ResultCache cache = new ResultCache(store);
+		
+		Assert.assertEquals(0, cache.get().size());
+		
+		cache.added(store.add(createSolution(1.0, 3.0)));
+		cache.added(store.add(createSolution(3.0, 1.0)));
+		int dominated = store.add(createSolution(2.0, 4.0));
+		cache.added(dominated);
+		
+		Assert.assertEquals(2, cache.size());
+		assertResult(store, cache);
+		
+		//removing a dominated solution does not change the result
+		store.retainAll(new int[] { 0, 1 });
+		cache.retained();
+		Assert.assertEquals(2, cache.size());
+		
+		//removing a member exposes the solutions it dominated
+		cache.added(store.add(createSolution(2.0, 4.0)));
+		store.retainAll(new int[] { 1, 2 });
+		cache.retained();
+		assertResult(store, cache);
+		Assert.assertEquals(2, cache.size());
+		
+		store.clear();
+		cache.cleared();
+		Assert.assertEquals(0, cache.size());
+	}
+	
+	@Test
+	public void testDuplicates() {
+		SolutionStore store = new SolutionStore();
+		ResultCache cache = new ResultCache(store);
+		
+		int first = store.add(createSolution(1.0, 1.0));
+		cache.added(first);
+		int second = store.add(createSolution(1.0, 1.0));
+		cache.added(second);
+		Assert.assertEquals(1, cache.size());
+		
+		//whichever duplicate was kept, removing the first leaves the second in the result
+		store.retainAll(new int[] { second });
+		cache.retained();
+		Assert.assertEquals(1, cache.size());
+		Assert.assertEquals(1.0, cache.get().get(0).getObjectiveValue(0), 0.0);
+	}
+	
+	@Test
+	public void testCopy() {
+		SolutionStore store = new SolutionStore();
+		ResultCache cache = new ResultCache(store);
+		cache.added(store.add(createSolution(1.0, 1.0)));
+		
+		NondominatedPopulation result = cache.get();
+		result.get(0).setObjectiveValue(0, 0.0);
+		result.clear();
+		
+		Assert.assertEquals(1, cache.size());
+		Assert.assertEquals(1.0, cache.get().get(0).getObjectiveValue(0), 0.0);
+		Assert.assertNotSame(store.get(0), cache.get().get(0));
+	}
+	
+	@Test
+	public void testRandom() {
+		Random random = new Random(12345);
+		SolutionStore store = new SolutionStore();
+		ResultCache cache = new ResultCache(store);
+		
+		for (int generation = 0; generation < 500; generation++) {
+			for (int i = 0; i < 10; i++) {
+				//coarse values produce duplicates and ties
+				cache.added(store.add(createSolution(random.nextInt(10), random.nextInt(10), random.nextInt(10))));
+			}
+			
+			if (random.nextInt(3) > 0) {
+				assertResult(store, cache);
+			}
+			
+			List<Integer> ids = new ArrayList<Integer>();
+			
+			for (int id = 0; id < store.limit(); id++) {
+				if (store.contains(id)) {
+					ids.add(id);
+				}
+			}
+			
+			Collections.shuffle(ids, random);
+			store.retainAll(ids.subList(0, Math.min(ids.size(), 20)).stream().mapToInt(Integer::intValue).toArray());
+			cache.retained();
+			
+			if (random.nextInt(50) == 0) {
+				store.clear();
+				cache.cleared();
+			}
+		}
+		
+		assertResult(store, cache);
+	}
+
+}
@@ -0,0 +1,225 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.moeaframework.algorithm.pisa.installer.PISAInstaller;
+
+public class SelectorRegistryTest {
+	
+	private File directory;
+	
+	private SelectorRegistry registry;
+	
+	private CountingInstaller installer;
+	
+	/**
+	 * Installer writing a parameter file for each selector, which counts how often it is consulted.
+	 */
+	private class CountingInstaller implements PISAInstaller {
+		
+		private final AtomicInteger installs = new AtomicInteger();
+		
+		private final AtomicInteger commands = new AtomicInteger();
+		
+		private final AtomicInteger parameters = new AtomicInteger();
+		
+		private String seed = "1";
+
+		@Override
+		public boolean isOSSupported() {
+			return true;
+		}
+
+		@Override
+		public void install(String algorithm) throws IOException {
+			installs.incrementAndGet();
+			FileUtils.writeStringToFile(getDefaultParameterFile(algorithm), "seed " + seed + "\nalpha 0.5\n",
+					"UTF-8");
+		}
+
+		@Override
+		public void installAll() throws IOException {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public File getInstallPath(String algorithm) {
+			return new File(directory, algorithm);
+		}
+
+		@Override
+		public String getCommand(String algorithm) {
+			commands.incrementAndGet();
+			return new File(getInstallPath(algorithm), algorithm).getAbsolutePath();
+		}
+		
+		@Override
+		public Map<String, String> getDefaultParameters(String algorithm) throws IOException {
+			parameters.incrementAndGet();
+			return PISAInstaller.super.getDefaultParameters(algorithm);
+		}
+		
+	}
+	
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("pisa").toFile();
+		registry = new SelectorRegistry();
+		installer = new CountingInstaller();
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		FileUtils.deleteDirectory(directory);
+	}
+	
+	@Test
+	public void testCached() throws IOException {
+		SelectorRegistry.Selector selector = registry.resolve(installer, "alpha");
+		
+		Assert.assertEquals(new File(directory, "alpha/alpha").getAbsolutePath(), selector.getCommand());
+		Assert.assertEquals(List.of("seed", "alpha"), new ArrayList<String>(selector.getDefaultParameters().keySet()));
+		Assert.assertEquals("1", selector.getDefaultParameters().get("seed"));
+		
+		for (int i = 0; i < 10; i++) {
+			Assert.assertSame(selector, registry.resolve(installer, "alpha"));
+		}
+		
+		Assert.assertEquals(1, installer.installs.get());
+		Assert.assertEquals(1, installer.commands.get());
+		Assert.assertEquals(1, installer.parameters.get());
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void testUnmodifiable() throws IOException {
+		registry.resolve(installer, "alpha").getDefaultParameters().put("seed", "2");
+	}
+	
+	@Test
+	public void testInvalidatedWhenModified() throws IOException {
+		registry.resolve(installer, "alpha");
+		
+		File installPath = installer.getInstallPath("alpha");
+		FileUtils.writeStringToFile(new File(installPath, "alpha_param.txt"), "seed 2\n", "UTF-8");
+		Files.setLastModifiedTime(installPath.toPath(), FileTime.fromMillis(installPath.lastModified() - 10000));
+		
+		Assert.assertEquals("2", registry.resolve(installer, "alpha").getDefaultParameters().get("seed"));
+		Assert.assertEquals(2, installer.parameters.get());
+	}
+	
+	@Test
+	public void testInvalidatedWhenParametersEdited() throws IOException {
+		registry.resolve(installer, "alpha");
+		
+		//editing the file in place leaves the modification time of the install directory unchanged
+		File installPath = installer.getInstallPath("alpha");
+		File parameterFile = new File(installPath, "alpha_param.txt");
+		FileTime lastModified = Files.getLastModifiedTime(installPath.toPath());
+		
+		FileUtils.writeStringToFile(parameterFile, "seed 4\n", "UTF-8");
+		Files.setLastModifiedTime(parameterFile.toPath(), FileTime.fromMillis(parameterFile.lastModified() + 10000));
+		Files.setLastModifiedTime(installPath.toPath(), lastModified);
+		
+		Assert.assertEquals("4", registry.resolve(installer, "alpha").getDefaultParameters().get("seed"));
+		Assert.assertEquals(2, installer.parameters.get());
+	}
+	
+	@Test
+	public void testInvalidatedWhenRemoved() throws IOException {
+		registry.resolve(installer, "alpha");
+		
+		FileUtils.deleteDirectory(installer.getInstallPath("alpha"));
+		installer.seed = "3";
+		
+		Assert.assertEquals("3", registry.resolve(installer, "alpha").getDefaultParameters().get("seed"));
+		Assert.assertEquals(2, installer.installs.get());
+	}
+	
+	@Test
+	public void testConcurrent() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		
+		try {
+			List<Future<SelectorRegistry.Selector>> futures = new ArrayList<Future<SelectorRegistry.Selector>>();
+			
+			for (int i = 0; i < 100; i++) {
+				futures.add(executor.submit(() -> registry.resolve(installer, "alpha")));
+			}
+			
+			for (Future<SelectorRegistry.Selector> future : futures) {
+				Assert.assertSame(futures.get(0).get(), future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		
+		Assert.assertEquals(1, installer.installs.get());
+		Assert.assertEquals(1, installer.parameters.get());
+	}
+	
+	@Test
+	public void testParameterFile() throws IOException {
+		Map<String, String> parameters = new LinkedHashMap<String, String>();
+		parameters.put("seed", "1");
+		parameters.put("alpha", "100");
+		
+		File file = registry.acquireParameterFile(parameters);
+		Assert.assertEquals("seed 1" + System.lineSeparator() + "alpha 100" + System.lineSeparator(),
+				FileUtils.readFileToString(file, "UTF-8"));
+		Assert.assertEquals(file, registry.acquireParameterFile(new LinkedHashMap<String, String>(parameters)));
+		
+		parameters.put("seed", "2");
+		File other = registry.acquireParameterFile(parameters);
+		Assert.assertNotEquals(file, other);
+		
+		//a removed file is written again
+		Assert.assertTrue(file.delete());
+		parameters.put("seed", "1");
+		Assert.assertEquals(file, registry.acquireParameterFile(parameters));
+		Assert.assertTrue(file.isFile());
+		
+		//the file is deleted once every run using it released it
+		registry.releaseParameterFile(file);
+		registry.releaseParameterFile(file);
+		Assert.assertTrue(file.isFile());
+		registry.releaseParameterFile(file);
+		Assert.assertFalse(file.exists());
+		
+		registry.releaseParameterFile(other);
+		Assert.assertFalse(other.exists());
+	}
+
+}
@@ -0,0 +1,107 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.moeaframework.core.Solution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the bookkeeping of one generation in the {@link SolutionStore}: {@code updatePopulation} retains the
+ * {@code alpha} archived solutions, releasing the rest, and each of the {@code lambda} offspring is then assigned the
+ * next free identifier.  Both are the same size, so each invocation returns the store to the same state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolutionStoreBenchmark {
+	
+	@Param({ "100", "1000", "10000", "100000" })
+	public int size;
+	
+	private SolutionStore solutions;
+	
+	private int[] archive;
+	
+	private Solution[] offspring;
+	
+	private int[] ids;
+	
+	@Setup
+	public void setUp() {
+		Random random = new Random(12345);
+		
+		solutions = new SolutionStore(2 * size);
+		archive = new int[size];
+		offspring = new Solution[size];
+		ids = new int[2 * size];
+		
+		for (int i = 0; i < 2 * size; i++) {
+			ids[i] = solutions.add(new Solution(0, 2));
+		}
+		
+		//the archive is a random half of the population, so released identifiers are scattered
+		for (int i = ids.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int temp = ids[i];
+			ids[i] = ids[j];
+			ids[j] = temp;
+		}
+		
+		System.arraycopy(ids, 0, archive, 0, size);
+		
+		for (int i = 0; i < size; i++) {
+			offspring[i] = new Solution(0, 2);
+		}
+	}
+	
+	@Benchmark
+	public int[] generation() {
+		solutions.retainAll(archive, size);
+		
+		for (int i = 0; i < size; i++) {
+			ids[i] = solutions.add(offspring[i]);
+		}
+		
+		return ids;
+	}
+	
+	@Benchmark
+	public void get(Blackhole blackhole) {
+		for (int i = 0; i < size; i++) {
+			blackhole.consume(solutions.get(archive[i]));
+		}
+	}
+
+}
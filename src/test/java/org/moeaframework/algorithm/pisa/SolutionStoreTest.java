@@ -0,0 +1,192 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.moeaframework.core.Solution;
+
+public class SolutionStoreTest {
+	
+	@Test
+	public void testAdd() {
+		SolutionStore store = new SolutionStore(1);
+		Solution[] solutions = new Solution[100];
+		
+		for (int i = 0; i < solutions.length; i++) {
+			solutions[i] = new Solution(0, 2);
+			Assert.assertEquals(i, store.add(solutions[i]));
+		}
+		
+		Assert.assertEquals(100, store.size());
+		Assert.assertEquals(100, store.limit());
+		
+		for (int i = 0; i < solutions.length; i++) {
+			Assert.assertSame(solutions[i], store.get(i));
+		}
+		
+		Assert.assertNull(store.get(-1));
+		Assert.assertNull(store.get(100));
+	}
+	
+	@Test
+	public void testRemoveAndReuse() {
+		SolutionStore store = new SolutionStore();
+		
+		for (int i = 0; i < 10; i++) {
+			store.add(new Solution(0, 2));
+		}
+		
+		Assert.assertNotNull(store.remove(3));
+		Assert.assertNull(store.remove(3));
+		Assert.assertNotNull(store.remove(7));
+		Assert.assertFalse(store.contains(3));
+		Assert.assertEquals(8, store.size());
+		
+		Solution solution = new Solution(0, 2);
+		int id = store.add(solution);
+		
+		Assert.assertTrue(id == 3 || id == 7);
+		Assert.assertSame(solution, store.get(id));
+		Assert.assertEquals(9, store.size());
+		Assert.assertEquals(10, store.limit());
+		
+		store.add(new Solution(0, 2));
+		Assert.assertEquals(10, store.limit());
+		
+		Assert.assertEquals(10, store.add(new Solution(0, 2)));
+	}
+	
+	@Test
+	public void testIterator() {
+		SolutionStore store = new SolutionStore();
+		List<Solution> expected = new ArrayList<Solution>();
+		
+		for (int i = 0; i < 10; i++) {
+			Solution solution = new Solution(0, 2);
+			store.add(solution);
+			
+			if (i % 3 != 0) {
+				expected.add(solution);
+			}
+		}
+		
+		for (int i = 0; i < 10; i += 3) {
+			store.remove(i);
+		}
+		
+		List<Solution> actual = new ArrayList<Solution>();
+		store.forEach(actual::add);
+		
+		Assert.assertEquals(expected, actual);
+	}
+	
+	@Test
+	public void testRetainAll() {
+		SolutionStore store = new SolutionStore();
+		
+		for (int i = 0; i < 10; i++) {
+			store.add(new Solution(0, 2));
+		}
+		
+		store.retainAll(new int[] { 8, 2, 5, 2, -1, 42 });
+		
+		Assert.assertEquals(3, store.size());
+		Assert.assertTrue(store.contains(2));
+		Assert.assertTrue(store.contains(5));
+		Assert.assertTrue(store.contains(8));
+		Assert.assertFalse(store.contains(0));
+		
+		// the lowest released identifiers are reused first
+		Assert.assertEquals(0, store.add(new Solution(0, 2)));
+		Assert.assertEquals(1, store.add(new Solution(0, 2)));
+		Assert.assertEquals(3, store.add(new Solution(0, 2)));
+		
+		store.retainAll(new int[0]);
+		Assert.assertTrue(store.isEmpty());
+	}
+	
+	@Test
+	public void testRetainAllPrefix() {
+		SolutionStore store = new SolutionStore();
+		
+		for (int i = 0; i < 5; i++) {
+			store.add(new Solution(0, 2));
+		}
+		
+		// only the leading identifiers are retained, the remainder of the array is stale
+		store.retainAll(new int[] { 3, 1, 0, 4 }, 2);
+		
+		Assert.assertEquals(2, store.size());
+		Assert.assertTrue(store.contains(1));
+		Assert.assertTrue(store.contains(3));
+		Assert.assertFalse(store.contains(0));
+		Assert.assertFalse(store.contains(4));
+	}
+	
+	@Test(timeout = 10000)
+	public void testRetainAllScaling() {
+		for (int n = 1000; n <= 100000; n *= 10) {
+			SolutionStore store = new SolutionStore();
+			List<Integer> archive = new ArrayList<Integer>();
+			
+			for (int i = 0; i < n; i++) {
+				int id = store.add(new Solution(0, 2));
+				
+				if (i % 2 == 0) {
+					archive.add(id);
+				}
+			}
+			
+			Collections.shuffle(archive, new Random(n));
+			
+			// simulate both calls per generation, with the archive unchanged between them
+			for (int i = 0; i < 2; i++) {
+				store.retainAll(archive.stream().mapToInt(Integer::intValue).toArray());
+			}
+			
+			Assert.assertEquals(archive.size(), store.size());
+			
+			for (int id : archive) {
+				Assert.assertTrue(store.contains(id));
+			}
+		}
+	}
+	
+	@Test
+	public void testClear() {
+		SolutionStore store = new SolutionStore();
+		
+		for (int i = 0; i < 10; i++) {
+			store.add(new Solution(0, 2));
+		}
+		
+		store.remove(5);
+		store.clear();
+		
+		Assert.assertTrue(store.isEmpty());
+		Assert.assertFalse(store.iterator().hasNext());
+		Assert.assertEquals(0, store.add(new Solution(0, 2)));
+	}
+
+}
@@ -0,0 +1,112 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.moeaframework.core.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency of one generation's state handshake, where the variator sets state 3 and waits for a stand-in
+ * selector running on another thread to respond with state 2.  Compare the wait strategies to see the dead time
+ * removed from each generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateBenchmark {
+	
+	@Param({ "poll", "watch", "backoff" })
+	public String waitStrategy;
+	
+	private File directory;
+	
+	private org.moeaframework.algorithm.pisa.State variator;
+	
+	private org.moeaframework.algorithm.pisa.State selector;
+	
+	private Thread responder;
+	
+	@Setup
+	public void setUp() throws IOException, InterruptedException {
+		Settings.PROPERTIES.setString(PISASettings.KEY_PISA_WAIT_STRATEGY, waitStrategy);
+		
+		directory = Files.createTempDirectory("pisa").toFile();
+		variator = new org.moeaframework.algorithm.pisa.State(new File(directory, "sta"));
+		selector = new org.moeaframework.algorithm.pisa.State(new File(directory, "sta"));
+		variator.set(2);
+		
+		responder = new Thread(() -> {
+			try {
+				while (true) {
+					selector.waitFor(3);
+					selector.set(2);
+				}
+			} catch (InterruptedException e) {
+				// benchmark finished
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		
+		responder.setDaemon(true);
+		responder.start();
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException, InterruptedException {
+		responder.interrupt();
+		responder.join();
+		variator.close();
+		selector.close();
+		FileUtils.deleteDirectory(directory);
+		Settings.PROPERTIES.remove(PISASettings.KEY_PISA_WAIT_STRATEGY);
+	}
+	
+	@Benchmark
+	public int generation() throws IOException, InterruptedException {
+		int current = 3;
+		variator.set(current);
+		
+		while (current != 2) {
+			current = variator.waitWhile(current);
+		}
+		
+		return current;
+	}
+
+}
@@ -0,0 +1,88 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading and writing the state file by reopening it on every access ({@code stream}) against keeping a
+ * single channel open ({@code channel}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateFileBenchmark {
+	
+	@Param({ "stream", "channel" })
+	public String implementation;
+	
+	private File directory;
+	
+	private org.moeaframework.algorithm.pisa.State state;
+	
+	private int counter;
+	
+	@Setup
+	public void setUp() throws IOException, InterruptedException {
+		directory = Files.createTempDirectory("pisa").toFile();
+		
+		File file = new File(directory, "sta");
+		WaitStrategy waitStrategy = new PollingWaitStrategy(TimeUnit.MILLISECONDS.toNanos(1));
+		
+		state = implementation.equals("channel") ? new ChannelState(file, waitStrategy) :
+			new org.moeaframework.algorithm.pisa.State(file, waitStrategy);
+		state.set(2);
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		state.close();
+		FileUtils.deleteDirectory(directory);
+	}
+	
+	@Benchmark
+	public int get() throws IOException {
+		return state.get();
+	}
+	
+	@Benchmark
+	public void set() throws IOException, InterruptedException {
+		state.set(counter++ % 12);
+	}
+
+}
@@ -0,0 +1,191 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.moeaframework.core.Settings;
+
+public class StateTest {
+	
+	private File directory;
+	
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("pisa").toFile();
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		Settings.PROPERTIES.remove(PISASettings.KEY_PISA_WAIT_STRATEGY);
+		FileUtils.deleteDirectory(directory);
+	}
+	
+	@Test
+	public void testGetAndSet() throws IOException, InterruptedException {
+		try (State state = new State(new File(directory, "sta"))) {
+			state.set(0);
+			Assert.assertEquals(0, state.get());
+			
+			state.set(11);
+			Assert.assertEquals(11, state.get());
+		}
+	}
+	
+	@Test
+	public void testWatch() throws IOException, InterruptedException {
+		Assume.assumeTrue("file system notifications are polled on this OS", SystemUtils.IS_OS_LINUX);
+		
+		try (State state = new State(new File(directory, "sta"))) {
+			Assert.assertTrue(state.isWatching());
+			test(state);
+		}
+	}
+	
+	@Test
+	public void testPoll() throws IOException, InterruptedException {
+		Settings.PROPERTIES.setString(PISASettings.KEY_PISA_WAIT_STRATEGY, "poll");
+		
+		try (State state = new State(new File(directory, "sta"))) {
+			Assert.assertFalse(state.isWatching());
+			test(state);
+		}
+	}
+	
+	@Test
+	public void testBackoff() throws IOException, InterruptedException {
+		Settings.PROPERTIES.setString(PISASettings.KEY_PISA_WAIT_STRATEGY, "backoff");
+		
+		try (State state = new State(new File(directory, "sta"))) {
+			Assert.assertTrue(state.getWaitStrategy() instanceof BackoffWaitStrategy);
+			test(state);
+		}
+	}
+	
+	@Test
+	public void testMissingDirectory() throws IOException, InterruptedException {
+		try (State state = new State(new File(new File(directory, "missing"), "sta"))) {
+			Assert.assertFalse(state.isWatching());
+		}
+	}
+	
+	private void test(State state) throws IOException, InterruptedException {
+		state.set(3);
+		
+		Thread selector = new Thread(() -> {
+			try (State selectorState = new State(new File(directory, "sta"))) {
+				Thread.sleep(50);
+				selectorState.set(2);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		
+		selector.start();
+		
+		int current = 3;
+		
+		while (current != 2) {
+			current = state.waitWhile(current);
+		}
+		
+		selector.join();
+		Assert.assertEquals(2, state.get());
+	}
+	
+	@Test
+	public void testExitAfterFinalState() throws IOException, InterruptedException {
+		File file = new File(directory, "sta");
+		
+		try (State state = new State(file, new PollingWaitStrategy(0))) {
+			state.set(3);
+			state.setSupervisor(new ExitingSupervisor(file, 4));
+			Assert.assertEquals(4, state.waitWhile(3));
+			
+			state.setSupervisor(new ExitingSupervisor(file, 5));
+			state.waitFor(5);
+			
+			//the selector exited without changing the state
+			state.setSupervisor(new ExitingSupervisor(file, 5));
+			Assert.assertThrows(SelectorException.class, () -> state.waitWhile(5));
+		}
+	}
+	
+	/**
+	 * Supervisor simulating a selector that writes its final state and exits between our read of the state and the
+	 * check of the process.
+	 */
+	private static class ExitingSupervisor extends SelectorSupervisor {
+		
+		private final File file;
+		
+		private final int finalState;
+		
+		public ExitingSupervisor(File file, int finalState) {
+			super(0, 0);
+			this.file = file;
+			this.finalState = finalState;
+		}
+		
+		@Override
+		public void check() throws SelectorException {
+			try (State selectorState = new State(file, new PollingWaitStrategy(0))) {
+				selectorState.set(finalState);
+			} catch (IOException | InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			
+			throw new SelectorException("selector exited unexpectedly with exit code 0");
+		}
+		
+	}
+	
+	@Test
+	public void testPollCount() throws IOException, InterruptedException {
+		File file = new File(directory, "sta");
+		
+		//the selector responds after the third time we idle
+		try (State state = new State(file, attempt -> {
+			if (attempt == 2) {
+				try (State selectorState = new State(file, new PollingWaitStrategy(0))) {
+					selectorState.set(2);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		})) {
+			state.set(3);
+			Assert.assertEquals(0, state.getPollCount());
+			Assert.assertEquals(2, state.waitWhile(3));
+			Assert.assertEquals(3, state.getPollCount());
+			
+			state.waitFor(2);
+			Assert.assertEquals(3, state.getPollCount());
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WaitStrategyTest {
+	
+	@Test
+	public void testOf() throws IOException {
+		File file = new File(System.getProperty("java.io.tmpdir"), "sta");
+		
+		try (WaitStrategy strategy = WaitStrategy.of("poll", file, 1000)) {
+			Assert.assertTrue(strategy instanceof PollingWaitStrategy);
+		}
+		
+		try (WaitStrategy strategy = WaitStrategy.of("BACKOFF", file, 0)) {
+			Assert.assertTrue(strategy instanceof BackoffWaitStrategy);
+		}
+		
+		try (WaitStrategy strategy = WaitStrategy.of("watch", new File(new File(file, "missing"), "sta"), 1000)) {
+			Assert.assertTrue(strategy instanceof PollingWaitStrategy);
+		}
+		
+		Assert.assertThrows(IllegalArgumentException.class, () -> WaitStrategy.of("foo", file, 1000));
+	}
+	
+	@Test
+	public void testBackoffDelay() {
+		BackoffWaitStrategy strategy = new BackoffWaitStrategy(10, 1000, TimeUnit.MILLISECONDS.toNanos(1));
+		
+		Assert.assertEquals(1000, strategy.getDelay(0));
+		Assert.assertEquals(2000, strategy.getDelay(1));
+		Assert.assertEquals(512000, strategy.getDelay(9));
+		Assert.assertEquals(1000000, strategy.getDelay(10));
+		Assert.assertEquals(1000000, strategy.getDelay(Integer.MAX_VALUE));
+	}
+	
+	@Test
+	public void testSubMillisecondPoll() throws InterruptedException {
+		PollingWaitStrategy strategy = new PollingWaitStrategy(TimeUnit.MICROSECONDS.toNanos(50));
+		long fastest = Long.MAX_VALUE;
+		
+		// take the best of several trials so a busy machine does not cause spurious failures
+		for (int trial = 0; trial < 5; trial++) {
+			long start = System.nanoTime();
+			
+			for (int i = 0; i < 10; i++) {
+				strategy.idle(i);
+			}
+			
+			fastest = Math.min(fastest, System.nanoTime() - start);
+		}
+		
+		Assert.assertTrue(fastest < TimeUnit.MILLISECONDS.toNanos(10));
+	}
+	
+	@Test(expected = InterruptedException.class)
+	public void testInterrupted() throws InterruptedException {
+		Thread.currentThread().interrupt();
+		new BackoffWaitStrategy(1, 1000, 1000).idle(0);
+	}
+
+}
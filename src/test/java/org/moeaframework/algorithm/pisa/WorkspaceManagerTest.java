@@ -0,0 +1,201 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.moeaframework.core.Settings;
+
+public class WorkspaceManagerTest {
+	
+	private File directory;
+	
+	private WorkspaceManager manager;
+	
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("pisa").toFile();
+		manager = new WorkspaceManager();
+		Settings.PROPERTIES.setString(PISASettings.KEY_PISA_COMMUNICATION_PATH, directory.getAbsolutePath());
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		manager.clear();
+		Settings.PROPERTIES.remove(PISASettings.KEY_PISA_COMMUNICATION_PATH);
+		Settings.PROPERTIES.remove(PISASettings.KEY_PISA_MAX_WORKSPACES);
+		FileUtils.deleteDirectory(directory);
+	}
+	
+	@Test
+	public void testCreate() throws IOException {
+		WorkspaceManager.Workspace first = manager.create();
+		WorkspaceManager.Workspace second = manager.create();
+		
+		Assert.assertTrue(first.getDirectory().isDirectory());
+		Assert.assertEquals(directory.getCanonicalFile(), first.getDirectory().getParentFile());
+		Assert.assertTrue(first.getDirectory().getName().matches("pisa-" + ProcessHandle.current().pid() + "-\\d+"));
+		Assert.assertNotEquals(first.getDirectory(), second.getDirectory());
+		Assert.assertEquals(first.getDirectory(), new File(first.getFilePrefix()).getParentFile());
+		Assert.assertEquals(2, manager.size());
+		
+		FileUtils.touch(new File(first.getFilePrefix() + "sta"));
+		first.close();
+		first.close();
+		
+		Assert.assertFalse(first.getDirectory().exists());
+		Assert.assertEquals(1, manager.size());
+		
+		manager.clear();
+		Assert.assertFalse(second.getDirectory().exists());
+		Assert.assertEquals(0, manager.size());
+	}
+	
+	@Test
+	public void testLimit() throws IOException {
+		Settings.PROPERTIES.setInt(PISASettings.KEY_PISA_MAX_WORKSPACES, 2);
+		
+		WorkspaceManager.Workspace first = manager.create();
+		manager.create();
+		
+		Assert.assertThrows(IOException.class, () -> manager.create());
+		
+		first.close();
+		manager.create();
+		Assert.assertEquals(2, manager.size());
+	}
+	
+	@Test
+	public void testSweep() throws IOException, InterruptedException {
+		//stale workspaces are recognized by their unheld lock, even if named with this JVM's process ID
+		File stale = new File(directory, "pisa-" + ProcessHandle.current().pid() + "-1000000");
+		File staleShared = new File(directory, "pisa-1-0");
+		File unlocked = new File(directory, "pisa-1-1");
+		File other = new File(directory, "pisa-data");
+		
+		FileUtils.touch(new File(stale, "pisasta"));
+		FileUtils.touch(new File(stale, WorkspaceManager.LOCK_FILE));
+		FileUtils.touch(new File(staleShared, WorkspaceManager.LOCK_FILE));
+		FileUtils.forceMkdir(unlocked);
+		FileUtils.forceMkdir(other);
+		
+		manager.create();
+		
+		Assert.assertFalse(stale.exists());
+		Assert.assertFalse(staleShared.exists());
+		Assert.assertFalse(unlocked.exists());
+		Assert.assertTrue(other.exists());
+	}
+	
+	@Test
+	public void testSweepKeepsLockedWorkspace() throws IOException, InterruptedException {
+		//a live workspace of a JVM whose process ID is not visible here, such as one in another container
+		File locked = new File(directory, "pisa-" + Long.MAX_VALUE + "-1");
+		FileUtils.touch(new File(locked, "pisasta"));
+		
+		//another process holds the lock, using the same POSIX record locks as FileChannel on Linux and macOS
+		Process process;
+		
+		try {
+			process = new ProcessBuilder("python3", "-c", "import fcntl, sys, time\n" +
+					"f = open(sys.argv[1], 'a')\n" +
+					"fcntl.lockf(f, fcntl.LOCK_EX)\n" +
+					"print('locked', flush=True)\n" +
+					"sys.stdin.readline()\n",
+					new File(locked, WorkspaceManager.LOCK_FILE).getAbsolutePath()).start();
+		} catch (IOException e) {
+			Assume.assumeNoException(e);
+			throw e;
+		}
+		
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+				PrintStream input = new PrintStream(process.getOutputStream(), true)) {
+			Assume.assumeTrue("locked".equals(reader.readLine()));
+			
+			manager.create();
+			Assert.assertTrue(new File(locked, "pisasta").exists());
+			
+			input.println();
+			Assert.assertEquals(0, process.waitFor());
+		} finally {
+			process.destroy();
+		}
+	}
+	
+	@Test
+	public void testHoldsLock() throws IOException, InterruptedException {
+		WorkspaceManager.Workspace workspace = manager.create();
+		File shared = manager.getSharedDirectory();
+		
+		Assert.assertTrue(isLockedByOther(new File(workspace.getDirectory(), WorkspaceManager.LOCK_FILE)));
+		Assert.assertTrue(isLockedByOther(new File(shared, WorkspaceManager.LOCK_FILE)));
+		
+		workspace.close();
+		Assert.assertFalse(workspace.getDirectory().exists());
+	}
+	
+	/**
+	 * Returns {@code true} if another process fails to lock the file, skipping the test if {@code python3} is not
+	 * available.  The lock cannot be tested from this JVM, since closing a channel releases all of its locks.
+	 */
+	private boolean isLockedByOther(File file) throws IOException, InterruptedException {
+		Process process;
+		
+		try {
+			process = new ProcessBuilder("python3", "-c", "import fcntl, sys\n" +
+					"f = open(sys.argv[1], 'a')\n" +
+					"try:\n" +
+					"    fcntl.lockf(f, fcntl.LOCK_EX | fcntl.LOCK_NB)\n" +
+					"    print('unlocked')\n" +
+					"except OSError:\n" +
+					"    print('locked')\n",
+					file.getAbsolutePath()).start();
+		} catch (IOException e) {
+			Assume.assumeNoException(e);
+			throw e;
+		}
+		
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			String line = reader.readLine();
+			Assert.assertEquals(0, process.waitFor());
+			return "locked".equals(line);
+		}
+	}
+	
+	@Test
+	public void testSharedDirectory() throws IOException {
+		File shared = manager.getSharedDirectory();
+		
+		Assert.assertTrue(shared.isDirectory());
+		Assert.assertEquals("pisa-" + ProcessHandle.current().pid() + "-0", shared.getName());
+		Assert.assertEquals(shared, manager.getSharedDirectory());
+		Assert.assertEquals(0, manager.size());
+	}
+
+}
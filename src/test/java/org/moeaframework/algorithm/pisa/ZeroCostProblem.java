@@ -0,0 +1,57 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa;
+
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.variable.RealVariable;
+import org.moeaframework.problem.AbstractProblem;
+
+/**
+ * A problem whose evaluation costs next to nothing, copying each real-valued decision variable to the corresponding
+ * objective, so benchmarks measure the overhead of the PISA protocol rather than the problem.
+ */
+public class ZeroCostProblem extends AbstractProblem {
+	
+	/**
+	 * Constructs the problem with the given number of objectives, which is also the number of decision variables.
+	 * 
+	 * @param numberOfObjectives the number of objectives
+	 */
+	public ZeroCostProblem(int numberOfObjectives) {
+		super(numberOfObjectives, numberOfObjectives);
+	}
+
+	@Override
+	public void evaluate(Solution solution) {
+		for (int i = 0; i < numberOfObjectives; i++) {
+			solution.setObjectiveValue(i, RealVariable.getReal(solution.getVariable(i)));
+		}
+	}
+
+	@Override
+	public Solution newSolution() {
+		Solution solution = new Solution(numberOfVariables, numberOfObjectives);
+		
+		for (int i = 0; i < numberOfVariables; i++) {
+			solution.setVariable(i, new RealVariable(0.0, 1.0));
+		}
+		
+		return solution;
+	}
+
+}
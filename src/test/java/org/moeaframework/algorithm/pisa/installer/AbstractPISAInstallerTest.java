@@ -0,0 +1,523 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa.installer;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.moeaframework.core.Settings;
+
+/**
+ * Tests installing selectors from a local {@code file://} mirror, which does not require network access.
+ */
+public class AbstractPISAInstallerTest {
+	
+	private static final String KEY_INSTALL_PATH = "org.moeaframework.algorithm.pisa.install_path";
+	
+	private static final String KEY_INSTALL_THREADS = "org.moeaframework.algorithm.pisa.install_threads";
+	
+	private static final String KEY_CACHE_PATH = "org.moeaframework.algorithm.pisa.cache_path";
+	
+	private static final String KEY_MIRROR = "org.moeaframework.algorithm.pisa.mirror";
+	
+	private static final String KEY_ALLOW_INSTALL = "org.moeaframework.algorithm.pisa.allow_install";
+	
+	private File directory;
+	
+	private File mirror;
+	
+	private File installRoot;
+	
+	/**
+	 * Installer for fake selectors served from the mirror, which tracks how many are installed concurrently.
+	 */
+	private class MirrorInstaller extends AbstractPISAInstaller {
+		
+		private final AtomicInteger running = new AtomicInteger();
+		
+		private final AtomicInteger maxRunning = new AtomicInteger();
+		
+		private final AtomicInteger installs = new AtomicInteger();
+		
+		public MirrorInstaller(String... algorithms) {
+			super();
+			
+			for (String algorithm : algorithms) {
+				register(algorithm, new File(mirror, algorithm + ".tar.gz").toURI().toString());
+			}
+		}
+
+		@Override
+		public boolean isOSSupported() {
+			return true;
+		}
+		
+		@Override
+		protected void postInstall(String algorithm, File installPath, PrintStream out) throws IOException {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			installs.incrementAndGet();
+			
+			try {
+				out.println("  > Post install of " + algorithm);
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			} finally {
+				running.decrementAndGet();
+			}
+		}
+		
+	}
+	
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("pisa").toFile();
+		mirror = new File(directory, "mirror");
+		installRoot = new File(directory, "pisa_binaries");
+		
+		FileUtils.forceMkdir(mirror);
+		Settings.PROPERTIES.setString(KEY_INSTALL_PATH, installRoot.getAbsolutePath());
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		Settings.PROPERTIES.remove(KEY_INSTALL_PATH);
+		Settings.PROPERTIES.remove(KEY_INSTALL_THREADS);
+		Settings.PROPERTIES.remove(KEY_CACHE_PATH);
+		Settings.PROPERTIES.remove(KEY_MIRROR);
+		Settings.PROPERTIES.remove(KEY_ALLOW_INSTALL);
+		FileUtils.deleteDirectory(directory);
+	}
+	
+	/**
+	 * Creates an archive in the mirror containing a nested folder with the selector and its parameter file, in the
+	 * same layout as the real archives.
+	 */
+	private void createArchive(String algorithm, String version) throws IOException, InterruptedException {
+		File contents = new File(directory, "contents");
+		File nested = new File(contents, algorithm + "_linux");
+		
+		FileUtils.forceMkdir(nested);
+		FileUtils.writeStringToFile(new File(nested, algorithm), version, "UTF-8");
+		FileUtils.writeStringToFile(new File(nested, algorithm + "_param.txt"), "seed 1", "UTF-8");
+		
+		Process process = new ProcessBuilder("tar", "-c", "-z", "-f",
+				new File(mirror, algorithm + ".tar.gz").getAbsolutePath(), "-C", contents.getAbsolutePath(),
+				nested.getName()).inheritIO().start();
+		
+		Assert.assertEquals(0, process.waitFor());
+		FileUtils.deleteDirectory(contents);
+	}
+	
+	private void assertInstalled(AbstractPISAInstaller installer, String algorithm, String version) throws IOException {
+		Assert.assertTrue(installer.isInstalled(algorithm));
+		Assert.assertEquals(version, FileUtils.readFileToString(new File(installer.getInstallPath(algorithm),
+				algorithm), "UTF-8"));
+		Assert.assertEquals("1", installer.getDefaultParameters(algorithm).get("seed"));
+	}
+	
+	private void assertNoStaging() {
+		for (String name : installRoot.list()) {
+			Assert.assertFalse("staging directory " + name + " was not removed", name.startsWith(".staging"));
+		}
+	}
+	
+	/**
+	 * Returns the number of selector directories in the install path, excluding the lock file.
+	 */
+	private int countInstalled() {
+		return installRoot.list((dir, name) -> !name.equals(AbstractPISAInstaller.LOCK_FILE)).length;
+	}
+	
+	@Test
+	public void testInstallAll() throws IOException, InterruptedException {
+		List<String> algorithms = List.of("alpha", "beta", "gamma", "delta", "epsilon");
+		
+		for (String algorithm : algorithms) {
+			createArchive(algorithm, "1");
+		}
+		
+		Settings.PROPERTIES.setInt(KEY_INSTALL_THREADS, 2);
+		
+		MirrorInstaller installer = new MirrorInstaller(algorithms.toArray(String[]::new));
+		PrintStream stdout = System.out;
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		
+		try {
+			System.setOut(new PrintStream(output, true));
+			installer.installAll();
+		} finally {
+			System.setOut(stdout);
+		}
+		
+		for (String algorithm : algorithms) {
+			assertInstalled(installer, algorithm, "1");
+		}
+		
+		Assert.assertEquals(algorithms.size(), countInstalled());
+		Assert.assertEquals(2, installer.maxRunning.get());
+		
+		//the output of each selector is printed together, even though they were installed concurrently
+		String[] lines = output.toString().split("\\R");
+		String current = null;
+		
+		for (String line : lines) {
+			if (line.startsWith("Installing ")) {
+				current = line.substring(11, line.length() - 3);
+			} else if (line.startsWith("  > Post install of ")) {
+				Assert.assertEquals(current, line.substring(20));
+			}
+		}
+	}
+	
+	@Test
+	public void testReinstall() throws IOException, InterruptedException {
+		createArchive("alpha", "1");
+		
+		MirrorInstaller installer = new MirrorInstaller("alpha");
+		installer.install("alpha");
+		assertInstalled(installer, "alpha", "1");
+		
+		createArchive("alpha", "2");
+		installer.install("alpha");
+		assertInstalled(installer, "alpha", "2");
+		assertNoStaging();
+	}
+	
+	@Test
+	public void testFailedBatch() throws IOException, InterruptedException {
+		createArchive("alpha", "1");
+		createArchive("beta", "1");
+		
+		MirrorInstaller installer = new MirrorInstaller("alpha", "beta", "corrupt", "missing");
+		installer.install("alpha");
+		
+		createArchive("alpha", "2");
+		FileUtils.writeStringToFile(new File(mirror, "corrupt.tar.gz"), "not an archive", "UTF-8");
+		
+		try {
+			installer.installAll();
+			Assert.fail("expected the batch to fail");
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("failed to install 2 of 4"));
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("corrupt: "));
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("missing: "));
+			Assert.assertEquals(2, e.getSuppressed().length);
+		}
+		
+		//nothing from the failed batch was installed
+		assertInstalled(installer, "alpha", "1");
+		Assert.assertFalse(installer.isInstalled("beta"));
+		Assert.assertEquals(1, countInstalled());
+	}
+	
+	@Test
+	public void testFailedPublish() throws IOException, InterruptedException {
+		createArchive("alpha", "1");
+		createArchive("beta", "1");
+		
+		MirrorInstaller installer = new MirrorInstaller("alpha", "beta");
+		installer.installAll();
+		
+		createArchive("alpha", "2");
+		createArchive("beta", "2");
+		
+		//alpha is published and beta's installation is renamed aside before moving the new beta into place fails
+		MirrorInstaller failingInstaller = new MirrorInstaller("alpha", "beta") {
+			
+			@Override
+			void move(File source, File target) throws IOException {
+				if (target.equals(getInstallPath("beta")) && !source.getName().endsWith(".old")) {
+					throw new IOException("simulated failure");
+				}
+				
+				super.move(source, target);
+			}
+			
+		};
+		
+		try {
+			failingInstaller.installAll();
+			Assert.fail("expected publishing the batch to fail");
+		} catch (IOException e) {
+			Assert.assertEquals("simulated failure", e.getMessage());
+			Assert.assertEquals(0, e.getSuppressed().length);
+		}
+		
+		//both selectors were rolled back to the previous installations
+		assertInstalled(installer, "alpha", "1");
+		assertInstalled(installer, "beta", "1");
+		Assert.assertEquals(2, countInstalled());
+		assertNoStaging();
+	}
+	
+	@Test
+	public void testDeprecatedHooks() throws IOException, InterruptedException {
+		createArchive("alpha", "1");
+		
+		List<String> calls = new ArrayList<String>();
+		
+		//a subclass written against the hooks without the output stream
+		@SuppressWarnings("deprecation")
+		AbstractPISAInstaller installer = new AbstractPISAInstaller() {
+			
+			{
+				register("alpha", new File(mirror, "alpha.tar.gz").toURI().toString());
+			}
+			
+			@Override
+			public boolean isOSSupported() {
+				return true;
+			}
+			
+			@Override
+			protected void extractFile(File zipFile, File destinationPath) throws IOException {
+				calls.add("extractFile");
+				super.extractFile(zipFile, destinationPath);
+			}
+			
+			@Override
+			protected void postInstall(String algorithm, File installPath) throws IOException {
+				calls.add("postInstall " + algorithm);
+			}
+			
+		};
+		
+		installer.installAll();
+		
+		assertInstalled(installer, "alpha", "1");
+		Assert.assertEquals(List.of("extractFile", "postInstall alpha"), calls);
+	}
+	
+	@Test
+	public void testMirror() throws IOException, InterruptedException {
+		createArchive("alpha", "1");
+		createArchive("beta", "1");
+		
+		MirrorInstaller installer = new MirrorInstaller();
+		installer.register("alpha", "https://pisa.invalid/selectors/alpha.tar.gz");
+		installer.register("beta", "https://pisa.invalid/selectors/beta.tar.gz");
+		
+		Settings.PROPERTIES.setString(KEY_MIRROR, mirror.getAbsolutePath());
+		installer.install("alpha");
+		assertInstalled(installer, "alpha", "1");
+		
+		Settings.PROPERTIES.setString(KEY_MIRROR, mirror.toURI().toString());
+		installer.install("beta");
+		assertInstalled(installer, "beta", "1");
+	}
+	
+	@Test
+	public void testOfflineFromCache() throws IOException, InterruptedException {
+		createArchive("alpha", "1");
+		createArchive("beta", "1");
+		
+		String digest = ArtifactCache.digest(new File(mirror, "alpha.tar.gz"));
+		
+		MirrorInstaller installer = new MirrorInstaller("beta");
+		installer.register("alpha", new File(mirror, "alpha.tar.gz").toURI().toString(), digest);
+		
+		Settings.PROPERTIES.setString(KEY_CACHE_PATH, new File(directory, "cache").getAbsolutePath());
+		installer.install(List.of("alpha", "beta"));
+		
+		//both are installed again without access to the mirror, alpha by its digest and beta by its URL
+		FileUtils.deleteDirectory(mirror);
+		FileUtils.deleteDirectory(installRoot);
+		
+		installer.install(List.of("alpha", "beta"));
+		assertInstalled(installer, "alpha", "1");
+		assertInstalled(installer, "beta", "1");
+	}
+	
+	@Test
+	public void testDigestMismatch() throws IOException, InterruptedException {
+		createArchive("alpha", "1");
+		
+		File cache = new File(directory, "cache");
+		Settings.PROPERTIES.setString(KEY_CACHE_PATH, cache.getAbsolutePath());
+		
+		MirrorInstaller installer = new MirrorInstaller();
+		installer.register("alpha", new File(mirror, "alpha.tar.gz").toURI().toString(), "0".repeat(64));
+		
+		try {
+			installer.install("alpha");
+			Assert.fail("expected the digest mismatch to fail the install");
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("does not match"));
+		}
+		
+		Assert.assertFalse(installer.isInstalled("alpha"));
+		Assert.assertFalse(new File(cache, "sha256").exists());
+		
+		Settings.PROPERTIES.remove(KEY_CACHE_PATH);
+		
+		try {
+			installer.install("alpha");
+			Assert.fail("expected the digest mismatch to fail the install");
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("does not match"));
+		}
+		
+		Assert.assertFalse(installer.isInstalled("alpha"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidDigest() {
+		new MirrorInstaller().register("alpha", "https://pisa.invalid/selectors/alpha.tar.gz", "abc");
+	}
+	
+	@Test
+	public void testEnsureInstalled() throws Exception {
+		createArchive("alpha", "1");
+		
+		MirrorInstaller installer = new MirrorInstaller("alpha");
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(() -> {
+					installer.ensureInstalled("alpha");
+					return null;
+				}));
+			}
+			
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		
+		assertInstalled(installer, "alpha", "1");
+		Assert.assertEquals(1, installer.installs.get());
+		
+		//an explicit install still replaces the installation
+		createArchive("alpha", "2");
+		installer.ensureInstalled("alpha");
+		assertInstalled(installer, "alpha", "1");
+		installer.install("alpha");
+		assertInstalled(installer, "alpha", "2");
+	}
+	
+	@Test
+	public void testIncompleteInstallation() throws IOException, InterruptedException {
+		createArchive("alpha", "1");
+		
+		//a directory without the marker or executable, such as one left by an interrupted extraction, is not an
+		//installation
+		MirrorInstaller installer = new MirrorInstaller("alpha");
+		FileUtils.writeStringToFile(new File(installer.getInstallPath("alpha"), "alpha_param.txt"), "partial", "UTF-8");
+		Assert.assertFalse(installer.isInstalled("alpha"));
+		
+		//nor are staging directories left by a crashed installer kept
+		FileUtils.forceMkdir(new File(installRoot, ".staging12345/alpha"));
+		
+		installer.ensureInstalled("alpha");
+		assertInstalled(installer, "alpha", "1");
+		assertNoStaging();
+	}
+	
+	@Test
+	public void testLegacyInstallation() throws IOException {
+		Settings.PROPERTIES.setBoolean(KEY_ALLOW_INSTALL, false);
+		
+		//installed by an earlier version, which did not write the marker
+		MirrorInstaller installer = new MirrorInstaller("alpha");
+		FileUtils.writeStringToFile(new File(installer.getInstallPath("alpha"), "alpha"), "legacy", "UTF-8");
+		FileUtils.writeStringToFile(new File(installer.getInstallPath("alpha"), "alpha_param.txt"), "seed 1", "UTF-8");
+		Assert.assertFalse(installer.isInstalled("alpha"));
+		
+		installer.ensureInstalled("alpha");
+		assertInstalled(installer, "alpha", "legacy");
+		Assert.assertEquals(0, installer.installs.get());
+	}
+	
+	@Test
+	public void testWaitsForOtherProcess() throws Exception {
+		createArchive("alpha", "1");
+		FileUtils.forceMkdir(installRoot);
+		
+		//another process holds the lock, using the same POSIX record locks as FileChannel on Linux and macOS
+		Process process;
+		
+		try {
+			process = new ProcessBuilder("python3", "-c", "import fcntl, sys, time\n" +
+					"f = open(sys.argv[1], 'a')\n" +
+					"fcntl.lockf(f, fcntl.LOCK_EX)\n" +
+					"print('locked', flush=True)\n" +
+					"sys.stdin.readline()\n",
+					new File(installRoot, AbstractPISAInstaller.LOCK_FILE).getAbsolutePath()).start();
+		} catch (IOException e) {
+			Assume.assumeNoException(e);
+			throw e;
+		}
+		
+		MirrorInstaller installer = new MirrorInstaller("alpha");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+				PrintStream input = new PrintStream(process.getOutputStream(), true)) {
+			Assume.assumeTrue("locked".equals(reader.readLine()));
+			
+			Future<?> future = executor.submit(() -> {
+				installer.ensureInstalled("alpha");
+				return null;
+			});
+			
+			Thread.sleep(500);
+			Assert.assertFalse(future.isDone());
+			
+			//the other process finishes installing the selector and releases the lock
+			File installPath = installer.getInstallPath("alpha");
+			FileUtils.writeStringToFile(new File(installPath, "alpha"), "other", "UTF-8");
+			FileUtils.writeStringToFile(new File(installPath, "alpha_param.txt"), "seed 1", "UTF-8");
+			FileUtils.touch(new File(installPath, AbstractPISAInstaller.INSTALLED_MARKER));
+			input.println();
+			
+			future.get(10, TimeUnit.SECONDS);
+			Assert.assertEquals(0, process.waitFor());
+		} finally {
+			executor.shutdownNow();
+			process.destroy();
+		}
+		
+		assertInstalled(installer, "alpha", "other");
+		Assert.assertEquals(0, installer.installs.get());
+	}
+
+}
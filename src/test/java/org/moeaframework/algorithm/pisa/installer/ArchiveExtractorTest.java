@@ -0,0 +1,293 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa.installer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests extracting archives created by the {@code tar} and {@code zip} tools, which are skipped if the tools are not
+ * available.
+ */
+public class ArchiveExtractorTest {
+	
+	private static final String LONG_NAME = "a".repeat(60) + "/" + "b".repeat(60) + "/" + "c".repeat(40);
+	
+	private File directory;
+	
+	private File contents;
+	
+	private File destination;
+	
+	@Before
+	public void setUp() throws IOException {
+		Assume.assumeFalse(SystemUtils.IS_OS_WINDOWS);
+		
+		directory = Files.createTempDirectory("pisa").toFile();
+		contents = new File(directory, "contents");
+		destination = new File(directory, "destination");
+		
+		File nested = new File(contents, "alpha_linux");
+		FileUtils.writeStringToFile(new File(nested, "alpha"), "binary", "UTF-8");
+		FileUtils.writeStringToFile(new File(nested, "alpha_param.txt"), "seed 1", "UTF-8");
+		FileUtils.writeStringToFile(new File(nested, "docs/readme.txt"), "readme", "UTF-8");
+		
+		Files.setPosixFilePermissions(new File(nested, "alpha").toPath(),
+				PosixFilePermissions.fromString("rwxr-x---"));
+		Files.setPosixFilePermissions(new File(nested, "alpha_param.txt").toPath(),
+				PosixFilePermissions.fromString("rw-r-----"));
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		if (directory != null) {
+			FileUtils.deleteDirectory(directory);
+		}
+	}
+	
+	private File archive(String name, String... command) throws IOException, InterruptedException {
+		File archive = new File(directory, name);
+		List<String> arguments = new ArrayList<String>();
+		
+		for (String argument : command) {
+			arguments.add(argument.replace("{}", archive.getAbsolutePath()));
+		}
+		
+		Process process;
+		
+		try {
+			process = new ProcessBuilder(arguments).directory(contents).redirectErrorStream(true)
+					.redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+		} catch (IOException e) {
+			Assume.assumeNoException(e);
+			throw e;
+		}
+		
+		Assert.assertEquals(0, process.waitFor());
+		return archive;
+	}
+	
+	private void assertFlattened() throws IOException {
+		Assert.assertEquals("binary", FileUtils.readFileToString(new File(destination, "alpha"), "UTF-8"));
+		Assert.assertEquals("seed 1", FileUtils.readFileToString(new File(destination, "alpha_param.txt"), "UTF-8"));
+		Assert.assertEquals("readme", FileUtils.readFileToString(new File(destination, "docs/readme.txt"), "UTF-8"));
+		Assert.assertFalse(new File(destination, "alpha_linux").exists());
+		
+		Assert.assertEquals("rwxr-x---", PosixFilePermissions.toString(
+				Files.getPosixFilePermissions(new File(destination, "alpha").toPath())));
+		Assert.assertEquals("rw-r-----", PosixFilePermissions.toString(
+				Files.getPosixFilePermissions(new File(destination, "alpha_param.txt").toPath())));
+	}
+	
+	@Test
+	public void testTarGz() throws IOException, InterruptedException {
+		ArchiveExtractor.extract(archive("alpha.tar.gz", "tar", "-c", "-z", "-f", "{}", "alpha_linux"), destination);
+		assertFlattened();
+	}
+	
+	@Test
+	public void testTar() throws IOException, InterruptedException {
+		ArchiveExtractor.extract(archive("alpha.tar", "tar", "-c", "-f", "{}", "alpha_linux"), destination);
+		assertFlattened();
+	}
+	
+	@Test
+	public void testZip() throws IOException, InterruptedException {
+		ArchiveExtractor.extract(archive("alpha.zip", "zip", "-r", "{}", "alpha_linux"), destination);
+		assertFlattened();
+	}
+	
+	@Test
+	public void testLongNames() throws IOException, InterruptedException {
+		FileUtils.writeStringToFile(new File(contents, "alpha_linux/" + LONG_NAME), "long", "UTF-8");
+		
+		for (String format : new String[] { "gnu", "pax", "ustar" }) {
+			File archive = archive("alpha_" + format + ".tar", "tar", "-c", "--format=" + format, "-f", "{}",
+					"alpha_linux");
+			
+			ArchiveExtractor.extract(archive, destination);
+			assertFlattened();
+			Assert.assertEquals(format, "long", FileUtils.readFileToString(new File(destination, LONG_NAME),
+					"UTF-8"));
+			
+			FileUtils.deleteDirectory(destination);
+		}
+	}
+	
+	@Test
+	public void testNotFlattened() throws IOException, InterruptedException {
+		FileUtils.writeStringToFile(new File(contents, "README"), "top-level", "UTF-8");
+		
+		ArchiveExtractor.extract(archive("alpha.tar.gz", "tar", "-c", "-z", "-f", "{}", "alpha_linux", "README"),
+				destination);
+		
+		Assert.assertEquals("top-level", FileUtils.readFileToString(new File(destination, "README"), "UTF-8"));
+		Assert.assertEquals("binary", FileUtils.readFileToString(new File(destination, "alpha_linux/alpha"),
+				"UTF-8"));
+		Assert.assertTrue(new File(destination, "alpha_linux/alpha").canExecute());
+		Assert.assertEquals(2, destination.list().length);
+	}
+	
+	@Test
+	public void testSymbolicLink() throws IOException, InterruptedException {
+		Files.createSymbolicLink(new File(contents, "alpha_linux/alpha.link").toPath(), new File("alpha").toPath());
+		
+		ArchiveExtractor.extract(archive("alpha.tar.gz", "tar", "-c", "-z", "-f", "{}", "alpha_linux"), destination);
+		
+		Assert.assertTrue(Files.isSymbolicLink(new File(destination, "alpha.link").toPath()));
+		Assert.assertEquals("binary", FileUtils.readFileToString(new File(destination, "alpha.link"), "UTF-8"));
+	}
+	
+	@Test
+	public void testOutsideDestination() throws IOException, InterruptedException {
+		FileUtils.writeStringToFile(new File(directory, "evil"), "evil", "UTF-8");
+		File archive = archive("evil.tar", "tar", "-c", "-P", "-f", "{}", "alpha_linux", "../evil");
+		
+		FileUtils.deleteQuietly(new File(directory, "evil"));
+		
+		try {
+			ArchiveExtractor.extract(archive, destination);
+			Assert.fail("expected the entry outside the destination to be rejected");
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("outside the destination"));
+		}
+		
+		Assert.assertFalse(new File(directory, "evil").exists());
+	}
+	
+	@Test
+	public void testChainedSymbolicLinks() throws IOException, InterruptedException {
+		File outside = new File(directory, "outside");
+		Files.createDirectories(outside.toPath());
+		
+		//top/d1/d2 -> . makes top/d1/d2/sub/s1 land on top/d1/sub/s1, which then points outside the destination
+		File chained = new File(contents, "top/d1");
+		FileUtils.writeStringToFile(new File(chained, "sub/s1/deeper/pwned.txt"), "pwned", "UTF-8");
+		Files.createSymbolicLink(new File(chained, "d2").toPath(), new File(".").toPath());
+		Files.createDirectories(new File(contents, "link").toPath());
+		Files.createSymbolicLink(new File(contents, "link/s1").toPath(), new File("../../../outside").toPath());
+		
+		File archive = archive("chained.tar.gz", "tar", "-c", "-z", "-f", "{}", "--no-recursion",
+				"--transform=s,^link,top/d1/d2/sub,S", "top/d1/d2", "link/s1", "top/d1/sub/s1/deeper/pwned.txt");
+		
+		try {
+			ArchiveExtractor.extract(archive, destination);
+			Assert.fail("expected the entry written through a symbolic link to be rejected");
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("symbolic link"));
+		}
+		
+		Assert.assertEquals(0, outside.list().length);
+	}
+	
+	@Test
+	public void testClimbingThroughSymbolicLink() throws IOException, InterruptedException {
+		//docs/self/../.. is the destination when read as text but the destination's parent when followed
+		Files.createSymbolicLink(new File(contents, "alpha_linux/docs/self").toPath(), new File(".").toPath());
+		Files.createSymbolicLink(new File(contents, "alpha_linux/docs/evil").toPath(),
+				new File("self/../../evil").toPath());
+		
+		try {
+			ArchiveExtractor.extract(archive("evil.tar.gz", "tar", "-c", "-z", "-f", "{}", "alpha_linux"),
+					destination);
+			Assert.fail("expected the link climbing through a symbolic link to be rejected");
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("invalid link"));
+		}
+	}
+	
+	@Test
+	public void testAbsoluteSymbolicLink() throws IOException, InterruptedException {
+		//the destination is typically a staging directory, so an absolute link into it would dangle once it is moved
+		Files.createSymbolicLink(new File(contents, "alpha_linux/docs/absolute").toPath(),
+				new File(destination, "alpha").getAbsoluteFile().toPath());
+		
+		try {
+			ArchiveExtractor.extract(archive("absolute.tar.gz", "tar", "-c", "-z", "-f", "{}", "alpha_linux"),
+					destination);
+			Assert.fail("expected the link with an absolute target to be rejected");
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("invalid link"));
+		}
+	}
+	
+	@Test
+	public void testMalformedZipDirectory() throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		
+		try (ZipOutputStream out = new ZipOutputStream(buffer)) {
+			out.putNextEntry(new ZipEntry("alpha"));
+			out.write("binary".getBytes("UTF-8"));
+			out.closeEntry();
+		}
+		
+		//extend the name length of the central directory record past the end of the directory
+		ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+		int position = bytes.limit() - 46;
+		
+		while (bytes.getInt(position) != 0x02014b50) {
+			position--;
+		}
+		
+		bytes.putShort(position + 28, (short)0xFFFF);
+		
+		File archive = new File(directory, "malformed.zip");
+		Files.write(archive.toPath(), bytes.array());
+		
+		try {
+			ArchiveExtractor.extract(archive, destination);
+			Assert.fail("expected the malformed central directory to be rejected");
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("invalid zip central directory"));
+		}
+	}
+	
+	@Test(expected = IOException.class)
+	public void testCorrupt() throws IOException {
+		File archive = new File(directory, "corrupt.tar.gz");
+		FileUtils.writeStringToFile(archive, "not an archive", "UTF-8");
+		ArchiveExtractor.extract(archive, destination);
+	}
+	
+	@Test
+	public void testSupported() {
+		Assert.assertTrue(ArchiveExtractor.isSupported(new File("alpha.tar.gz")));
+		Assert.assertTrue(ArchiveExtractor.isSupported(new File("alpha.TGZ")));
+		Assert.assertTrue(ArchiveExtractor.isSupported(new File("alpha.tar")));
+		Assert.assertTrue(ArchiveExtractor.isSupported(new File("alpha.zip")));
+		Assert.assertFalse(ArchiveExtractor.isSupported(new File("alpha.rar")));
+	}
+
+}
@@ -0,0 +1,124 @@
+/* Copyright 2009-2024 David Hadka
+ *
+ * This file is part of the MOEA Framework.
+ *
+ * The MOEA Framework is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * The MOEA Framework is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the MOEA Framework.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.moeaframework.algorithm.pisa.installer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ArtifactCacheTest {
+	
+	private static final PrintStream NULL = new PrintStream(OutputStream.nullOutputStream());
+	
+	private File directory;
+	
+	private File source;
+	
+	private URL url;
+	
+	private ArtifactCache cache;
+	
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("pisa").toFile();
+		source = new File(directory, "archive.tar.gz");
+		url = source.toURI().toURL();
+		cache = new ArtifactCache(new File(directory, "cache"));
+		
+		FileUtils.writeStringToFile(source, "archive contents", "UTF-8");
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		FileUtils.deleteDirectory(directory);
+	}
+	
+	@Test
+	public void testDigest() throws IOException {
+		String expected = "f69f4865f861193a91d1c5544a894167a7137b788d10bac8edbf5d095f45cb4d";
+		
+		Assert.assertEquals(expected, ArtifactCache.digest(source));
+		Assert.assertEquals(expected, ArtifactCache.download(url, new File(directory, "copy")));
+		Assert.assertEquals("archive contents", FileUtils.readFileToString(new File(directory, "copy"), "UTF-8"));
+	}
+	
+	@Test
+	public void testFetchByDigest() throws IOException {
+		String digest = ArtifactCache.digest(source);
+		File file = cache.fetch(url, url, digest, NULL);
+		
+		Assert.assertEquals(cache.getFile(digest), file);
+		Assert.assertEquals("archive contents", FileUtils.readFileToString(file, "UTF-8"));
+		
+		//served from the cache once the source is gone
+		Files.delete(source.toPath());
+		Assert.assertEquals(file, cache.fetch(url, url, digest.toUpperCase(), NULL));
+	}
+	
+	@Test
+	public void testFetchByURL() throws IOException {
+		File file = cache.fetch(url, url, null, NULL);
+		Assert.assertEquals(cache.getFile(ArtifactCache.digest(source)), file);
+		
+		Files.delete(source.toPath());
+		Assert.assertEquals(file, cache.fetch(url, url, null, NULL));
+	}
+	
+	@Test
+	public void testMirror() throws IOException {
+		URL original = new URL("https://pisa.invalid/archive.tar.gz");
+		File file = cache.fetch(original, url, null, NULL);
+		
+		//the index is keyed by the original URL, not the mirror
+		Files.delete(source.toPath());
+		Assert.assertEquals(file, cache.fetch(original, original, null, NULL));
+	}
+	
+	@Test
+	public void testMismatch() throws IOException {
+		try {
+			cache.fetch(url, url, "0".repeat(64), NULL);
+			Assert.fail("expected the digest mismatch to fail");
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("does not match"));
+		}
+		
+		//neither the archive nor any temporary files are left in the cache
+		Assert.assertEquals(0, FileUtils.listFiles(new File(directory, "cache"), null, true).size());
+	}
+	
+	@Test
+	public void testCorruptEntry() throws IOException {
+		String digest = ArtifactCache.digest(source);
+		File file = cache.fetch(url, url, digest, NULL);
+		
+		FileUtils.writeStringToFile(file, "corrupt", "UTF-8");
+		Assert.assertEquals(file, cache.fetch(url, url, digest, NULL));
+		Assert.assertEquals("archive contents", FileUtils.readFileToString(file, "UTF-8"));
+	}
+
+}